@@ -0,0 +1,43 @@
+package com.bludots.benchmarks;
+
+import com.bludots.Application;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Boots the application without a web server on its own embedded H2 database, seeded
+ * with a synthetic fleet of the requested size by the fleet generator.
+ */
+public final class BenchmarkContext {
+
+    private BenchmarkContext() {}
+
+    // Command-line arguments, so that they override application.properties
+    public static ConfigurableApplicationContext start(int fleetSize, boolean cached) {
+        return new SpringApplicationBuilder(Application.class)
+                .web(WebApplicationType.NONE)
+                .run(
+                        "--spring.datasource.url=jdbc:h2:mem:bench-" + fleetSize + "-" + cached + ";DB_CLOSE_DELAY=-1",
+                        "--spring.jpa.show-sql=false",
+                        "--vaadin.launch-browser=false",
+                        // Vaadin and Hilla auto-configuration need a servlet context
+                        "--spring.autoconfigure.exclude=com.vaadin.flow.spring.SpringBootAutoConfiguration,"
+                                + "com.vaadin.flow.spring.SpringSecurityAutoConfiguration,"
+                                + "com.vaadin.hilla.EndpointController,"
+                                + "com.vaadin.hilla.push.PushConfigurer,"
+                                + "com.vaadin.hilla.ApplicationContextProvider,"
+                                + "com.vaadin.hilla.startup.EndpointRegistryInitializer,"
+                                + "com.vaadin.hilla.startup.RouteUnifyingServiceInitListener,"
+                                + "com.vaadin.hilla.route.RouteUtil,"
+                                + "com.vaadin.hilla.route.RouteUnifyingConfiguration,"
+                                + "com.vaadin.hilla.signals.config.SignalsConfiguration",
+                        "--central-manager.probes.enabled=false",
+                        "--central-manager.ingest.enabled=false",
+                        "--central-manager.reconciler.enabled=false",
+                        "--central-manager.cluster.enabled=false",
+                        "--central-manager.seed.instances=" + fleetSize,
+                        "--central-manager.cache.max-size=" + (cached ? fleetSize * 2 : 0),
+                        "--logging.level.root=warn");
+    }
+}
@@ -0,0 +1,144 @@
+package com.bludots.benchmarks;
+
+import com.bludots.logs.CompressedLogSegment;
+import com.bludots.logs.LogTimestamps;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.Deflater;
+
+/**
+ * Scanning one sealed segment: the raw file read line by line against the block-compressed
+ * segment, for the whole segment and for a time window covering 1% of it (where only the
+ * blocks in range are inflated). Setup prints the compression ratio.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LogArchiveBenchmark {
+
+    private static final DateTimeFormatter FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSS");
+    private static final String[] MESSAGES = {
+            " [INFO] Server startup in 5231 ms",
+            " [WARN] Low memory detected on heap space",
+            " [ERROR] Connection refused: jdbc:postgresql://db:5432/app",
+            " [INFO] GET /api/instances/42 200 12ms",
+            " [DEBUG] Session 7f3a9c expired after 1800 s"
+    };
+
+    @Param({"100000", "1000000"})
+    public int lines;
+
+    @Param({"65536", "262144"})
+    public int blockBytes;
+
+    private Path directory;
+    private Path raw;
+    private CompressedLogSegment compressed;
+    private long windowFrom;
+    private long windowTo;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("log-archive-benchmark");
+        raw = directory.resolve("1.log");
+        // One line per 10 ms
+        LocalDateTime start = LocalDateTime.of(2026, 10, 1, 0, 0);
+        try (BufferedWriter writer = Files.newBufferedWriter(raw, StandardCharsets.UTF_8)) {
+            for (int i = 0; i < lines; i++) {
+                writer.write(FORMAT.format(start.plusNanos(i * 10_000_000L)));
+                writer.write(MESSAGES[i % MESSAGES.length]);
+                writer.newLine();
+            }
+        }
+        compressed = CompressedLogSegment.write(raw, directory.resolve("1.logz"), blockBytes,
+                Deflater.DEFAULT_COMPRESSION);
+        long first = start.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        windowFrom = first + lines * 10L / 2;
+        windowTo = windowFrom + lines / 10;
+        System.out.printf("%n%d lines: raw %d bytes, compressed %d bytes in %d blocks (%.1f%%)%n", lines,
+                Files.size(raw), Files.size(compressed.path()), compressed.blocks(),
+                100.0 * Files.size(compressed.path()) / Files.size(raw));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(raw);
+        Files.deleteIfExists(compressed.path());
+        Files.deleteIfExists(directory);
+    }
+
+    @Benchmark
+    public long rawFullScan() throws IOException {
+        return scanRaw(Long.MIN_VALUE, Long.MAX_VALUE);
+    }
+
+    @Benchmark
+    public long compressedFullScan() throws IOException {
+        return scanCompressed(Long.MIN_VALUE, Long.MAX_VALUE);
+    }
+
+    @Benchmark
+    public long rawWindowScan() throws IOException {
+        return scanRaw(windowFrom, windowTo);
+    }
+
+    @Benchmark
+    public long compressedWindowScan() throws IOException {
+        return scanCompressed(windowFrom, windowTo);
+    }
+
+    // A raw file has no index: every line is read and its time checked
+    private long scanRaw(long from, long to) throws IOException {
+        long matches = 0;
+        try (BufferedReader reader = Files.newBufferedReader(raw, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (inRange(line, from, to)) {
+                    matches++;
+                }
+            }
+        }
+        return matches;
+    }
+
+    private long scanCompressed(long from, long to) throws IOException {
+        long[] matches = {0};
+        compressed.scan(from, to, line -> {
+            if (inRange(line, from, to)) {
+                matches[0]++;
+            }
+            return true;
+        });
+        return matches[0];
+    }
+
+    private static boolean inRange(String line, long from, long to) {
+        long time = LogTimestamps.parse(line);
+        return time >= from && time <= to;
+    }
+}
@@ -0,0 +1,76 @@
+package com.bludots.benchmarks;
+
+import com.bludots.logs.LogIndex;
+import com.bludots.logs.LogLevel;
+import com.bludots.logs.LogTimestamps;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-line log parsing: level classification, timestamp parsing and tokenizing, over a
+ * mix of ISO, Tomcat (JUL) and continuation lines.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LogParsingBenchmark {
+
+    private static final String[] SAMPLES = {
+            "2025-10-01 12:00:01.123 [INFO] Server startup in 5231 ms",
+            "2025-10-01 12:00:02.456 [WARN] Low memory detected on heap space",
+            "2025-10-01 12:00:03.789 [ERROR] Connection refused: jdbc:postgresql://db:5432/app",
+            "01-Oct-2025 12:00:04.012 SEVERE [main] org.apache.catalina.core.StandardContext.startInternal Error",
+            "01-Oct-2025 12:00:05.345 WARNING [http-nio-8080-exec-1] org.apache.tomcat.util.SessionIdGenerator",
+            "\tat org.apache.catalina.core.StandardWrapperValve.invoke(StandardWrapperValve.java:197)"
+    };
+
+    @Param({"1000", "10000", "100000"})
+    public int lines;
+
+    private String[] input;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        input = new String[lines];
+        for (int i = 0; i < lines; i++) {
+            input[i] = SAMPLES[i % SAMPLES.length];
+        }
+    }
+
+    @Benchmark
+    public void classifyLevel(Blackhole blackhole) {
+        for (String line : input) {
+            blackhole.consume(LogLevel.of(line));
+        }
+    }
+
+    @Benchmark
+    public void parseTimestamp(Blackhole blackhole) {
+        for (String line : input) {
+            blackhole.consume(LogTimestamps.parse(line));
+        }
+    }
+
+    @Benchmark
+    public void tokenize(Blackhole blackhole) {
+        for (String line : input) {
+            blackhole.consume(LogIndex.tokenize(line));
+        }
+    }
+}
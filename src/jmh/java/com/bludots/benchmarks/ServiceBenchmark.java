@@ -0,0 +1,77 @@
+package com.bludots.benchmarks;
+
+import com.bludots.entities.TomcatInstanceEntity;
+import com.bludots.repositories.TomcatInstanceRepository;
+import com.bludots.services.TomcatInstanceService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Service read paths, with the shared cache enabled (in-memory answers) and disabled
+ * (every call goes to H2), plus the n-gram typeahead against the repository LIKE query.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ServiceBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    public int fleetSize;
+
+    @Param({"true", "false"})
+    public boolean cached;
+
+    private ConfigurableApplicationContext context;
+    private TomcatInstanceService service;
+    private TomcatInstanceRepository repository;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start(fleetSize, cached);
+        service = context.getBean(TomcatInstanceService.class);
+        repository = context.getBean(TomcatInstanceRepository.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<TomcatInstanceEntity> searchAndFilter() {
+        return service.searchAndFilter("acme", "Running");
+    }
+
+    @Benchmark
+    public List<TomcatInstanceEntity> getByStatus() {
+        return service.getByStatus("Stopped");
+    }
+
+    @Benchmark
+    public List<TomcatInstanceEntity> typeaheadIndex() {
+        return service.lookup("dyne", 20);
+    }
+
+    @Benchmark
+    public List<TomcatInstanceEntity> typeaheadRepository() {
+        return repository.findByNameContainingIgnoreCase("dyne");
+    }
+}
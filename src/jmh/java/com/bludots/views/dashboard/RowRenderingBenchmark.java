@@ -0,0 +1,89 @@
+package com.bludots.views.dashboard;
+
+import com.bludots.benchmarks.BenchmarkContext;
+import com.bludots.entities.TomcatInstanceEntity;
+import com.bludots.services.TomcatInstanceService;
+import com.vaadin.flow.component.contextmenu.SubMenu;
+import com.vaadin.flow.component.html.Span;
+import com.vaadin.flow.component.menubar.MenuBar;
+import com.vaadin.flow.function.ValueProvider;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Server-side cost of rendering the status and actions cells for every row of the fleet:
+ * the renderer properties the grid serializes today, against the per-row badge + menu
+ * component tree it used to build ({@code legacyComponents}, kept here as the baseline).
+ * Lives in the view's package to reach the package-private renderer factories.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RowRenderingBenchmark {
+
+    private static final String[] LEGACY_ACTIONS = {"Start", "Stop", "Redeploy", "Cancel pending", "Edit", "Delete"};
+
+    @Param({"1000", "10000", "100000"})
+    public int fleetSize;
+
+    private ConfigurableApplicationContext context;
+    private List<TomcatInstanceEntity> rows;
+    private Collection<ValueProvider<TomcatInstanceEntity, ?>> rowProperties;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start(fleetSize, true);
+        rows = context.getBean(TomcatInstanceService.class).getAll();
+        rowProperties = new ArrayList<>(DashboardView.statusBadgeRenderer().getValueProviders().values());
+        rowProperties.addAll(DashboardView.actionsRenderer().getValueProviders().values());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public void rendererProperties(Blackhole blackhole) {
+        for (TomcatInstanceEntity row : rows) {
+            for (ValueProvider<TomcatInstanceEntity, ?> property : rowProperties) {
+                blackhole.consume(property.apply(row));
+            }
+        }
+    }
+
+    // What addComponentColumn built per row before: a badge Span and a MenuBar with six items
+    @Benchmark
+    public void legacyComponents(Blackhole blackhole) {
+        for (TomcatInstanceEntity row : rows) {
+            blackhole.consume(new Span(row.getStatus().label()));
+            MenuBar menuBar = new MenuBar();
+            SubMenu sub = menuBar.addItem("⋮").getSubMenu();
+            for (String action : LEGACY_ACTIONS) {
+                sub.addItem(action, e -> blackhole.consume(row));
+            }
+            blackhole.consume(menuBar);
+        }
+    }
+}
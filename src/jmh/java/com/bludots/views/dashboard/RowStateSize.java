@@ -0,0 +1,94 @@
+package com.bludots.views.dashboard;
+
+import com.bludots.entities.InstanceStatus;
+import com.bludots.entities.TomcatInstanceEntity;
+import com.vaadin.flow.component.Component;
+import com.vaadin.flow.component.contextmenu.SubMenu;
+import com.vaadin.flow.component.html.Span;
+import com.vaadin.flow.component.menubar.MenuBar;
+import com.vaadin.flow.function.ValueProvider;
+import elemental.json.Json;
+import elemental.json.JsonObject;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * State per grid row of the status and actions cells, the size counterpart of
+ * {@link RowRenderingBenchmark}: the serialized server-side component tree the cells used
+ * to build per row ({@code legacy}) against the renderer properties each row adds to the
+ * row JSON now. Both exclude what every row has either way (item key, name and IP cells).
+ * <p>
+ * Run with {@code mvn -Pbenchmark compile exec:java
+ * -Dexec.mainClass=com.bludots.views.dashboard.RowStateSize [-Drows=1000]}.
+ */
+public final class RowStateSize {
+
+    private static final String[] LEGACY_ACTIONS = {"Start", "Stop", "Redeploy", "Cancel pending", "Edit", "Delete"};
+    private static final InstanceStatus[] STATUSES = InstanceStatus.values();
+
+    private RowStateSize() {}
+
+    public static void main(String[] args) throws IOException {
+        int rows = Integer.getInteger("rows", 1000);
+        List<TomcatInstanceEntity> instances = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            TomcatInstanceEntity instance = new TomcatInstanceEntity("Client " + i, STATUSES[i % STATUSES.length],
+                    "10.0." + (i >> 8 & 255) + "." + (i & 255));
+            instance.setId((long) i + 1);
+            instances.add(instance);
+        }
+
+        List<Component> legacy = new ArrayList<>(rows * 2);
+        int legacyComponents = 0;
+        for (TomcatInstanceEntity instance : instances) {
+            legacyComponents += legacyRow(instance, legacy);
+        }
+        long legacyBytes = serializedSize((Serializable) legacy);
+
+        long rendererBytes = 0;
+        Map<String, ValueProvider<TomcatInstanceEntity, ?>> properties =
+                new LinkedHashMap<>(DashboardView.statusBadgeRenderer().getValueProviders());
+        properties.putAll(DashboardView.actionsRenderer().getValueProviders());
+        for (TomcatInstanceEntity instance : instances) {
+            JsonObject row = Json.createObject();
+            properties.forEach((name, provider) -> row.put(name, String.valueOf(provider.apply(instance))));
+            rendererBytes += row.toJson().getBytes(StandardCharsets.UTF_8).length;
+        }
+
+        System.out.printf("%,d rows%n", rows);
+        System.out.printf("legacy:   %d components per row, %,d serialized bytes per row (server-side state tree)%n",
+                legacyComponents / rows, legacyBytes / rows);
+        System.out.printf("renderer: 0 components per row, %,d bytes of row JSON per row (%d properties)%n",
+                rendererBytes / rows, properties.size());
+    }
+
+    // What addComponentColumn built per row: a badge Span and a MenuBar with six items; returns the component count
+    private static int legacyRow(TomcatInstanceEntity instance, List<Component> into) {
+        Long id = instance.getId();
+        Span badge = new Span(instance.getStatus().label());
+        MenuBar menuBar = new MenuBar();
+        SubMenu sub = menuBar.addItem("⋮").getSubMenu();
+        for (String action : LEGACY_ACTIONS) {
+            sub.addItem(action, e -> id.hashCode());
+        }
+        into.add(badge);
+        into.add(menuBar);
+        return 3 + LEGACY_ACTIONS.length; // badge, menu bar, root item, six items
+    }
+
+    private static long serializedSize(Serializable value) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(value);
+        }
+        return bytes.size();
+    }
+}
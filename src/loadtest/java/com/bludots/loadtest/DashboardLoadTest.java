@@ -0,0 +1,343 @@
+package com.bludots.loadtest;
+
+import com.bludots.Application;
+import com.bludots.entities.TomcatInstanceEntity;
+import com.bludots.views.dashboard.DashboardView;
+import com.vaadin.flow.component.Component;
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.component.button.Button;
+import com.vaadin.flow.component.combobox.ComboBox;
+import com.vaadin.flow.component.grid.Grid;
+import com.vaadin.flow.component.select.Select;
+import com.vaadin.flow.component.textfield.TextField;
+import com.vaadin.flow.data.provider.DataChangeEvent;
+import com.vaadin.flow.data.provider.DataCommunicator;
+import com.vaadin.flow.data.provider.DataProvider;
+import com.vaadin.flow.data.provider.Query;
+import com.vaadin.flow.internal.CurrentInstance;
+import com.vaadin.flow.server.VaadinSession;
+import com.vaadin.testbench.unit.internal.MockVaadin;
+import com.vaadin.testbench.unit.internal.Routes;
+import com.vaadin.testbench.unit.mocks.MockServletConfig;
+import com.vaadin.testbench.unit.mocks.MockSpringServlet;
+import com.vaadin.testbench.unit.mocks.MockVaadinHelper;
+import com.vaadin.testbench.unit.mocks.MockedUI;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.ServletException;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+/**
+ * End-to-end load harness: boots the application on a synthetic fleet and opens many
+ * concurrent dashboard sessions, each a real {@code VaadinSession} and {@code UI} served by
+ * TestBench's mock servlet. Every simulated user types searches, changes the status filter,
+ * scrolls the grid, uses quick find and starts or stops instances through the dashboard's
+ * own components; a client round trip then runs the queued push tasks and the grid's data
+ * communicator, as a UIDL request would. Prints the heap held per open session and latency
+ * percentiles per action. Syslog ingest, the reconciler and the cluster poller are off, so
+ * it can run next to a live instance and only the simulated actions write.
+ * <p>
+ * Each simulated user keeps its session locked on its own thread, like a request that never
+ * ends: pushes from other threads queue up and are timed as {@code push} at the next round
+ * trip. No HTTP, JSON encoding or browser is involved.
+ * <p>
+ * Run with {@code mvn -Ploadtest test-compile exec:java -Dfleet=100000 -Dsessions=200 -Dduration=60}.
+ */
+public final class DashboardLoadTest {
+
+    private static final String[] KEYWORDS = {"acme", "globex", "prod", "staging", "dyne", "10.20", "corp", "lab"};
+    private static final String[] STATUSES = {"All", "All", "Running", "Stopped", "Deploying", "Failed"};
+    private static final int PAGE_SIZE = 50;
+    private static final int QUICK_FIND_LIMIT = 20;
+    private static final long RESULTS_TIMEOUT_MS = 30_000;
+
+    private final SimpleMeterRegistry latencies = new SimpleMeterRegistry();
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> errors = new ConcurrentHashMap<>();
+
+    public static void main(String[] args) throws Exception {
+        int fleet = Integer.getInteger("fleet", 100_000);
+        int sessions = Integer.getInteger("sessions", 200);
+        int durationSeconds = Integer.getInteger("duration", 60);
+        new DashboardLoadTest().run(fleet, sessions, durationSeconds);
+    }
+
+    private void run(int fleet, int sessions, int durationSeconds) throws Exception {
+        // Command-line arguments, so that they override application.properties
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(Application.class)
+                .web(WebApplicationType.NONE)
+                .run(
+                        "--spring.datasource.url=jdbc:h2:mem:loadtest;DB_CLOSE_DELAY=-1",
+                        "--spring.jpa.show-sql=false",
+                        "--vaadin.launch-browser=false",
+                        // Vaadin and Hilla auto-configuration need a servlet context
+                        "--spring.autoconfigure.exclude=com.vaadin.flow.spring.SpringBootAutoConfiguration,"
+                                + "com.vaadin.flow.spring.SpringSecurityAutoConfiguration,"
+                                + "com.vaadin.hilla.EndpointController,"
+                                + "com.vaadin.hilla.push.PushConfigurer,"
+                                + "com.vaadin.hilla.ApplicationContextProvider,"
+                                + "com.vaadin.hilla.startup.EndpointRegistryInitializer,"
+                                + "com.vaadin.hilla.startup.RouteUnifyingServiceInitListener,"
+                                + "com.vaadin.hilla.route.RouteUtil,"
+                                + "com.vaadin.hilla.route.RouteUnifyingConfiguration,"
+                                + "com.vaadin.hilla.signals.config.SignalsConfiguration",
+                        "--central-manager.probes.enabled=false",
+                        "--central-manager.ingest.enabled=false",
+                        "--central-manager.reconciler.enabled=false",
+                        "--central-manager.cluster.enabled=false",
+                        "--central-manager.seed.instances=" + fleet,
+                        "--logging.level.root=warn");
+        try {
+            MockSpringServlet servlet = startServlet(context);
+            long heapBefore = usedHeapAfterGc();
+
+            CountDownLatch opened = new CountDownLatch(sessions);
+            CountDownLatch go = new CountDownLatch(1);
+            CountDownLatch finished = new CountDownLatch(sessions);
+            CountDownLatch closing = new CountDownLatch(1);
+            long[] deadline = new long[1];
+            // Platform threads, like the servlet container's request threads
+            ExecutorService clients = Executors.newThreadPerTaskExecutor(Thread.ofPlatform().name("session-", 0).factory());
+            for (int i = 0; i < sessions; i++) {
+                clients.execute(() -> session(servlet, opened, go, finished, closing, deadline));
+            }
+            opened.await();
+            long heapOpened = usedHeapAfterGc();
+
+            deadline[0] = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(durationSeconds);
+            go.countDown();
+            finished.await(durationSeconds + 120L, TimeUnit.SECONDS);
+            long heapAfterRun = usedHeapAfterGc();
+            closing.countDown();
+            clients.shutdown();
+            clients.awaitTermination(30, TimeUnit.SECONDS);
+            // Closing the sessions frees only what they held, not what the run cached elsewhere
+            long heapClosed = usedHeapAfterGc();
+
+            report(fleet, sessions, durationSeconds, (heapOpened - heapBefore) / sessions,
+                    (heapAfterRun - heapClosed) / sessions);
+        } finally {
+            context.close();
+        }
+    }
+
+    // One servlet and service for all sessions, as in a deployed application
+    private static MockSpringServlet startServlet(ConfigurableApplicationContext context) throws ServletException {
+        MockSpringServlet servlet = new MockSpringServlet(new Routes().autoDiscoverViews("com.bludots.views"),
+                context, MockedUI::new);
+        servlet.init(new MockServletConfig(MockVaadinHelper.INSTANCE.createMockContext(Set.of())));
+        return servlet;
+    }
+
+    // One simulated user: opens the dashboard, then a weighted mix of actions with think time in between
+    private void session(MockSpringServlet servlet, CountDownLatch opened, CountDownLatch go,
+                         CountDownLatch finished, CountDownLatch closing, long[] deadline) {
+        Dashboard d;
+        try {
+            // Binds a new session and UI to this thread and keeps the session locked
+            MockVaadin.setup(MockedUI::new, servlet, Set.of());
+            d = new Dashboard(UI.getCurrent().navigate(DashboardView.class).orElseThrow());
+            d.scrollTo(0);
+        } finally {
+            opened.countDown();
+        }
+        try {
+            go.await();
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            while (System.currentTimeMillis() < deadline[0]) {
+                record("push", MockVaadin::clientRoundtrip);
+                int roll = random.nextInt(100);
+                if (roll < 35) {
+                    String keyword = pick(random, KEYWORDS, d.search.getValue());
+                    record("search", () -> d.filter(() -> d.search.setValue(keyword)));
+                } else if (roll < 55) {
+                    String status = pick(random, STATUSES, d.status.getValue());
+                    record("filter", () -> d.filter(() -> d.status.setValue(status)));
+                } else if (roll < 80) {
+                    record("scroll", () -> d.scrollTo(d.offset + PAGE_SIZE));
+                } else if (roll < 92) {
+                    String keyword = KEYWORDS[random.nextInt(KEYWORDS.length)];
+                    record("quickFind", () -> d.quickFind(keyword));
+                } else {
+                    TomcatInstanceEntity row = d.visibleRow(random);
+                    if (row != null) {
+                        boolean start = random.nextBoolean();
+                        record(start ? "bulk.start" : "bulk.stop", () -> d.bulk(row, start));
+                    }
+                }
+                sleepQuietly(50 + random.nextInt(450));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            finished.countDown();
+        }
+        try {
+            closing.await(); // stays open until the heap is measured
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // Detaches the dashboard, so that it unsubscribes from the event bus
+        VaadinSession.getCurrent().removeUI(UI.getCurrent());
+        CurrentInstance.clearAll();
+    }
+
+    private static String pick(ThreadLocalRandom random, String[] values, String current) {
+        String value;
+        do {
+            value = values[random.nextInt(values.length)];
+        } while (value.equals(current)); // the same value fires no change
+        return value;
+    }
+
+    private void record(String action, Runnable call) {
+        Timer timer = timers.computeIfAbsent(action, name -> Timer.builder("loadtest")
+                .tag("action", name)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(latencies));
+        try {
+            timer.record(call);
+        } catch (RuntimeException e) {
+            // Counted and reported; the session goes on, as the client would after an error response
+            errors.computeIfAbsent(action, name -> new LongAdder()).increment();
+        }
+    }
+
+    private static long usedHeapAfterGc() throws InterruptedException {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            Thread.sleep(200);
+        }
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    private void report(int fleet, int sessions, int durationSeconds, long heapPerSession, long heapPerSessionAfterRun) {
+        Runtime runtime = Runtime.getRuntime();
+        System.out.printf("%nFleet %,d instances, %d sessions, %d s%n", fleet, sessions, durationSeconds);
+        System.out.printf("Heap per session %,d KB when opened, %,d KB after the run (heap max %,d MB)%n%n",
+                heapPerSession >> 10, heapPerSessionAfterRun >> 10, runtime.maxMemory() >> 20);
+        System.out.printf("%-18s %9s %7s %10s %10s %10s %10s %10s%n", "action", "count", "errors", "mean ms", "p50 ms",
+                "p95 ms", "p99 ms", "max ms");
+        timers.entrySet().stream().sorted(Map.Entry.comparingByKey()).forEach(entry -> {
+            HistogramSnapshot snapshot = entry.getValue().takeSnapshot();
+            ValueAtPercentile[] percentiles = snapshot.percentileValues();
+            LongAdder failed = errors.get(entry.getKey());
+            System.out.printf("%-18s %9d %7d %10.2f %10.2f %10.2f %10.2f %10.2f%n", entry.getKey(), snapshot.count(),
+                    failed == null ? 0 : failed.sum(),
+                    snapshot.mean(TimeUnit.MILLISECONDS),
+                    percentiles[0].value(TimeUnit.MILLISECONDS),
+                    percentiles[1].value(TimeUnit.MILLISECONDS),
+                    percentiles[2].value(TimeUnit.MILLISECONDS),
+                    snapshot.max(TimeUnit.MILLISECONDS));
+        });
+    }
+
+    private static void sleepQuietly(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // The dashboard's components, driven the way the client would drive them; session thread only
+    private static final class Dashboard {
+
+        private final TextField search;
+        private final Select<String> status;
+        private final ComboBox<TomcatInstanceEntity> quickFind;
+        private final Grid<TomcatInstanceEntity> grid;
+        private final Button startSelected;
+        private final Button stopSelected;
+        // Grid reloads so far: a search has its results once the dashboard reloaded the grid
+        private int reloads;
+        private int offset;
+
+        @SuppressWarnings("unchecked")
+        private Dashboard(DashboardView view) {
+            search = find(view, TextField.class).findFirst().orElseThrow();
+            status = find(view, Select.class).findFirst().orElseThrow();
+            quickFind = find(view, ComboBox.class).findFirst().orElseThrow();
+            grid = find(view, Grid.class).findFirst().orElseThrow();
+            startSelected = button(view, "Start selected");
+            stopSelected = button(view, "Stop selected");
+            grid.getDataProvider().addDataProviderListener(e -> {
+                if (!(e instanceof DataChangeEvent.DataRefreshEvent)) {
+                    reloads++; // refreshAll, not a single pushed row
+                }
+            });
+        }
+
+        // Changes a filter and waits for the (possibly background) count and the first page
+        private void filter(Runnable change) {
+            int before = reloads;
+            change.run();
+            long timeout = System.currentTimeMillis() + RESULTS_TIMEOUT_MS;
+            VaadinSession session = VaadinSession.getCurrent();
+            while (reloads == before && System.currentTimeMillis() < timeout) {
+                if (session.getPendingAccessQueue().isEmpty()) {
+                    sleepQuietly(5); // the count is still running
+                } else {
+                    MockVaadin.clientRoundtrip(); // its result, pushed with ui.access
+                }
+            }
+            scrollTo(0);
+        }
+
+        // The client asks for the rows around its scroll position
+        private void scrollTo(int start) {
+            int size = grid.getDataCommunicator().getItemCount();
+            offset = start < size ? start : 0;
+            grid.getDataCommunicator().setViewportRange(offset, PAGE_SIZE);
+            MockVaadin.clientRoundtrip();
+        }
+
+        // The client sends the typed filter, the combo box fetches its first page
+        @SuppressWarnings("unchecked")
+        private void quickFind(String filter) {
+            DataProvider<TomcatInstanceEntity, String> items =
+                    (DataProvider<TomcatInstanceEntity, String>) quickFind.getDataProvider();
+            items.fetch(new Query<>(0, QUICK_FIND_LIMIT, List.of(), null, filter)).count();
+        }
+
+        private TomcatInstanceEntity visibleRow(ThreadLocalRandom random) {
+            DataCommunicator<TomcatInstanceEntity> rows = grid.getDataCommunicator();
+            int visible = Math.min(PAGE_SIZE, rows.getItemCount() - offset);
+            return visible > 0 ? rows.getItem(offset + random.nextInt(visible)) : null;
+        }
+
+        // Selects the row and clicks the bulk button; progress and the result arrive as pushes
+        private void bulk(TomcatInstanceEntity row, boolean start) {
+            grid.select(row);
+            (start ? startSelected : stopSelected).click();
+            MockVaadin.clientRoundtrip();
+        }
+
+        private static Button button(Component root, String text) {
+            return find(root, Button.class).filter(b -> b.getText().endsWith(text)).findFirst().orElseThrow();
+        }
+
+        private static <C extends Component> Stream<C> find(Component root, Class<C> type) {
+            return Stream.concat(Stream.of(root), root.getChildren().flatMap(child -> find(child, Component.class)))
+                    .filter(type::isInstance)
+                    .map(type::cast);
+        }
+    }
+}
@@ -0,0 +1,5 @@
+import { aw as a, av as i } from "./copilot/copilot-CtbfhQDw.js";
+export {
+  a as _createChildrenDefinitions,
+  i as _registerImporter
+};
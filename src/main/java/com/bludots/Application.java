@@ -1,14 +1,17 @@
 package com.bludots;
 
+import com.bludots.entities.InstanceStatus;
 import com.bludots.entities.TomcatInstanceEntity;
 import com.bludots.repositories.TomcatInstanceRepository;
+import com.bludots.seed.FleetGenerator;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
 import com.vaadin.flow.component.page.AppShellConfigurator;
+import com.vaadin.flow.component.page.Push;
 import com.vaadin.flow.theme.Theme;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.annotation.Bean;
-import org.springframework.scheduling.annotation.EnableAsync;
 /**
  * The entry point of the Spring Boot application.
  *
@@ -16,9 +19,9 @@ import org.springframework.scheduling.annotation.EnableAsync;
  * and some desktop browsers.
  *
  */
-@EnableAsync
 @SpringBootApplication
 @Theme(value = "central-manager")
+@Push
 public class Application implements AppShellConfigurator {
 
     public static void main(String[] args) {
@@ -26,12 +29,17 @@ public class Application implements AppShellConfigurator {
     }
 
     @Bean
-    CommandLineRunner initDatabase(TomcatInstanceRepository repository) {
+    CommandLineRunner initDatabase(TomcatInstanceRepository repository, FleetGenerator fleetGenerator,
+                                   @Value("${central-manager.seed.instances:0}") int seedInstances,
+                                   @Value("${central-manager.seed.random-seed:42}") long randomSeed) {
         return args -> {
-            if (repository.count() == 0) {
-                repository.save(new TomcatInstanceEntity("Client A", "Running", "10.0.0.10"));
-                repository.save(new TomcatInstanceEntity("Client B", "Stopped", "10.0.0.15"));
-                repository.save(new TomcatInstanceEntity("Client C", "Deploying", "10.0.0.22"));
+            if (repository.count() == 0 && seedInstances > 0) {
+                // Synthetic fleet for load and scale testing
+                fleetGenerator.generate(seedInstances, randomSeed);
+            } else if (repository.count() == 0) {
+                repository.save(new TomcatInstanceEntity("Client A", InstanceStatus.RUNNING, "10.0.0.10"));
+                repository.save(new TomcatInstanceEntity("Client B", InstanceStatus.STOPPED, "10.0.0.15"));
+                repository.save(new TomcatInstanceEntity("Client C", InstanceStatus.DEPLOYING, "10.0.0.22"));
             }
         };
     }
@@ -0,0 +1,13 @@
+package com.bludots.cache;
+
+/**
+ * Counters of the instance cache since startup.
+ */
+public record CacheStats(long hits, long misses, long evictions, int size, int maxSize, boolean complete,
+                         long version) {
+
+    public double hitRatio() {
+        long total = hits + misses;
+        return total == 0 ? 0 : (double) hits / total;
+    }
+}
@@ -0,0 +1,332 @@
+package com.bludots.cache;
+
+import com.bludots.entities.InstanceStatus;
+import com.bludots.entities.TomcatInstanceEntity;
+import com.bludots.repositories.TomcatInstanceRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Shared, in-memory copy of the fleet used by all UI sessions.
+ * <p>
+ * Entries are immutable {@link InstanceSnapshot}s, replaced one by one as the service
+ * saves, deletes or transitions instances (never flushed). Every change bumps the cache
+ * version. Entries are kept ordered by id, overall and per status, and the lists handed
+ * out are built once per version: reads between two changes share one immutable list
+ * instead of copying and sorting the fleet each time.
+ * <p>
+ * The cache holds at most {@code maxSize} entries, evicting the least recently used.
+ * While the fleet is larger it only serves lookups by id and list queries fall back to
+ * the database; every {@code rewarm-interval-ms} a list query checks in the background
+ * whether the fleet fits again and, if so, reloads it and becomes complete.
+ */
+@Component
+public class InstanceCache {
+
+    private static final Logger log = LoggerFactory.getLogger(InstanceCache.class);
+    private static final int WARM_UP_PAGE_SIZE = 5000;
+
+    private final TomcatInstanceRepository repository;
+    private final int maxSize;
+    private final long rewarmIntervalMs;
+
+    private final ConcurrentSkipListMap<Long, InstanceSnapshot> byId = new ConcurrentSkipListMap<>();
+    // One map per status, created up front and never replaced
+    private final Map<InstanceStatus, ConcurrentSkipListMap<Long, InstanceSnapshot>> byStatus =
+            new EnumMap<>(InstanceStatus.class);
+    // Eviction order, least recently used first; guarded by itself. Lookups by id only
+    // reorder it while the cache is incomplete, the only time evictions cost misses.
+    private final LinkedHashMap<Long, Boolean> recency = new LinkedHashMap<>(16, 0.75f, true);
+    // Writes only, guarded by this; the skip list's own size() is a traversal
+    private int size;
+    private final AtomicLong version = new AtomicLong();
+    // True when every instance of the fleet is in the cache
+    private volatile boolean complete;
+
+    // Lists of one cache version, replaced on the first read after a change
+    private volatile VersionedList allList;
+    private final Map<InstanceStatus, VersionedList> statusLists = new ConcurrentHashMap<>();
+
+    private final AtomicBoolean loading = new AtomicBoolean();
+    private volatile long lastLoad;
+    // Ids removed while a load runs, so that its stale pages do not bring them back; guarded by this
+    private final Set<Long> removedDuringLoad = new HashSet<>();
+    // Ids transitioned while a load runs before their page was stored; re-read after the pages. Guarded by this
+    private final Set<Long> transitionedDuringLoad = new HashSet<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    private final ExecutorService loader = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "instance-cache-loader");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public InstanceCache(TomcatInstanceRepository repository,
+                         @Value("${central-manager.cache.max-size:200000}") int maxSize,
+                         @Value("${central-manager.cache.rewarm-interval-ms:60000}") long rewarmIntervalMs) {
+        this.repository = repository;
+        this.maxSize = maxSize;
+        this.rewarmIntervalMs = rewarmIntervalMs;
+        for (InstanceStatus status : InstanceStatus.values()) {
+            byStatus.put(status, new ConcurrentSkipListMap<>());
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (loading.compareAndSet(false, true)) {
+            try {
+                load();
+            } finally {
+                loading.set(false);
+            }
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        loader.shutdownNow();
+    }
+
+    public Optional<InstanceSnapshot> get(Long id) {
+        InstanceSnapshot snapshot = byId.get(id);
+        count(snapshot != null);
+        if (snapshot != null && !complete) {
+            synchronized (recency) {
+                recency.get(id);
+            }
+        }
+        return Optional.ofNullable(snapshot);
+    }
+
+    // Same as get, without counting a hit or miss (bookkeeping lookups, not reads)
+    public Optional<InstanceSnapshot> peek(Long id) {
+        return Optional.ofNullable(byId.get(id));
+    }
+
+    // Whole fleet ordered by id, empty when the cache is not complete
+    public Optional<List<InstanceSnapshot>> all() {
+        if (!isCompleteForRead()) {
+            return Optional.empty();
+        }
+        VersionedList list = current(allList, byId);
+        allList = list;
+        return Optional.of(list.snapshots());
+    }
+
+    // Instances with the given status ordered by id, empty when the cache is not complete
+    public Optional<List<InstanceSnapshot>> byStatus(InstanceStatus status) {
+        if (!isCompleteForRead()) {
+            return Optional.empty();
+        }
+        VersionedList list = current(statusLists.get(status), byStatus.get(status));
+        statusLists.put(status, list);
+        return Optional.of(list.snapshots());
+    }
+
+    public Optional<Integer> size() {
+        if (!isCompleteForRead()) {
+            return Optional.empty();
+        }
+        synchronized (this) {
+            return Optional.of(size);
+        }
+    }
+
+    public boolean isComplete() {
+        return complete;
+    }
+
+    public void put(TomcatInstanceEntity entity) {
+        store(InstanceSnapshot.of(entity));
+    }
+
+    // A compare-and-set transition that was applied in the database
+    public synchronized void applyTransition(Long id, InstanceStatus status, LocalDateTime changedAt) {
+        InstanceSnapshot current = byId.get(id);
+        if (current != null) {
+            store(current.withStatus(status, changedAt));
+        } else if (loading.get()) {
+            // The load may hold a page read before this change: that row must not be stored
+            transitionedDuringLoad.add(id);
+        }
+    }
+
+    public synchronized void remove(Long id) {
+        if (loading.get()) {
+            removedDuringLoad.add(id);
+        }
+        InstanceSnapshot old = byId.remove(id);
+        if (old != null) {
+            unindex(old, true);
+            version.incrementAndGet();
+        }
+    }
+
+    public synchronized CacheStats stats() {
+        return new CacheStats(hits.sum(), misses.sum(), evictions.sum(), size, maxSize, complete, version.get());
+    }
+
+    // Loads the whole fleet if it fits; complete when no entry had to be evicted on the way
+    private void load() {
+        lastLoad = System.currentTimeMillis();
+        long total = repository.count();
+        if (total > maxSize) {
+            log.info("Fleet of {} instances exceeds cache size {}, serving lookups by id only", total, maxSize);
+            return;
+        }
+        long evictedBefore = evictions.sum();
+        Page<TomcatInstanceEntity> page;
+        int pageNumber = 0;
+        do {
+            page = repository.findAll(PageRequest.of(pageNumber++, WARM_UP_PAGE_SIZE, Sort.by("id")));
+            page.forEach(this::load);
+        } while (page.hasNext());
+        // Rows transitioned before they were stored are read again, until no new transition slipped in
+        Set<Long> transitioned;
+        while (!(transitioned = drainTransitioned()).isEmpty()) {
+            repository.findAllById(transitioned).forEach(this::load);
+        }
+        synchronized (this) {
+            removedDuringLoad.clear();
+            complete = evictions.sum() == evictedBefore;
+            log.info("Instance cache loaded with {} instances, complete: {}", size, complete);
+        }
+    }
+
+    private synchronized void load(TomcatInstanceEntity entity) {
+        if (!removedDuringLoad.contains(entity.getId()) && !transitionedDuringLoad.contains(entity.getId())) {
+            put(entity);
+        }
+    }
+
+    private synchronized Set<Long> drainTransitioned() {
+        Set<Long> ids = Set.copyOf(transitionedDuringLoad);
+        transitionedDuringLoad.clear();
+        return ids;
+    }
+
+    // Counts the read; an incomplete cache schedules a reload, at most once per interval
+    private boolean isCompleteForRead() {
+        boolean hit = complete;
+        count(hit);
+        if (!hit && System.currentTimeMillis() - lastLoad >= rewarmIntervalMs && loading.compareAndSet(false, true)) {
+            lastLoad = System.currentTimeMillis();
+            loader.execute(() -> {
+                try {
+                    load();
+                } catch (RuntimeException e) {
+                    log.warn("Instance cache reload failed", e);
+                } finally {
+                    loading.set(false);
+                }
+            });
+        }
+        return hit;
+    }
+
+    // The cached list if no change happened since it was built, else a fresh copy of the ordered map.
+    // The version is read before copying: a write racing the copy only makes the next read rebuild.
+    private VersionedList current(VersionedList cached, Map<Long, InstanceSnapshot> source) {
+        long current = version.get();
+        if (cached != null && cached.version() == current) {
+            return cached;
+        }
+        return new VersionedList(current, List.copyOf(source.values()));
+    }
+
+    private synchronized void store(InstanceSnapshot snapshot) {
+        InstanceSnapshot old = byId.get(snapshot.id());
+        if (old != null && isNewer(old, snapshot)) {
+            return; // a late write of older data (e.g. warm-up racing a transition)
+        }
+        if (old == null && size >= maxSize && !evictLeastRecentlyUsed()) {
+            return; // nothing to evict: a cache of size 0
+        }
+        byId.put(snapshot.id(), snapshot);
+        if (old != null) {
+            unindex(old, false);
+        } else {
+            size++;
+        }
+        if (snapshot.status() != null) {
+            byStatus.get(snapshot.status()).put(snapshot.id(), snapshot);
+        }
+        synchronized (recency) {
+            recency.put(snapshot.id(), Boolean.TRUE);
+        }
+        version.incrementAndGet();
+    }
+
+    // Bounded size: the fleet no longer fits, list queries go to the database until a reload succeeds.
+    // Returns false when there was nothing to evict.
+    private boolean evictLeastRecentlyUsed() {
+        complete = false;
+        Long victim;
+        synchronized (recency) {
+            Iterator<Long> it = recency.keySet().iterator();
+            if (!it.hasNext()) {
+                return false;
+            }
+            victim = it.next();
+        }
+        InstanceSnapshot old = byId.remove(victim);
+        if (old != null) {
+            unindex(old, true);
+        }
+        evictions.increment();
+        return true;
+    }
+
+    // Drops the status entry and, for a removal, the recency entry and the count
+    private void unindex(InstanceSnapshot old, boolean removed) {
+        if (old.status() != null) {
+            byStatus.get(old.status()).remove(old.id());
+        }
+        if (removed) {
+            synchronized (recency) {
+                recency.remove(old.id());
+            }
+            size--;
+        }
+    }
+
+    private boolean isNewer(InstanceSnapshot current, InstanceSnapshot candidate) {
+        return current.version() != null && candidate.version() != null && current.version() > candidate.version();
+    }
+
+    private void count(boolean hit) {
+        (hit ? hits : misses).increment();
+    }
+
+    private record VersionedList(long version, List<InstanceSnapshot> snapshots) {
+    }
+}
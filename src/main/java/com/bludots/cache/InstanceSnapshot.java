@@ -0,0 +1,35 @@
+package com.bludots.cache;
+
+import com.bludots.entities.InstanceStatus;
+import com.bludots.entities.TomcatInstanceEntity;
+
+import java.time.LocalDateTime;
+
+/**
+ * Immutable cached copy of one instance row. Readers get fresh detached entities from
+ * it, so no UI can modify what other sessions see.
+ */
+public record InstanceSnapshot(Long id, String name, InstanceStatus status, String ipAddress,
+                               LocalDateTime lastStatusChange, Long version) {
+
+    public static InstanceSnapshot of(TomcatInstanceEntity entity) {
+        return new InstanceSnapshot(entity.getId(), entity.getName(), entity.getStatus(), entity.getIpAddress(),
+                entity.getLastStatusChange(), entity.getVersion());
+    }
+
+    // Result of a compare-and-set transition (the UPDATE bumps the version)
+    public InstanceSnapshot withStatus(InstanceStatus newStatus, LocalDateTime changedAt) {
+        return new InstanceSnapshot(id, name, newStatus, ipAddress, changedAt, version == null ? null : version + 1);
+    }
+
+    public TomcatInstanceEntity toEntity() {
+        TomcatInstanceEntity entity = new TomcatInstanceEntity();
+        entity.setId(id);
+        entity.setName(name);
+        entity.setStatus(status);
+        entity.setIpAddress(ipAddress);
+        entity.setLastStatusChange(lastStatusChange);
+        entity.setVersion(version);
+        return entity;
+    }
+}
@@ -0,0 +1,99 @@
+package com.bludots.cache;
+
+import com.bludots.entities.InstanceStatus;
+import com.bludots.repositories.TomcatInstanceRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Number of instances per status for the whole fleet, independent of the cache size.
+ * Loaded once with a GROUP BY on startup and from then on adjusted by every save,
+ * delete and transition, so reading the summary never touches the database.
+ * <p>
+ * The GROUP BY runs before any other ready listener: after the seed runners, before the
+ * reconciler, probes and ingest start changing statuses. Deltas are taken from the rows
+ * as locked by the write, so a negative count means drift and is logged, not hidden.
+ */
+@Component
+public class StatusCounters {
+
+    private static final Logger log = LoggerFactory.getLogger(StatusCounters.class);
+
+    private final TomcatInstanceRepository repository;
+    private final LongAdder[] counts = new LongAdder[InstanceStatus.values().length];
+
+    public StatusCounters(TomcatInstanceRepository repository) {
+        this.repository = repository;
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = new LongAdder();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void initialize() {
+        for (LongAdder count : counts) {
+            count.reset();
+        }
+        for (Object[] row : repository.countByStatus()) {
+            if (row[0] instanceof InstanceStatus status) {
+                counts[status.ordinal()].add(((Number) row[1]).longValue());
+            }
+        }
+        log.info("Status counters initialized: {}", snapshot());
+    }
+
+    public void added(InstanceStatus status) {
+        counts[status.ordinal()].increment();
+    }
+
+    public void removed(InstanceStatus status) {
+        counts[status.ordinal()].decrement();
+        checkNotNegative(status);
+    }
+
+    public void moved(InstanceStatus from, InstanceStatus to, long instances) {
+        if (from != to && instances > 0) {
+            counts[from.ordinal()].add(-instances);
+            counts[to.ordinal()].add(instances);
+            checkNotNegative(from);
+        }
+    }
+
+    public long count(InstanceStatus status) {
+        return counts[status.ordinal()].sum();
+    }
+
+    public long total() {
+        long total = 0;
+        for (InstanceStatus status : InstanceStatus.values()) {
+            total += count(status);
+        }
+        return total;
+    }
+
+    public Map<InstanceStatus, Long> snapshot() {
+        Map<InstanceStatus, Long> snapshot = new EnumMap<>(InstanceStatus.class);
+        for (InstanceStatus status : InstanceStatus.values()) {
+            snapshot.put(status, count(status));
+        }
+        return snapshot;
+    }
+
+    // A delta was applied twice or to the wrong status; the count stays off until restart
+    private void checkNotNegative(InstanceStatus status) {
+        long count = counts[status.ordinal()].sum();
+        if (count < 0) {
+            log.warn("Status counter for {} dropped to {}", status.label(), count);
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.bludots.cluster;
+
+import com.bludots.entities.InstanceStatus;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * The {@code change_feed} table: every instance change made by any node, in commit-safe
+ * sequence order. Writers append inside the transaction of the change itself, so a feed
+ * row exists exactly when the change committed; {@link ChangeFeedPoller} reads it back.
+ */
+@Component
+public class ChangeFeed {
+
+    private static final String INSERT = "insert into change_feed"
+            + " (instance_id, kind, from_status, to_status, node, changed_at) values (?, ?, ?, ?, ?, ?)";
+    private static final String SELECT_AFTER = "select seq, instance_id, kind, from_status, to_status, node, changed_at"
+            + " from change_feed where seq > ? order by seq limit ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String nodeId;
+
+    public ChangeFeed(JdbcTemplate jdbcTemplate, @Value("${central-manager.cluster.node-id:}") String nodeId) {
+        this.jdbcTemplate = jdbcTemplate;
+        // Unique per process unless configured; only used to skip a node's own entries
+        this.nodeId = nodeId.isBlank() ? UUID.randomUUID().toString() : nodeId;
+    }
+
+    public String nodeId() {
+        return nodeId;
+    }
+
+    // Must run inside the transaction that makes the change
+    public void append(Long instanceId, ChangeKind kind, InstanceStatus from, InstanceStatus to, LocalDateTime at) {
+        jdbcTemplate.update(INSERT, row(instanceId, kind, from, to, at));
+    }
+
+    // One batch for the transitions of a transitionAll (id -> source state), same transaction
+    public void appendTransitions(Map<Long, InstanceStatus> sources, InstanceStatus to, LocalDateTime at) {
+        if (sources.isEmpty()) {
+            return;
+        }
+        List<Object[]> rows = new ArrayList<>(sources.size());
+        sources.forEach((id, from) -> rows.add(row(id, ChangeKind.TRANSITION, from, to, at)));
+        jdbcTemplate.batchUpdate(INSERT, rows);
+    }
+
+    // Entries with seq > after, in seq order
+    public List<FeedEntry> readAfter(long after, int limit) {
+        return jdbcTemplate.query(SELECT_AFTER, ChangeFeed::toEntry, after, limit);
+    }
+
+    public long lastSeq() {
+        Long seq = jdbcTemplate.queryForObject("select max(seq) from change_feed", Long.class);
+        return seq == null ? 0 : seq;
+    }
+
+    // Deletes entries older than the cutoff, long after every running node has applied them
+    public int prune(LocalDateTime before) {
+        return jdbcTemplate.update("delete from change_feed where changed_at < ?", Timestamp.valueOf(before));
+    }
+
+    private Object[] row(Long instanceId, ChangeKind kind, InstanceStatus from, InstanceStatus to, LocalDateTime at) {
+        return new Object[] {
+                instanceId,
+                kind.code(),
+                from == null ? null : from.code(),
+                to == null ? null : to.code(),
+                nodeId,
+                Timestamp.valueOf(at)
+        };
+    }
+
+    private static FeedEntry toEntry(ResultSet rs, int row) throws SQLException {
+        return new FeedEntry(
+                rs.getLong("seq"),
+                rs.getLong("instance_id"),
+                ChangeKind.fromCode(rs.getShort("kind")),
+                status(rs, "from_status"),
+                status(rs, "to_status"),
+                rs.getString("node"),
+                rs.getTimestamp("changed_at").toLocalDateTime());
+    }
+
+    private static InstanceStatus status(ResultSet rs, String column) throws SQLException {
+        short code = rs.getShort(column);
+        return rs.wasNull() ? null : InstanceStatus.fromCode(code);
+    }
+}
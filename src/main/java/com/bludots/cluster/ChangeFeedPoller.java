@@ -0,0 +1,255 @@
+package com.bludots.cluster;
+
+import com.bludots.cache.InstanceCache;
+import com.bludots.cache.InstanceSnapshot;
+import com.bludots.cache.StatusCounters;
+import com.bludots.entities.InstanceStatus;
+import com.bludots.entities.TomcatInstanceEntity;
+import com.bludots.events.InstanceChangedEvent;
+import com.bludots.events.InstanceChangedEvent.ChangeType;
+import com.bludots.events.InstanceEventBus;
+import com.bludots.repositories.TomcatInstanceRepository;
+import com.bludots.search.InstanceSearchIndex;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Keeps this node's cache, status counters, search index and open UIs in line with changes
+ * made by other nodes, by polling the {@link ChangeFeed} with a sequence cursor.
+ * <p>
+ * Transitions are applied from the entry itself; created and edited instances are reloaded
+ * in one query per poll. Applying is idempotent against the cache, so entries that overlap
+ * the startup warm-up do no harm. A sequence number can become visible after a higher one
+ * (its transaction committed later), so the cursor stops at a gap for up to
+ * {@code gap-timeout-ms} before treating it as a rolled-back or skipped value.
+ */
+@Component
+public class ChangeFeedPoller {
+
+    private static final Logger log = LoggerFactory.getLogger(ChangeFeedPoller.class);
+
+    private final ChangeFeed feed;
+    private final TomcatInstanceRepository repository;
+    private final InstanceCache cache;
+    private final StatusCounters counters;
+    private final InstanceSearchIndex searchIndex;
+    private final InstanceEventBus eventBus;
+    private final boolean enabled;
+    private final long pollIntervalMs;
+    private final int batchSize;
+    private final long gapTimeoutMs;
+    private final long retentionMs;
+
+    // Poller thread only
+    private long cursor;
+    private long gapSince;
+    private long lastPrune;
+
+    private final LongAdder applied = new LongAdder();
+    private final LongAdder gapsSkipped = new LongAdder();
+    private volatile long lastAppliedSeq;
+
+    private final ScheduledExecutorService poller = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "change-feed");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public ChangeFeedPoller(ChangeFeed feed, TomcatInstanceRepository repository, InstanceCache cache,
+                            StatusCounters counters, InstanceSearchIndex searchIndex, InstanceEventBus eventBus,
+                            @Value("${central-manager.cluster.enabled:true}") boolean enabled,
+                            @Value("${central-manager.cluster.poll-interval-ms:200}") long pollIntervalMs,
+                            @Value("${central-manager.cluster.batch-size:1000}") int batchSize,
+                            @Value("${central-manager.cluster.gap-timeout-ms:2000}") long gapTimeoutMs,
+                            @Value("${central-manager.cluster.retention-minutes:60}") long retentionMinutes) {
+        this.feed = feed;
+        this.repository = repository;
+        this.cache = cache;
+        this.counters = counters;
+        this.searchIndex = searchIndex;
+        this.eventBus = eventBus;
+        this.enabled = enabled;
+        this.pollIntervalMs = pollIntervalMs;
+        this.batchSize = batchSize;
+        this.gapTimeoutMs = gapTimeoutMs;
+        this.retentionMs = TimeUnit.MINUTES.toMillis(retentionMinutes);
+    }
+
+    // Before the caches warm up: whatever commits from here on is either loaded or applied
+    @PostConstruct
+    void initCursor() {
+        cursor = feed.lastSeq();
+        lastAppliedSeq = cursor;
+    }
+
+    // After the ApplicationReadyEvent listeners (cache, counters, search index warm-up) have run
+    @EventListener
+    public void onReadiness(AvailabilityChangeEvent<ReadinessState> event) {
+        if (enabled && event.getState() == ReadinessState.ACCEPTING_TRAFFIC) {
+            poller.scheduleWithFixedDelay(this::poll, 0, pollIntervalMs, TimeUnit.MILLISECONDS);
+            log.info("Following the change feed as node {} from seq {}", feed.nodeId(), cursor);
+        }
+    }
+
+    public long cursor() {
+        return lastAppliedSeq;
+    }
+
+    public long applied() {
+        return applied.sum();
+    }
+
+    public long gapsSkipped() {
+        return gapsSkipped.sum();
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        poller.shutdown();
+        poller.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    private void poll() {
+        try {
+            List<FeedEntry> entries;
+            do {
+                entries = feed.readAfter(cursor, batchSize);
+                List<FeedEntry> remote = new ArrayList<>();
+                long next = advance(entries, remote);
+                if (!remote.isEmpty()) {
+                    apply(remote);
+                }
+                if (next == cursor) {
+                    break; // nothing new, or waiting at a gap
+                }
+                cursor = next;
+                lastAppliedSeq = next;
+            } while (entries.size() == batchSize);
+            prune();
+        } catch (RuntimeException e) {
+            log.warn("Change feed poll failed", e); // keep the schedule alive
+        }
+    }
+
+    // Contiguous entries after the cursor; other nodes' ones go to remote. Returns the new cursor.
+    private long advance(List<FeedEntry> entries, List<FeedEntry> remote) {
+        long next = cursor;
+        for (FeedEntry entry : entries) {
+            if (entry.seq() != next + 1) {
+                long now = System.currentTimeMillis();
+                if (gapSince == 0) {
+                    gapSince = now;
+                }
+                if (now - gapSince < gapTimeoutMs) {
+                    break; // the missing seq may still commit
+                }
+                gapsSkipped.increment();
+            }
+            gapSince = 0;
+            next = entry.seq();
+            if (!entry.node().equals(feed.nodeId())) {
+                remote.add(entry);
+            }
+        }
+        return next;
+    }
+
+    private void apply(List<FeedEntry> entries) {
+        // Created and edited instances: one query for the current rows
+        Set<Long> reload = new LinkedHashSet<>();
+        for (FeedEntry entry : entries) {
+            if (entry.kind() == ChangeKind.CREATED || entry.kind() == ChangeKind.UPDATED) {
+                reload.add(entry.instanceId());
+            }
+        }
+        Map<Long, TomcatInstanceEntity> rows = new HashMap<>();
+        if (!reload.isEmpty()) {
+            repository.findAllById(reload).forEach(row -> rows.put(row.getId(), row));
+        }
+
+        for (FeedEntry entry : entries) {
+            InstanceStatus previous = previousStatus(entry);
+            switch (entry.kind()) {
+                case TRANSITION -> {
+                    if (previous != null) {
+                        counters.moved(previous, entry.to(), 1);
+                    }
+                    cache.applyTransition(entry.instanceId(), entry.to(), entry.changedAt());
+                }
+                case CREATED, UPDATED -> {
+                    TomcatInstanceEntity row = rows.get(entry.instanceId());
+                    if (row == null) {
+                        continue; // deleted since; a later entry says so
+                    }
+                    if (previous == null && entry.kind() == ChangeKind.CREATED) {
+                        counters.added(row.getStatus());
+                    } else if (previous != null) {
+                        counters.moved(previous, row.getStatus(), 1);
+                    }
+                    cache.put(row);
+                    searchIndex.put(row);
+                }
+                case DELETED -> {
+                    if (previous != null) {
+                        counters.removed(previous);
+                    }
+                    cache.remove(entry.instanceId());
+                    searchIndex.remove(entry.instanceId());
+                }
+            }
+            applied.increment();
+            eventBus.publish(new InstanceChangedEvent(entry.instanceId(), eventType(entry.kind())));
+        }
+    }
+
+    // Status this node currently counts the instance in: the cache knows best; a complete cache
+    // without the instance means it is not counted; otherwise trust the entry
+    private InstanceStatus previousStatus(FeedEntry entry) {
+        InstanceSnapshot cached = cache.peek(entry.instanceId()).orElse(null);
+        if (cached != null) {
+            return cached.status();
+        }
+        return cache.isComplete() ? null : entry.from();
+    }
+
+    private static ChangeType eventType(ChangeKind kind) {
+        return switch (kind) {
+            case CREATED -> ChangeType.CREATED;
+            case DELETED -> ChangeType.DELETED;
+            case UPDATED, TRANSITION -> ChangeType.UPDATED;
+        };
+    }
+
+    // Any node may prune; deleting the same old rows twice is harmless
+    private void prune() {
+        long now = System.currentTimeMillis();
+        if (now - lastPrune < retentionMs / 10) {
+            return;
+        }
+        lastPrune = now;
+        int pruned = feed.prune(LocalDateTime.now().minus(Duration.ofMillis(retentionMs)));
+        if (pruned > 0) {
+            log.debug("Pruned {} change feed entries", pruned);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.bludots.cluster;
+
+/**
+ * Kind of a change feed entry. Stored as {@link #code()}; codes must never be reused.
+ */
+public enum ChangeKind {
+    CREATED(0),
+    // Entity edited (name, address, status from the edit dialog): other nodes reload the row
+    UPDATED(1),
+    // Compare-and-set status transition: the entry carries everything other nodes need
+    TRANSITION(2),
+    DELETED(3);
+
+    private static final ChangeKind[] BY_CODE = values();
+
+    private final short code;
+
+    ChangeKind(int code) {
+        this.code = (short) code;
+    }
+
+    public short code() {
+        return code;
+    }
+
+    public static ChangeKind fromCode(short code) {
+        if (code < 0 || code >= BY_CODE.length || BY_CODE[code].code != code) {
+            throw new IllegalArgumentException("Unknown change kind: " + code);
+        }
+        return BY_CODE[code];
+    }
+}
@@ -0,0 +1,12 @@
+package com.bludots.cluster;
+
+import com.bludots.entities.InstanceStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * One change feed row. from is null for created instances, to for deleted ones.
+ */
+public record FeedEntry(long seq, Long instanceId, ChangeKind kind, InstanceStatus from, InstanceStatus to,
+                        String node, LocalDateTime changedAt) {
+}
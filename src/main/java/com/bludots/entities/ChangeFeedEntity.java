@@ -0,0 +1,62 @@
+package com.bludots.entities;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Convert;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import java.time.LocalDateTime;
+
+/**
+ * Schema of the cross-node change feed. Rows are inserted by
+ * {@link com.bludots.cluster.ChangeFeed} in the transaction of each change and read back
+ * in sequence order by every node; this entity only defines the table.
+ */
+@Entity
+@Table(name = "change_feed", indexes = {
+        @Index(name = "idx_change_feed_time", columnList = "changed_at")
+})
+public class ChangeFeedEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "seq")
+    private Long seq;
+
+    @Column(name = "instance_id", nullable = false)
+    private Long instanceId;
+
+    // ChangeKind code
+    @Column(name = "kind", nullable = false)
+    private short kind;
+
+    @Convert(converter = InstanceStatusConverter.class)
+    @Column(name = "from_status")
+    private InstanceStatus fromStatus;
+
+    @Convert(converter = InstanceStatusConverter.class)
+    @Column(name = "to_status")
+    private InstanceStatus toStatus;
+
+    // Node that made the change
+    @Column(name = "node", length = 64, nullable = false)
+    private String node;
+
+    @Column(name = "changed_at", nullable = false)
+    private LocalDateTime changedAt;
+
+    public ChangeFeedEntity() {}
+
+    // Getters
+
+    public Long getSeq() { return seq; }
+    public Long getInstanceId() { return instanceId; }
+    public short getKind() { return kind; }
+    public InstanceStatus getFromStatus() { return fromStatus; }
+    public InstanceStatus getToStatus() { return toStatus; }
+    public String getNode() { return node; }
+    public LocalDateTime getChangedAt() { return changedAt; }
+}
@@ -0,0 +1,76 @@
+package com.bludots.entities;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Lifecycle states of a Tomcat instance and the transitions allowed between them:
+ * Stopped → Deploying → Running, Running → Deploying (redeploy), and any state → Stopped.
+ * Health probes move Running → Failed and back; a failed instance can also be started again.
+ * A deployment that never finishes is marked Failed by the stuck-deployment reconciler.
+ * <p>
+ * Stored as a small integer {@link #code()}; codes are persistent and must never be reused.
+ */
+public enum InstanceStatus {
+    RUNNING(0, "Running"),
+    STOPPED(1, "Stopped"),
+    DEPLOYING(2, "Deploying"),
+    FAILED(3, "Failed");
+
+    private static final InstanceStatus[] BY_CODE = values();
+
+    private final short code;
+    private final String label;
+
+    InstanceStatus(int code, String label) {
+        this.code = (short) code;
+        this.label = label;
+    }
+
+    public short code() {
+        return code;
+    }
+
+    public String label() {
+        return label;
+    }
+
+    public boolean canTransitionTo(InstanceStatus target) {
+        return switch (this) {
+            case STOPPED -> target == DEPLOYING;
+            case DEPLOYING -> target == RUNNING || target == STOPPED || target == FAILED;
+            case RUNNING -> target == STOPPED || target == DEPLOYING || target == FAILED;
+            case FAILED -> target == RUNNING || target == STOPPED || target == DEPLOYING;
+        };
+    }
+
+    // All states that may transition to the target
+    public static Set<InstanceStatus> sourcesOf(InstanceStatus target) {
+        Set<InstanceStatus> sources = EnumSet.noneOf(InstanceStatus.class);
+        for (InstanceStatus status : values()) {
+            if (status.canTransitionTo(target)) {
+                sources.add(status);
+            }
+        }
+        return sources;
+    }
+
+    // Case-insensitive lookup by label ("running" -> RUNNING)
+    public static InstanceStatus fromLabel(String label) {
+        return find(label).orElseThrow(() -> new IllegalArgumentException("Unknown status: " + label));
+    }
+
+    public static Optional<InstanceStatus> find(String label) {
+        String trimmed = label == null ? "" : label.trim();
+        return Arrays.stream(values()).filter(s -> s.label.equalsIgnoreCase(trimmed)).findFirst();
+    }
+
+    public static InstanceStatus fromCode(short code) {
+        if (code < 0 || code >= BY_CODE.length || BY_CODE[code].code != code) {
+            throw new IllegalArgumentException("Unknown status code: " + code);
+        }
+        return BY_CODE[code];
+    }
+}
@@ -0,0 +1,21 @@
+package com.bludots.entities;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * Stores {@link InstanceStatus} as its smallint code.
+ */
+@Converter
+public class InstanceStatusConverter implements AttributeConverter<InstanceStatus, Short> {
+
+    @Override
+    public Short convertToDatabaseColumn(InstanceStatus status) {
+        return status == null ? null : status.code();
+    }
+
+    @Override
+    public InstanceStatus convertToEntityAttribute(Short code) {
+        return code == null ? null : InstanceStatus.fromCode(code);
+    }
+}
@@ -0,0 +1,66 @@
+package com.bludots.entities;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Convert;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import java.time.LocalDateTime;
+
+/**
+ * Read side of the status journal. Rows are only ever inserted, in JDBC batches by
+ * {@link com.bludots.history.StatusJournal}; this entity is used to query them.
+ */
+@Entity
+@Table(name = "status_change", indexes = {
+        @Index(name = "idx_status_change_instance_time", columnList = "instance_id, changed_at"),
+        @Index(name = "idx_status_change_time", columnList = "changed_at")
+})
+public class StatusChangeEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "instance_id", nullable = false)
+    private Long instanceId;
+
+    // null when the instance was created
+    @Convert(converter = InstanceStatusConverter.class)
+    @Column(name = "from_status")
+    private InstanceStatus fromStatus;
+
+    // null when the instance was deleted
+    @Convert(converter = InstanceStatusConverter.class)
+    @Column(name = "to_status")
+    private InstanceStatus toStatus;
+
+    @Column(name = "action", length = 32)
+    private String action;
+
+    @Column(name = "actor", length = 64)
+    private String actor;
+
+    @Column(name = "changed_at", nullable = false)
+    private LocalDateTime changedAt;
+
+    // Time spent in fromStatus, null when unknown
+    @Column(name = "duration_ms")
+    private Long durationMs;
+
+    public StatusChangeEntity() {}
+
+    // Getters
+
+    public Long getId() { return id; }
+    public Long getInstanceId() { return instanceId; }
+    public InstanceStatus getFromStatus() { return fromStatus; }
+    public InstanceStatus getToStatus() { return toStatus; }
+    public String getAction() { return action; }
+    public String getActor() { return actor; }
+    public LocalDateTime getChangedAt() { return changedAt; }
+    public Long getDurationMs() { return durationMs; }
+}
@@ -1,15 +1,26 @@
 package com.bludots.entities;
 
 import jakarta.persistence.Column;
+import jakarta.persistence.Convert;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "tomcat_instance")
+@Table(name = "tomcat_instance", indexes = {
+        @Index(name = "idx_tomcat_instance_name", columnList = "name"),
+        @Index(name = "idx_tomcat_instance_name_lower", columnList = "name_lower"),
+        @Index(name = "idx_tomcat_instance_status", columnList = "status"),
+        @Index(name = "idx_tomcat_instance_ip_address", columnList = "ip_address"),
+        @Index(name = "idx_tomcat_instance_status_change", columnList = "status, last_status_change, id")
+})
 public class TomcatInstanceEntity {
 
     @Id
@@ -18,7 +29,14 @@ public class TomcatInstanceEntity {
 
     private String name;
 
-    private String status;
+    // Lower-cased copy of name so case-insensitive search hits an index instead of lower() per row
+    @Column(name = "name_lower")
+    private String nameLower;
+
+    // smallint code, see InstanceStatus
+    @Convert(converter = InstanceStatusConverter.class)
+    @Column(name = "status", nullable = false)
+    private InstanceStatus status;
 
     @Column(name = "ip_address")
     private String ipAddress;
@@ -26,29 +44,48 @@ public class TomcatInstanceEntity {
     @Column(name = "last_status_change")
     private LocalDateTime lastStatusChange;
 
+    // Optimistic locking; status transitions bump it in their UPDATE statement
+    @Version
+    private Long version;
+
     public TomcatInstanceEntity() {}
 
-    public TomcatInstanceEntity(String name, String status, String ipAddress) {
+    public TomcatInstanceEntity(String name, InstanceStatus status, String ipAddress) {
         this.name = name;
+        this.nameLower = name == null ? null : name.toLowerCase();
         this.status = status;
         this.ipAddress = ipAddress;
         this.lastStatusChange = LocalDateTime.now();
     }
 
+    @PrePersist
+    @PreUpdate
+    void syncNameLower() {
+        nameLower = name == null ? null : name.toLowerCase();
+    }
+
     // Getters & setters
 
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
 
     public String getName() { return name; }
-    public void setName(String name) { this.name = name; }
+    public void setName(String name) {
+        this.name = name;
+        this.nameLower = name == null ? null : name.toLowerCase();
+    }
 
-    public String getStatus() { return status; }
-    public void setStatus(String status) { this.status = status; }
+    public String getNameLower() { return nameLower; }
+
+    public InstanceStatus getStatus() { return status; }
+    public void setStatus(InstanceStatus status) { this.status = status; }
 
     public String getIpAddress() { return ipAddress; }
     public void setIpAddress(String ipAddress) { this.ipAddress = ipAddress; }
 
     public LocalDateTime getLastStatusChange() { return lastStatusChange; }
     public void setLastStatusChange(LocalDateTime lastStatusChange) { this.lastStatusChange = lastStatusChange; }
+
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
 }
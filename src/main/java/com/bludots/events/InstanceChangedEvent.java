@@ -0,0 +1,16 @@
+package com.bludots.events;
+
+/**
+ * A change to one Tomcat instance, published by the service layer.
+ */
+public record InstanceChangedEvent(Long instanceId, ChangeType type) {
+
+    public enum ChangeType {
+        UPDATED, CREATED, DELETED
+    }
+
+    // When events for the same instance are merged, the strongest change wins
+    public InstanceChangedEvent merge(InstanceChangedEvent other) {
+        return other.type.ordinal() > type.ordinal() ? other : this;
+    }
+}
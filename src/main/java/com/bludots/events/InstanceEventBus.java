@@ -0,0 +1,109 @@
+package com.bludots.events;
+
+import com.vaadin.flow.shared.Registration;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * In-process bus for instance changes. Each subscriber (typically one open UI)
+ * receives bursts merged into a single batch per frame interval.
+ */
+@Component
+public class InstanceEventBus {
+
+    private static final Logger log = LoggerFactory.getLogger(InstanceEventBus.class);
+
+    private final List<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+    private final ScheduledExecutorService scheduler;
+    private final long frameIntervalMs;
+
+    public InstanceEventBus(@Value("${central-manager.push.frame-interval-ms:250}") long frameIntervalMs) {
+        this.frameIntervalMs = frameIntervalMs;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "instance-event-bus");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public void publish(InstanceChangedEvent event) {
+        for (Subscription subscription : subscriptions) {
+            subscription.offer(event);
+        }
+    }
+
+    // Listener is called with the merged events of one frame, never concurrently for the same subscriber
+    public Registration subscribe(Consumer<List<InstanceChangedEvent>> listener) {
+        Subscription subscription = new Subscription(listener);
+        subscriptions.add(subscription);
+        return () -> subscriptions.remove(subscription);
+    }
+
+    // Merged events waiting for the next frame, over all subscribers (push queue depth)
+    public int pendingEvents() {
+        int pending = 0;
+        for (Subscription subscription : subscriptions) {
+            pending += subscription.pendingCount();
+        }
+        return pending;
+    }
+
+    public int subscriberCount() {
+        return subscriptions.size();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    private final class Subscription {
+
+        private final Consumer<List<InstanceChangedEvent>> listener;
+        private final Map<Long, InstanceChangedEvent> pending = new LinkedHashMap<>();
+        private boolean flushScheduled;
+
+        private Subscription(Consumer<List<InstanceChangedEvent>> listener) {
+            this.listener = listener;
+        }
+
+        private synchronized void offer(InstanceChangedEvent event) {
+            pending.merge(event.instanceId(), event, InstanceChangedEvent::merge);
+            if (!flushScheduled) {
+                flushScheduled = true;
+                scheduler.schedule(this::flush, frameIntervalMs, TimeUnit.MILLISECONDS);
+            }
+        }
+
+        private synchronized int pendingCount() {
+            return pending.size();
+        }
+
+        private void flush() {
+            List<InstanceChangedEvent> batch;
+            synchronized (this) {
+                batch = new ArrayList<>(pending.values());
+                pending.clear();
+                flushScheduled = false;
+            }
+            try {
+                listener.accept(batch);
+            } catch (RuntimeException e) {
+                log.warn("Instance event listener failed", e);
+            }
+        }
+    }
+}
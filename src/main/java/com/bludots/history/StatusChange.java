@@ -0,0 +1,28 @@
+package com.bludots.history;
+
+import com.bludots.entities.InstanceStatus;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * One journal entry: an instance changed from one status to another. {@code from} is
+ * null for a created instance and {@code to} for a deleted one. {@code durationMs} is the
+ * time spent in the previous status, when known.
+ */
+public record StatusChange(long instanceId, InstanceStatus from, InstanceStatus to, String action, String actor,
+                           LocalDateTime at, Long durationMs) {
+
+    // Actors: who caused the change (there is no login yet, so all UI sessions are "ui")
+    public static final String UI = "ui";
+    public static final String BULK = "bulk";
+    public static final String PROBE = "health-probe";
+    public static final String RECONCILER = "reconciler";
+
+    // Time spent in the previous status, null when the previous change time is unknown
+    public static Long durationSince(LocalDateTime previousChange, LocalDateTime at) {
+        return previousChange == null || previousChange.isAfter(at)
+                ? null
+                : Duration.between(previousChange, at).toMillis();
+    }
+}
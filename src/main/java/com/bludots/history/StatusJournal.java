@@ -0,0 +1,145 @@
+package com.bludots.history;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Append-only journal of status changes in the {@code status_change} table.
+ * <p>
+ * {@link #record} only enqueues on a lock-free queue, so callers (request threads,
+ * lifecycle workers, probe rounds) never wait for the database. A single flusher thread
+ * drains the queue into JDBC batch inserts every {@code flush-interval-ms}, or as soon as
+ * a full batch is waiting. At most {@code max-pending} entries are buffered; beyond that,
+ * and when a batch insert fails, entries are dropped and counted.
+ */
+@Component
+public class StatusJournal {
+
+    private static final Logger log = LoggerFactory.getLogger(StatusJournal.class);
+    private static final String INSERT = "insert into status_change (instance_id, from_status, to_status, action,"
+            + " actor, changed_at, duration_ms) values (?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int batchSize;
+    private final int maxPending;
+
+    private final Queue<StatusChange> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pendingCount = new AtomicInteger();
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+    private final LongAdder written = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+
+    private final ScheduledExecutorService flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "status-journal");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public StatusJournal(JdbcTemplate jdbcTemplate,
+                         @Value("${central-manager.history.flush-interval-ms:1000}") long flushIntervalMs,
+                         @Value("${central-manager.history.batch-size:500}") int batchSize,
+                         @Value("${central-manager.history.max-pending:100000}") int maxPending) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.batchSize = batchSize;
+        this.maxPending = maxPending;
+        flusher.scheduleWithFixedDelay(this::scheduledFlush, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    public void record(StatusChange change) {
+        if (pendingCount.incrementAndGet() > maxPending) {
+            pendingCount.decrementAndGet();
+            dropped.increment();
+            return;
+        }
+        pending.offer(change);
+        // A full batch is written right away instead of at the next tick
+        if (pendingCount.get() >= batchSize && flushRequested.compareAndSet(false, true)) {
+            flusher.execute(this::scheduledFlush);
+        }
+    }
+
+    public int pending() {
+        return pendingCount.get();
+    }
+
+    public long written() {
+        return written.sum();
+    }
+
+    public long dropped() {
+        return dropped.sum();
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        flusher.shutdown();
+        flusher.awaitTermination(5, TimeUnit.SECONDS);
+        flush(); // whatever was recorded after the last tick
+    }
+
+    private void scheduledFlush() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.warn("Status journal flush failed", e); // keep the schedule alive
+        }
+    }
+
+    // Only ever runs on the flusher thread (or after it stopped)
+    private void flush() {
+        flushRequested.set(false);
+        List<Object[]> batch = new ArrayList<>(batchSize);
+        StatusChange change;
+        while ((change = pending.poll()) != null) {
+            pendingCount.decrementAndGet();
+            batch.add(toRow(change));
+            if (batch.size() == batchSize) {
+                write(batch);
+            }
+        }
+        write(batch);
+    }
+
+    private void write(List<Object[]> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            jdbcTemplate.batchUpdate(INSERT, batch);
+            written.add(batch.size());
+        } catch (DataAccessException e) {
+            dropped.add(batch.size());
+            log.warn("Dropped {} status journal entries", batch.size(), e);
+        }
+        batch.clear();
+    }
+
+    private static Object[] toRow(StatusChange change) {
+        return new Object[] {
+                change.instanceId(),
+                change.from() == null ? null : change.from().code(),
+                change.to() == null ? null : change.to().code(),
+                change.action(),
+                change.actor(),
+                Timestamp.valueOf(change.at()),
+                change.durationMs()
+        };
+    }
+}
@@ -0,0 +1,135 @@
+package com.bludots.lifecycle;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Runs lifecycle operations on virtual threads. Operations on the same instance are
+ * serialized in submission order, operations on different instances run in parallel.
+ */
+@Component
+public class LifecycleExecutor {
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    // Per instance: completion of the last submitted operation (the queue tail)
+    private final Map<Long, CompletableFuture<Void>> tails = new ConcurrentHashMap<>();
+    private final Set<LifecycleTask<?>> inFlight = ConcurrentHashMap.newKeySet();
+    private final long timeoutMs;
+    private final Stats stats = new Stats();
+
+    public LifecycleExecutor(@Value("${central-manager.lifecycle.timeout-ms:60000}") long timeoutMs) {
+        this.timeoutMs = timeoutMs;
+    }
+
+    public <T> LifecycleTask<T> submit(Long instanceId, String operation, Callable<T> action) {
+        LifecycleTask<T> task = new LifecycleTask<>(instanceId, operation, action);
+        inFlight.add(task);
+        tails.compute(instanceId, (id, tail) -> {
+            CompletableFuture<Void> previous = tail == null ? CompletableFuture.completedFuture(null) : tail;
+            previous.thenRun(() -> executor.execute(() -> task.run(timeoutMs, stats)));
+            return task.done();
+        });
+        task.done().whenComplete((v, e) -> {
+            inFlight.remove(task);
+            tails.remove(instanceId, task.done());
+        });
+        return task;
+    }
+
+    // Cancel queued and running operations of one instance; returns how many were cancelled
+    public int cancel(Long instanceId) {
+        int count = 0;
+        for (LifecycleTask<?> task : inFlight) {
+            if (task.getInstanceId().equals(instanceId) && task.cancel()) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    // Operations submitted but not finished for one instance
+    public int queueDepth(Long instanceId) {
+        return (int) inFlight.stream().filter(t -> t.getInstanceId().equals(instanceId)).count();
+    }
+
+    // True while an operation of the instance is queued or running on this node
+    public boolean isBusy(Long instanceId) {
+        return tails.containsKey(instanceId);
+    }
+
+    public LifecycleStats stats() {
+        return stats.snapshot(inFlight.size());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Point-in-time executor metrics. Latencies are averages over all finished operations.
+     */
+    public record LifecycleStats(int pending, long running, long completed, long failed, long timedOut,
+                                 long cancelled, double avgWaitMs, double avgRunMs, double maxRunMs) {
+    }
+
+    static final class Stats {
+
+        private final LongAdder started = new LongAdder();
+        private final LongAdder completed = new LongAdder();
+        private final LongAdder failed = new LongAdder();
+        private final LongAdder timedOut = new LongAdder();
+        private final LongAdder cancelled = new LongAdder();
+        private final LongAdder waitNanos = new LongAdder();
+        private final LongAdder runNanos = new LongAdder();
+        private final AtomicLong maxRunNanos = new AtomicLong();
+
+        void started(long waitedNanos) {
+            started.increment();
+            waitNanos.add(waitedNanos);
+        }
+
+        void finished(LifecycleTask<?> task, long ranNanos) {
+            runNanos.add(ranNanos);
+            maxRunNanos.accumulateAndGet(ranNanos, Math::max);
+            CompletableFuture<?> result = task.result();
+            if (result.isCancelled()) {
+                cancelled.increment();
+            } else if (result.isCompletedExceptionally()) {
+                Throwable cause = result.handle((v, e) -> e).join();
+                if (cause instanceof TimeoutException) {
+                    timedOut.increment();
+                } else if (cause instanceof CancellationException) {
+                    cancelled.increment();
+                } else {
+                    failed.increment();
+                }
+            } else {
+                completed.increment();
+            }
+        }
+
+        LifecycleStats snapshot(int pending) {
+            long startedCount = started.sum();
+            long finishedCount = completed.sum() + failed.sum() + timedOut.sum() + cancelled.sum();
+            return new LifecycleStats(pending, Math.max(0, startedCount - finishedCount),
+                    completed.sum(), failed.sum(), timedOut.sum(), cancelled.sum(),
+                    startedCount == 0 ? 0 : waitNanos.sum() / 1e6 / startedCount,
+                    finishedCount == 0 ? 0 : runNanos.sum() / 1e6 / finishedCount,
+                    maxRunNanos.get() / 1e6);
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.bludots.lifecycle;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One queued or running lifecycle operation (start, stop, redeploy...) on one instance.
+ * {@link #result()} is what callers wait on; cancelling it (or a timeout) interrupts the
+ * running thread.
+ */
+public class LifecycleTask<T> {
+
+    private final Long instanceId;
+    private final String operation;
+    private final Callable<T> action;
+    private final CompletableFuture<T> result = new CompletableFuture<>();
+    // Completes when the action has really stopped running; the next operation on the instance waits for it
+    private final CompletableFuture<Void> done = new CompletableFuture<>();
+    private final long submittedNanos = System.nanoTime();
+    private volatile Thread runner;
+
+    LifecycleTask(Long instanceId, String operation, Callable<T> action) {
+        this.instanceId = instanceId;
+        this.operation = operation;
+        this.action = action;
+        result.whenComplete((value, error) -> {
+            Thread thread = runner;
+            if (error != null && thread != null && thread != Thread.currentThread()) {
+                thread.interrupt();
+            }
+        });
+    }
+
+    public Long getInstanceId() { return instanceId; }
+    public String getOperation() { return operation; }
+    public CompletableFuture<T> result() { return result; }
+
+    public boolean cancel() {
+        return result.cancel(true);
+    }
+
+    CompletableFuture<Void> done() { return done; }
+    long getSubmittedNanos() { return submittedNanos; }
+
+    // Runs on the executor thread once all earlier operations on the instance are done
+    void run(long timeoutMs, LifecycleExecutor.Stats stats) {
+        long startNanos = System.nanoTime();
+        stats.started(startNanos - submittedNanos);
+        try {
+            // Publish the runner before checking for a cancel: a cancel that completes the result after
+            // this write sees the runner and interrupts it, one that completed it before is seen below
+            runner = Thread.currentThread();
+            if (result.isDone()) {
+                return; // cancelled while queued
+            }
+            result.orTimeout(timeoutMs, TimeUnit.MILLISECONDS);
+            result.complete(action.call());
+        } catch (Exception e) {
+            result.completeExceptionally(e);
+        } finally {
+            runner = null;
+            Thread.interrupted(); // do not leak a cancel interrupt
+            stats.finished(this, System.nanoTime() - startNanos);
+            done.complete(null);
+        }
+    }
+}
@@ -0,0 +1,297 @@
+package com.bludots.logs;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Predicate;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * A sealed log segment, compressed in independent Deflate blocks of whole lines.
+ * <p>
+ * Layout: header ({@code magic, version}), the blocks, then a block index with one entry per
+ * block ({@code offset, compressed length, raw length, line count, first time, last time})
+ * and a footer ({@code index offset, block count, magic}). Opening a segment reads only the
+ * index; a time-range scan inflates just the blocks whose time span overlaps the range.
+ */
+public final class CompressedLogSegment {
+
+    public static final String EXTENSION = ".logz";
+
+    private static final int MAGIC = 0x434D4C5A; // "CMLZ"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 8;
+    private static final int FOOTER_BYTES = 16;
+    private static final int ENTRY_BYTES = 40;
+    // Only the leading timestamp of a line is parsed
+    private static final int TIMESTAMP_CHARS = 24;
+
+    private final Path path;
+    private final long[] offsets;
+    private final int[] compressedLengths;
+    private final int[] rawLengths;
+    private final int[] lineCounts;
+    private final long[] firstTimes;
+    private final long[] lastTimes;
+
+    private CompressedLogSegment(Path path, int blocks) {
+        this.path = path;
+        this.offsets = new long[blocks];
+        this.compressedLengths = new int[blocks];
+        this.rawLengths = new int[blocks];
+        this.lineCounts = new int[blocks];
+        this.firstTimes = new long[blocks];
+        this.lastTimes = new long[blocks];
+    }
+
+    public Path path() { return path; }
+
+    public int blocks() { return offsets.length; }
+
+    public long rawBytes() {
+        long total = 0;
+        for (int length : rawLengths) {
+            total += length;
+        }
+        return total;
+    }
+
+    public long lines() {
+        long total = 0;
+        for (int count : lineCounts) {
+            total += count;
+        }
+        return total;
+    }
+
+    // Whether any block may hold lines inside [fromMillis, toMillis]
+    public boolean overlaps(long fromMillis, long toMillis) {
+        for (int i = 0; i < offsets.length; i++) {
+            if (overlaps(i, fromMillis, toMillis)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Hands the lines of every block overlapping [fromMillis, toMillis] to the sink, in file
+     * order, until it returns false. Blocks are time-filtered only: lines next to the range
+     * boundaries still need an exact check. Returns false when the sink stopped the scan.
+     */
+    public boolean scan(long fromMillis, long toMillis, Predicate<String> sink) throws IOException {
+        Inflater inflater = new Inflater();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            for (int i = 0; i < offsets.length; i++) {
+                if (!overlaps(i, fromMillis, toMillis)) {
+                    continue;
+                }
+                byte[] raw = inflate(channel, i, inflater);
+                int lineStart = 0;
+                for (int p = 0; p < raw.length; p++) {
+                    if (raw[p] == '\n') {
+                        if (!sink.test(decode(raw, lineStart, p))) {
+                            return false;
+                        }
+                        lineStart = p + 1;
+                    }
+                }
+                if (lineStart < raw.length && !sink.test(decode(raw, lineStart, raw.length))) {
+                    return false;
+                }
+            }
+            return true;
+        } finally {
+            inflater.end();
+        }
+    }
+
+    public static CompressedLogSegment open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_BYTES + FOOTER_BYTES) {
+                throw new IOException("Truncated log segment " + path);
+            }
+            ByteBuffer footer = readFully(channel, size - FOOTER_BYTES, FOOTER_BYTES);
+            long indexOffset = footer.getLong();
+            int blocks = footer.getInt();
+            if (footer.getInt() != MAGIC || indexOffset + (long) blocks * ENTRY_BYTES != size - FOOTER_BYTES) {
+                throw new IOException("Not a compressed log segment " + path);
+            }
+            CompressedLogSegment segment = new CompressedLogSegment(path, blocks);
+            ByteBuffer index = readFully(channel, indexOffset, blocks * ENTRY_BYTES);
+            for (int i = 0; i < blocks; i++) {
+                segment.offsets[i] = index.getLong();
+                segment.compressedLengths[i] = index.getInt();
+                segment.rawLengths[i] = index.getInt();
+                segment.lineCounts[i] = index.getInt();
+                index.getInt(); // reserved
+                segment.firstTimes[i] = index.getLong();
+                segment.lastTimes[i] = index.getLong();
+            }
+            return segment;
+        }
+    }
+
+    /**
+     * Compresses a raw (newline-separated) segment into target, cutting blocks at the last
+     * line end before blockBytes. Lines without a timestamp take the previous line's time;
+     * a block without any known time is scanned by every range.
+     */
+    public static CompressedLogSegment write(Path source, Path target, int blockBytes, int level)
+            throws IOException {
+        Deflater deflater = new Deflater(level);
+        byte[] out = new byte[64 * 1024];
+        try (FileChannel in = FileChannel.open(source, StandardOpenOption.READ);
+             FileChannel channel = FileChannel.open(target, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                     StandardOpenOption.TRUNCATE_EXISTING)) {
+            writeFully(channel, ByteBuffer.allocate(HEADER_BYTES).putInt(MAGIC).putInt(VERSION).flip());
+
+            long size = in.size();
+            int blocks = (int) (size / blockBytes) + 2;
+            ByteBuffer index = ByteBuffer.allocate(blocks * ENTRY_BYTES);
+            byte[] raw = new byte[blockBytes];
+            long previousTime = Long.MIN_VALUE;
+            long position = 0;
+            long offset = HEADER_BYTES;
+            int count = 0;
+            while (position < size) {
+                int length = (int) Math.min(blockBytes, size - position);
+                readFully(in, position, ByteBuffer.wrap(raw, 0, length));
+                if (position + length < size) {
+                    int cut = lastLineEnd(raw, length);
+                    if (cut > 0) {
+                        length = cut; // otherwise one line longer than a block: split it
+                    }
+                }
+
+                // Time span and line count of the block
+                long first = Long.MAX_VALUE;
+                long last = Long.MIN_VALUE;
+                int lines = 0;
+                int lineStart = 0;
+                while (lineStart < length) {
+                    int lineEnd = indexOf(raw, lineStart, length, (byte) '\n');
+                    long time = LogTimestamps.parse(new String(raw, lineStart,
+                            Math.min(TIMESTAMP_CHARS, lineEnd - lineStart), StandardCharsets.ISO_8859_1));
+                    if (time < 0) {
+                        time = previousTime;
+                    } else {
+                        previousTime = time;
+                    }
+                    first = Math.min(first, time);
+                    last = Math.max(last, time);
+                    lines++;
+                    lineStart = lineEnd + 1;
+                }
+                if (last == Long.MIN_VALUE) {
+                    last = Long.MAX_VALUE;
+                }
+
+                deflater.reset();
+                deflater.setInput(raw, 0, length);
+                deflater.finish();
+                int compressed = 0;
+                while (!deflater.finished()) {
+                    int n = deflater.deflate(out);
+                    writeFully(channel, ByteBuffer.wrap(out, 0, n));
+                    compressed += n;
+                }
+
+                if (!index.hasRemaining()) {
+                    index = ByteBuffer.allocate(index.capacity() * 2).put(index.flip());
+                }
+                index.putLong(offset).putInt(compressed).putInt(length).putInt(lines).putInt(0)
+                        .putLong(first).putLong(last);
+                offset += compressed;
+                position += length;
+                count++;
+            }
+            writeFully(channel, index.flip());
+            writeFully(channel, ByteBuffer.allocate(FOOTER_BYTES).putLong(offset).putInt(count).putInt(MAGIC).flip());
+            channel.force(true);
+        } finally {
+            deflater.end();
+        }
+        return open(target);
+    }
+
+    private boolean overlaps(int block, long fromMillis, long toMillis) {
+        return firstTimes[block] <= toMillis && lastTimes[block] >= fromMillis;
+    }
+
+    private byte[] inflate(FileChannel channel, int block, Inflater inflater) throws IOException {
+        ByteBuffer compressed = readFully(channel, offsets[block], compressedLengths[block]);
+        byte[] raw = new byte[rawLengths[block]];
+        inflater.reset();
+        inflater.setInput(compressed.array(), 0, compressedLengths[block]);
+        try {
+            int length = 0;
+            while (length < raw.length && !inflater.finished()) {
+                int n = inflater.inflate(raw, length, raw.length - length);
+                if (n == 0 && inflater.needsInput()) {
+                    break;
+                }
+                length += n;
+            }
+            if (length != raw.length) {
+                throw new IOException("Corrupt block " + block + " in log segment " + path);
+            }
+        } catch (DataFormatException e) {
+            throw new IOException("Corrupt block " + block + " in log segment " + path, e);
+        }
+        return raw;
+    }
+
+    private static ByteBuffer readFully(FileChannel channel, long position, int length) throws IOException {
+        return readFully(channel, position, ByteBuffer.allocate(length)).flip();
+    }
+
+    // Positional reads until the buffer is full; no mapping, so a file truncated meanwhile is an IOException
+    private static ByteBuffer readFully(FileChannel channel, long position, ByteBuffer buffer) throws IOException {
+        long at = position;
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, at);
+            if (read < 0) {
+                throw new IOException("Unexpected end of log segment");
+            }
+            at += read;
+        }
+        return buffer;
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    // Length up to and including the last '\n', or 0 when there is none
+    private static int lastLineEnd(byte[] bytes, int length) {
+        for (int i = length - 1; i >= 0; i--) {
+            if (bytes[i] == '\n') {
+                return i + 1;
+            }
+        }
+        return 0;
+    }
+
+    private static int indexOf(byte[] bytes, int from, int to, byte value) {
+        for (int i = from; i < to; i++) {
+            if (bytes[i] == value) {
+                return i;
+            }
+        }
+        return to;
+    }
+
+    private static String decode(byte[] bytes, int from, int to) {
+        int end = to > from && bytes[to - 1] == '\r' ? to - 1 : to;
+        return new String(bytes, from, end - from, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,14 @@
+package com.bludots.logs;
+
+/**
+ * Log lines per level over a time window.
+ */
+public record LevelCounts(long errors, long warnings, long lines) {
+
+    public static final LevelCounts NONE = new LevelCounts(0, 0, 0);
+
+    // Share of error lines, 0 when there were no lines
+    public double errorRate() {
+        return lines == 0 ? 0 : (double) errors / lines;
+    }
+}
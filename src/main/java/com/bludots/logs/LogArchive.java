@@ -0,0 +1,292 @@
+package com.bludots.logs;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * Sealed log segments of every instance, under {@code <directory>/segments/<instanceId>/}.
+ * <p>
+ * A segment sealed by the {@link LogSegmentStore} arrives as {@code <seq>.log} and is
+ * compressed in the background into {@code <seq>.logz} ({@link CompressedLogSegment}).
+ * Retention runs every {@code maintenance-interval-ms} and deletes an instance's oldest
+ * segments once they are older than {@code max-age-hours} or its archive exceeds
+ * {@code max-bytes}. Time-range scans read only the overlapping blocks.
+ */
+@Component
+public class LogArchive {
+
+    private static final Logger log = LoggerFactory.getLogger(LogArchive.class);
+    private static final String RAW_EXTENSION = ".log";
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    private final Path root;
+    private final int blockBytes;
+    private final int compressionLevel;
+    private final long maxBytes;
+    private final long maxAgeMs;
+    private final long maintenanceIntervalMs;
+
+    // Block indexes of compressed segments; the files never change once written
+    private final Map<Path, CompressedLogSegment> opened = new ConcurrentHashMap<>();
+    private final LongAdder compressed = new LongAdder();
+    private final LongAdder rawBytes = new LongAdder();
+    private final LongAdder compressedBytes = new LongAdder();
+    private final LongAdder deleted = new LongAdder();
+
+    private final ScheduledExecutorService worker = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "log-archive");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public LogArchive(@Value("${central-manager.logs.directory:logs}") String directory,
+                      @Value("${central-manager.logs.archive.block-bytes:262144}") int blockBytes,
+                      @Value("${central-manager.logs.archive.compression-level:6}") int compressionLevel,
+                      @Value("${central-manager.logs.retention.max-bytes:1073741824}") long maxBytes,
+                      @Value("${central-manager.logs.retention.max-age-hours:168}") long maxAgeHours,
+                      @Value("${central-manager.logs.retention.maintenance-interval-ms:60000}")
+                      long maintenanceIntervalMs) {
+        this.root = Path.of(directory).resolve("segments");
+        this.blockBytes = blockBytes;
+        this.compressionLevel = compressionLevel;
+        this.maxBytes = maxBytes;
+        this.maxAgeMs = TimeUnit.HOURS.toMillis(maxAgeHours);
+        this.maintenanceIntervalMs = maintenanceIntervalMs;
+    }
+
+    @PostConstruct
+    void start() {
+        // Segments sealed but not compressed before the last shutdown
+        worker.execute(this::resumeCompression);
+        worker.scheduleWithFixedDelay(this::maintain, maintenanceIntervalMs, maintenanceIntervalMs,
+                TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Moves an instance's active segment into the archive as the next sealed segment and
+     * queues its compression. Called by the segment writer only.
+     */
+    public Path seal(Long instanceId, Path active) throws IOException {
+        Path dir = directory(instanceId);
+        Files.createDirectories(dir);
+        long seq = segments(instanceId).stream().mapToLong(LogArchive::sequenceOf).max().orElse(0) + 1;
+        Path sealed = dir.resolve(seq + RAW_EXTENSION);
+        Files.move(active, sealed, StandardCopyOption.ATOMIC_MOVE);
+        worker.execute(() -> compress(sealed));
+        return sealed;
+    }
+
+    // Sealed segments of an instance (raw or compressed), oldest first
+    public List<Path> segments(Long instanceId) {
+        return list(directory(instanceId));
+    }
+
+    /**
+     * Lines of the instance's sealed segments that may fall inside [fromMillis, toMillis],
+     * oldest first, until the sink returns false. Compressed segments are filtered per block,
+     * segments still waiting for compression by file time. Returns false when stopped by the sink.
+     */
+    public boolean scan(Long instanceId, long fromMillis, long toMillis, Predicate<String> sink) {
+        for (Path path : segments(instanceId)) {
+            try {
+                if (isCompressed(path)) {
+                    CompressedLogSegment segment = opened(path);
+                    if (segment.overlaps(fromMillis, toMillis) && !segment.scan(fromMillis, toMillis, sink)) {
+                        return false;
+                    }
+                } else if (Files.getLastModifiedTime(path).toMillis() >= fromMillis && !scanRaw(path, sink)) {
+                    return false;
+                }
+            } catch (NoSuchFileException e) {
+                // Compressed or deleted meanwhile
+            } catch (IOException e) {
+                log.warn("Cannot read log segment {}", path, e);
+            }
+        }
+        return true;
+    }
+
+    public long compressedSegments() {
+        return compressed.sum();
+    }
+
+    public long rawBytes() {
+        return rawBytes.sum();
+    }
+
+    public long compressedBytes() {
+        return compressedBytes.sum();
+    }
+
+    public long deletedSegments() {
+        return deleted.sum();
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        worker.shutdown();
+        worker.awaitTermination(30, TimeUnit.SECONDS);
+    }
+
+    private void compress(Path raw) {
+        String name = raw.getFileName().toString();
+        String base = name.substring(0, name.length() - RAW_EXTENSION.length());
+        Path target = raw.resolveSibling(base + CompressedLogSegment.EXTENSION);
+        Path temp = raw.resolveSibling(base + CompressedLogSegment.EXTENSION + TEMP_SUFFIX);
+        try {
+            CompressedLogSegment segment = CompressedLogSegment.write(raw, temp, blockBytes, compressionLevel);
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+            Files.delete(raw);
+            compressed.increment();
+            rawBytes.add(segment.rawBytes());
+            compressedBytes.add(Files.size(target));
+        } catch (NoSuchFileException e) {
+            deleteQuietly(temp); // deleted by retention before its turn
+        } catch (IOException e) {
+            deleteQuietly(temp);
+            log.error("Cannot compress log segment {}, keeping it uncompressed", raw, e);
+        }
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Cannot delete {}", path, e);
+        }
+    }
+
+    private void resumeCompression() {
+        for (Path dir : list(root)) {
+            for (Path path : list(dir)) {
+                if (!isCompressed(path)) {
+                    compress(path);
+                }
+            }
+        }
+    }
+
+    private void maintain() {
+        try {
+            long now = System.currentTimeMillis();
+            for (Path dir : list(root)) {
+                applyRetention(list(dir), now);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Log retention failed", e); // keep the schedule alive
+        }
+    }
+
+    // Oldest first: drop segments past the age limit, then until the rest fits in maxBytes
+    private void applyRetention(List<Path> segments, long now) {
+        long total = 0;
+        long[] sizes = new long[segments.size()];
+        long[] modified = new long[segments.size()];
+        for (int i = 0; i < sizes.length; i++) {
+            try {
+                sizes[i] = Files.size(segments.get(i));
+                modified[i] = Files.getLastModifiedTime(segments.get(i)).toMillis();
+                total += sizes[i];
+            } catch (IOException e) {
+                sizes[i] = -1; // gone meanwhile
+            }
+        }
+        for (int i = 0; i < sizes.length; i++) {
+            if (sizes[i] < 0) {
+                continue;
+            }
+            boolean expired = maxAgeMs > 0 && now - modified[i] > maxAgeMs;
+            if (!expired && (maxBytes <= 0 || total <= maxBytes)) {
+                break;
+            }
+            Path path = segments.get(i);
+            try {
+                Files.deleteIfExists(path);
+                opened.remove(path);
+                total -= sizes[i];
+                deleted.increment();
+            } catch (IOException e) {
+                log.warn("Cannot delete log segment {}", path, e);
+            }
+        }
+    }
+
+    private CompressedLogSegment opened(Path path) throws IOException {
+        CompressedLogSegment segment = opened.get(path);
+        if (segment == null) {
+            segment = CompressedLogSegment.open(path);
+            opened.put(path, segment);
+        }
+        return segment;
+    }
+
+    private static boolean scanRaw(Path path, Predicate<String> sink) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!sink.test(line)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    private Path directory(Long instanceId) {
+        return root.resolve(String.valueOf(instanceId));
+    }
+
+    // Directory entries without temporary files, in sequence order; while a segment is being
+    // compressed both files exist for a moment and only the compressed one is listed
+    private static List<Path> list(Path dir) {
+        if (!Files.isDirectory(dir)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(dir)) {
+            Map<Long, Path> bySequence = new TreeMap<>();
+            files.filter(f -> !f.getFileName().toString().endsWith(TEMP_SUFFIX))
+                    .forEach(f -> bySequence.merge(sequenceOf(f), f, (a, b) -> isCompressed(a) ? a : b));
+            return List.copyOf(bySequence.values());
+        } catch (IOException e) {
+            log.warn("Cannot list log segments in {}", dir, e);
+            return List.of();
+        }
+    }
+
+    private static boolean isCompressed(Path path) {
+        return path.getFileName().toString().endsWith(CompressedLogSegment.EXTENSION);
+    }
+
+    // Sequence number of a segment file, or the instance id of a segment directory
+    private static long sequenceOf(Path path) {
+        String name = path.getFileName().toString();
+        int dot = name.indexOf('.');
+        try {
+            return Long.parseLong(dot < 0 ? name : name.substring(0, dot));
+        } catch (RuntimeException e) {
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.bludots.logs;
+
+/**
+ * Read position of one reader in one instance log file. Each view keeps its
+ * own cursor, so a refresh only returns the lines written since the last read.
+ */
+public class LogCursor {
+
+    private long position;
+    private Object fileKey;
+
+    public long getPosition() { return position; }
+    void setPosition(long position) { this.position = position; }
+
+    Object getFileKey() { return fileKey; }
+    void setFileKey(Object fileKey) { this.fileKey = fileKey; }
+
+    // Start over, e.g. when another instance is selected
+    public void reset() {
+        position = 0;
+        fileKey = null;
+    }
+}
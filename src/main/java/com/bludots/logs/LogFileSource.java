@@ -0,0 +1,262 @@
+package com.bludots.logs;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads instance log files ({@code <directory>/<instanceId>.log}) incrementally.
+ * Reads are positional {@link FileChannel#read} calls into a per-thread window, bounded:
+ * tailing only touches the end of the file, and a rotated (new file) or truncated log
+ * restarts the cursor at offset 0. Nothing is memory-mapped, so a file truncated while it
+ * is read just yields fewer bytes instead of a fault on a mapping past its end.
+ */
+@Component
+public class LogFileSource {
+
+    // Size of the read window, reused per thread
+    private static final int TAIL_WINDOW = 64 * 1024;
+    private static final ThreadLocal<ByteBuffer> WINDOW = ThreadLocal.withInitial(() -> ByteBuffer.allocate(TAIL_WINDOW));
+
+    private final Path directory;
+    private final int maxReadBytes;
+
+    public LogFileSource(@Value("${central-manager.logs.directory:logs}") String directory,
+                         @Value("${central-manager.logs.max-read-bytes:4194304}") int maxReadBytes) {
+        this.directory = Path.of(directory);
+        this.maxReadBytes = maxReadBytes;
+    }
+
+    // Receives lines together with the byte offset they start at
+    public interface LineConsumer {
+        void line(long offset, String text);
+
+        // Called before any line when the file was rotated or truncated
+        default void restart() {}
+    }
+
+    public Path resolve(Long instanceId) {
+        return directory.resolve(instanceId + ".log");
+    }
+
+    // Last maxLines complete lines; positions the cursor at the end of them
+    public List<String> tail(Long instanceId, int maxLines, LogCursor cursor) {
+        Path file = resolve(instanceId);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long end = lastLineEnd(channel, 0, channel.size());
+            long start = findTailStart(channel, end, maxLines);
+            cursor.setFileKey(fileKey(file));
+            cursor.setPosition(end);
+            List<String> lines = new ArrayList<>();
+            readLines(channel, start, end, (offset, text) -> lines.add(text));
+            return lines;
+        } catch (NoSuchFileException e) {
+            cursor.reset();
+            return List.of();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot tail log " + file, e);
+        }
+    }
+
+    // Complete lines written since the cursor position (at most maxReadBytes per call)
+    public List<String> readNew(Long instanceId, LogCursor cursor) {
+        List<String> lines = new ArrayList<>();
+        readNew(instanceId, cursor, (offset, text) -> lines.add(text));
+        return lines;
+    }
+
+    // Same as above, streaming lines with their offsets; returns the number of lines read
+    public int readNew(Long instanceId, LogCursor cursor, LineConsumer consumer) {
+        Path file = resolve(instanceId);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            Object key = fileKey(file);
+            long size = channel.size();
+            if (!key.equals(cursor.getFileKey()) || size < cursor.getPosition()) {
+                // Rotated or truncated: the cursor belongs to old content
+                if (cursor.getFileKey() != null) {
+                    consumer.restart();
+                }
+                cursor.setFileKey(key);
+                cursor.setPosition(0);
+            }
+            long start = cursor.getPosition();
+            long end = lastLineEnd(channel, start, Math.min(size, start + maxReadBytes));
+            if (end <= start) {
+                return 0;
+            }
+            cursor.setPosition(end);
+            return readLines(channel, start, end, consumer);
+        } catch (NoSuchFileException e) {
+            if (cursor.getFileKey() != null) {
+                consumer.restart();
+            }
+            cursor.reset();
+            return 0;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read log " + file, e);
+        }
+    }
+
+    // Lines starting at the given offsets (e.g. search hits), one open of the file. The offsets
+    // belong to the file the cursor has read; after a rotation or truncation no lines are returned.
+    public List<String> readLinesAt(Long instanceId, LogCursor generation, long[] offsets, int count) {
+        Path file = resolve(instanceId);
+        List<String> lines = new ArrayList<>(count);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (!fileKey(file).equals(generation.getFileKey()) || size < generation.getPosition()) {
+                return lines;
+            }
+            for (int i = 0; i < count; i++) {
+                long start = offsets[i];
+                if (start >= size) {
+                    break;
+                }
+                long end = lineEnd(channel, start, Math.min(size, start + maxReadBytes));
+                if (readLines(channel, start, end, (offset, text) -> lines.add(text)) == 0) {
+                    lines.add(""); // an empty line
+                }
+            }
+            return lines;
+        } catch (NoSuchFileException e) {
+            return lines;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read log " + file, e);
+        }
+    }
+
+    private Object fileKey(Path file) throws IOException {
+        BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        return attributes.fileKey() != null ? attributes.fileKey() : attributes.creationTime();
+    }
+
+    // Offset just after the last '\n' in [start, limit); a partial last line is left for the next read.
+    // Scans at most maxReadBytes back from limit.
+    private long lastLineEnd(FileChannel channel, long start, long limit) throws IOException {
+        long floor = Math.max(start, limit - maxReadBytes);
+        long pos = limit;
+        while (pos > floor) {
+            int length = (int) Math.min(TAIL_WINDOW, pos - floor);
+            ByteBuffer window = read(channel, pos - length, length);
+            for (int i = window.limit() - 1; i >= 0; i--) {
+                if (window.get(i) == '\n') {
+                    return pos - length + i + 1;
+                }
+            }
+            pos -= length;
+        }
+        // No line end: a single "line" longer than the read limit is handed out as is
+        return limit - floor >= maxReadBytes ? limit : start;
+    }
+
+    // Offset of the first of the last maxLines lines ending at end, scanning at most maxReadBytes.
+    // When the scan stops short of the file start, the first, partial line is skipped.
+    private long findTailStart(FileChannel channel, long end, int maxLines) throws IOException {
+        long floor = Math.max(0, end - maxReadBytes);
+        long pos = end - 1; // skip the newline that terminates the last line
+        long firstLineEnd = -1;
+        int newlines = 0;
+        while (pos > floor) {
+            int length = (int) Math.min(TAIL_WINDOW, pos - floor);
+            ByteBuffer window = read(channel, pos - length, length);
+            for (int i = window.limit() - 1; i >= 0; i--) {
+                if (window.get(i) == '\n') {
+                    firstLineEnd = pos - length + i;
+                    if (++newlines == maxLines) {
+                        return firstLineEnd + 1;
+                    }
+                }
+            }
+            pos -= length;
+        }
+        return floor > 0 && firstLineEnd >= 0 ? firstLineEnd + 1 : floor;
+    }
+
+    // Offset of the '\n' ending the line that starts at start (or limit)
+    private long lineEnd(FileChannel channel, long start, long limit) throws IOException {
+        long pos = start;
+        while (pos < limit) {
+            ByteBuffer window = read(channel, pos, (int) Math.min(TAIL_WINDOW, limit - pos));
+            int length = window.limit();
+            for (int i = 0; i < length; i++) {
+                if (window.get(i) == '\n') {
+                    return pos + i;
+                }
+            }
+            if (length == 0) {
+                return pos; // truncated meanwhile
+            }
+            pos += length;
+        }
+        return limit;
+    }
+
+    // Lines between start and end, read window by window; a line spanning windows is carried over
+    private int readLines(FileChannel channel, long start, long end, LineConsumer consumer) throws IOException {
+        int count = 0;
+        long lineStart = start;
+        long pos = start;
+        ByteArrayOutputStream carry = new ByteArrayOutputStream();
+        while (pos < end) {
+            ByteBuffer window = read(channel, pos, (int) Math.min(TAIL_WINDOW, end - pos));
+            int length = window.limit();
+            if (length == 0) {
+                break; // truncated meanwhile; the next read restarts the cursor
+            }
+            byte[] bytes = window.array();
+            int from = 0;
+            for (int i = 0; i < length; i++) {
+                if (bytes[i] == '\n') {
+                    consumer.line(lineStart, decode(carry, bytes, from, i));
+                    from = i + 1;
+                    lineStart = pos + from;
+                    count++;
+                }
+            }
+            carry.write(bytes, from, length - from);
+            pos += length;
+        }
+        if (carry.size() > 0) {
+            consumer.line(lineStart, decode(carry, new byte[0], 0, 0));
+            count++;
+        }
+        return count;
+    }
+
+    // Up to length bytes at position into this thread's window; fewer only at the end of the file
+    private static ByteBuffer read(FileChannel channel, long position, int length) throws IOException {
+        ByteBuffer window = WINDOW.get().clear().limit(length);
+        while (window.hasRemaining()) {
+            if (channel.read(window, position + window.position()) < 0) {
+                break;
+            }
+        }
+        return window.flip();
+    }
+
+    // The carried bytes followed by bytes[from, to), without a trailing '\r'; empties the carry
+    private static String decode(ByteArrayOutputStream carry, byte[] bytes, int from, int to) {
+        if (carry.size() > 0) {
+            carry.write(bytes, from, to - from);
+            bytes = carry.toByteArray();
+            from = 0;
+            to = bytes.length;
+            carry.reset();
+        }
+        int end = to > from && bytes[to - 1] == '\r' ? to - 1 : to;
+        return new String(bytes, from, end - from, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,7 @@
+package com.bludots.logs;
+
+/**
+ * A log line matching a search.
+ */
+public record LogHit(Long instanceId, LogLevel level, String text) {
+}
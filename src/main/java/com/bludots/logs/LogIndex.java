@@ -0,0 +1,284 @@
+package com.bludots.logs;
+
+import com.bludots.util.IntList;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Incrementally built search index over one instance log file.
+ * <p>
+ * Per line only the byte offset is kept; on top of that there is one bitmap per
+ * level, a postings list (ascending line numbers) per token and a sparse
+ * time-to-line index with one entry every {@value #SPARSE_EVERY} lines.
+ * Line text is read back from the file only for hits.
+ */
+public class LogIndex {
+
+    private static final int SPARSE_EVERY = 256;
+    private static final int MIN_TOKEN_LENGTH = 2;
+    private static final int MAX_TOKEN_LENGTH = 32;
+    // Map entry, token string and postings list header
+    private static final long TOKEN_OVERHEAD_BYTES = 96;
+
+    private final Long instanceId;
+    private final LogCursor cursor = new LogCursor();
+
+    private long[] lineOffsets;
+    private int lineCount;
+    private final BitSet[] levels = new BitSet[LogLevel.values().length];
+    private final Map<String, IntList> postings = new HashMap<>();
+    private long postingEntries;
+
+    private long[] sparseTimes = new long[16];
+    private int[] sparseLines = new int[16];
+    private int sparseCount;
+    private long lastTime;
+
+    public LogIndex(Long instanceId) {
+        this.instanceId = instanceId;
+        clear();
+    }
+
+    public Long getInstanceId() { return instanceId; }
+
+    public synchronized int getLineCount() { return lineCount; }
+
+    // Index the lines appended since the last call; returns the number of new lines
+    public synchronized int catchUp(LogFileSource source) {
+        LogFileSource.LineConsumer consumer = new LogFileSource.LineConsumer() {
+            @Override
+            public void line(long offset, String text) {
+                addLine(offset, text);
+            }
+
+            @Override
+            public void restart() {
+                clear();
+            }
+        };
+        int total = 0;
+        int read;
+        while ((read = source.readNew(instanceId, cursor, consumer)) > 0) {
+            total += read;
+        }
+        return total;
+    }
+
+    // Line numbers [from, to) that may contain lines inside the time range (binary search on the sparse index)
+    public synchronized int[] lineRange(long fromMillis, long toMillis) {
+        int before = firstSparseAfter(fromMillis - 1) - 1; // last entry with time < from
+        int after = firstSparseAfter(toMillis);             // first entry with time > to
+        int from = before >= 0 ? sparseLines[before] : 0;
+        int to = after < sparseCount ? sparseLines[after] : lineCount;
+        return new int[] {from, to};
+    }
+
+    private int firstSparseAfter(long millis) {
+        int low = 0;
+        int high = sparseCount;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sparseTimes[mid] <= millis) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Collects up to max matching line numbers in [fromLine, toLine) into out.
+     * Returns the line to resume from, or toLine when the range is exhausted.
+     */
+    public synchronized int collect(Set<LogLevel> wanted, List<String> tokens, int fromLine, int toLine,
+                                    int max, IntList out) {
+        toLine = Math.min(toLine, lineCount);
+        BitSet[] levelSets = wanted.isEmpty() || wanted.size() == levels.length
+                ? null
+                : wanted.stream().map(l -> levels[l.ordinal()]).toArray(BitSet[]::new);
+
+        if (tokens.isEmpty()) {
+            int line = nextLevelMatch(levelSets, fromLine);
+            while (line >= 0 && line < toLine) {
+                out.add(line);
+                if (out.size() >= max) {
+                    return line + 1;
+                }
+                line = nextLevelMatch(levelSets, line + 1);
+            }
+            return toLine;
+        }
+
+        // Intersect postings, driven by the shortest list
+        IntList[] lists = new IntList[tokens.size()];
+        int shortest = 0;
+        for (int i = 0; i < lists.length; i++) {
+            lists[i] = postings.get(tokens.get(i));
+            if (lists[i] == null) {
+                return toLine;
+            }
+            if (lists[i].size() < lists[shortest].size()) {
+                shortest = i;
+            }
+        }
+        IntList driver = lists[shortest];
+        for (int p = driver.lowerBound(fromLine); p < driver.size(); p++) {
+            int line = driver.get(p);
+            if (line >= toLine) {
+                break;
+            }
+            if (containsAll(lists, line) && matchesLevel(levelSets, line)) {
+                out.add(line);
+                if (out.size() >= max) {
+                    return line + 1;
+                }
+            }
+        }
+        return toLine;
+    }
+
+    // Text of the given lines, read from the file generation this index was built from. Empty when
+    // the file was rotated or truncated since; the next catchUp then starts the index over.
+    public synchronized List<String> readLines(LogFileSource source, IntList lines) {
+        long[] offsets = new long[lines.size()];
+        for (int i = 0; i < offsets.length; i++) {
+            offsets[i] = lineOffsets[lines.get(i)];
+        }
+        return source.readLinesAt(instanceId, cursor, offsets, offsets.length);
+    }
+
+    // Rough heap footprint: line offsets, level bitmaps, postings entries and one map entry per token
+    public synchronized long estimatedBytes() {
+        return lineOffsets.length * 8L
+                + (long) levels.length * (lineCount / 8)
+                + postingEntries * 4L
+                + postings.size() * TOKEN_OVERHEAD_BYTES;
+    }
+
+    public synchronized LogLevel levelOf(int line) {
+        for (LogLevel level : LogLevel.values()) {
+            if (levels[level.ordinal()].get(line)) {
+                return level;
+            }
+        }
+        return LogLevel.INFO;
+    }
+
+    // Lower-case runs of letters and digits, the ones the index holds
+    public static List<String> tokenize(String text) {
+        return words(text, true);
+    }
+
+    // Lower-case runs of letters and digits too short or too long for the index
+    public static List<String> unindexedWords(String text) {
+        return words(text, false);
+    }
+
+    private static List<String> words(String text, boolean indexed) {
+        List<String> words = new ArrayList<>();
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean word = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (word && start < 0) {
+                start = i;
+            } else if (!word && start >= 0) {
+                int length = i - start;
+                if ((length >= MIN_TOKEN_LENGTH && length <= MAX_TOKEN_LENGTH) == indexed) {
+                    words.add(text.substring(start, i).toLowerCase());
+                }
+                start = -1;
+            }
+        }
+        return words;
+    }
+
+    private void addLine(long offset, String text) {
+        int line = lineCount;
+        if (line == lineOffsets.length) {
+            lineOffsets = Arrays.copyOf(lineOffsets, line * 2);
+        }
+        lineOffsets[line] = offset;
+        lineCount++;
+
+        levels[LogLevel.of(text).ordinal()].set(line);
+
+        for (String token : tokenize(text)) {
+            IntList list = postings.computeIfAbsent(token, t -> new IntList());
+            if (list.isEmpty() || list.last() != line) {
+                list.add(line);
+                postingEntries++;
+            }
+        }
+
+        // Lines without a timestamp (stack traces) inherit the previous one; times never go back
+        long time = LogTimestamps.parse(text);
+        if (time < 0) {
+            time = lastTime > 0 ? lastTime : System.currentTimeMillis();
+        }
+        lastTime = Math.max(lastTime, time);
+        if (line % SPARSE_EVERY == 0) {
+            if (sparseCount == sparseTimes.length) {
+                sparseTimes = Arrays.copyOf(sparseTimes, sparseCount * 2);
+                sparseLines = Arrays.copyOf(sparseLines, sparseCount * 2);
+            }
+            sparseTimes[sparseCount] = lastTime;
+            sparseLines[sparseCount] = line;
+            sparseCount++;
+        }
+    }
+
+    private void clear() {
+        lineOffsets = new long[1024];
+        lineCount = 0;
+        sparseCount = 0;
+        lastTime = 0;
+        postings.clear();
+        postingEntries = 0;
+        for (int i = 0; i < levels.length; i++) {
+            levels[i] = new BitSet();
+        }
+    }
+
+    private int nextLevelMatch(BitSet[] levelSets, int from) {
+        if (levelSets == null) {
+            return from < lineCount ? from : -1;
+        }
+        int next = -1;
+        for (BitSet set : levelSets) {
+            int candidate = set.nextSetBit(from);
+            if (candidate >= 0 && (next < 0 || candidate < next)) {
+                next = candidate;
+            }
+        }
+        return next;
+    }
+
+    private boolean matchesLevel(BitSet[] levelSets, int line) {
+        if (levelSets == null) {
+            return true;
+        }
+        for (BitSet set : levelSets) {
+            if (set.get(line)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean containsAll(IntList[] lists, int line) {
+        for (IntList list : lists) {
+            int index = list.lowerBound(line);
+            if (index == list.size() || list.get(index) != line) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
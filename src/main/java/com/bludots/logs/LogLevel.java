@@ -0,0 +1,19 @@
+package com.bludots.logs;
+
+/**
+ * Log level of a line, as classified for display and indexing.
+ */
+public enum LogLevel {
+    ERROR, WARN, INFO;
+
+    // "[ERROR]" style markers as well as the JUL levels Tomcat writes
+    public static LogLevel of(String line) {
+        if (line.contains("[ERROR]") || line.contains(" SEVERE ")) {
+            return ERROR;
+        }
+        if (line.contains("[WARN]") || line.contains(" WARNING ")) {
+            return WARN;
+        }
+        return INFO;
+    }
+}
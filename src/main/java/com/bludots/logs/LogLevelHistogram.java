@@ -0,0 +1,78 @@
+package com.bludots.logs;
+
+import java.util.Arrays;
+
+/**
+ * Lines per level in a ring of fixed time buckets, with running totals over the whole
+ * window so window counts are read without summing buckets. Bucket i covers
+ * [i * bucketMillis, (i + 1) * bucketMillis); buckets leaving the window are subtracted
+ * from the totals and cleared as the head moves forward.
+ */
+class LogLevelHistogram {
+
+    private static final int LEVELS = LogLevel.values().length;
+
+    private final long bucketMillis;
+    private final int buckets;
+    private final int[][] counts;
+    private final long[] totals = new long[LEVELS];
+    private long head = -1; // newest bucket number
+
+    LogLevelHistogram(long bucketMillis, int buckets) {
+        this.bucketMillis = bucketMillis;
+        this.buckets = buckets;
+        this.counts = new int[LEVELS][buckets];
+    }
+
+    synchronized void add(LogLevel level, long timeMillis, int lines) {
+        long bucket = timeMillis / bucketMillis;
+        advance(bucket);
+        if (bucket <= head - buckets) {
+            return; // older than the window
+        }
+        counts[level.ordinal()][(int) (bucket % buckets)] += lines;
+        totals[level.ordinal()] += lines;
+    }
+
+    // Counts over the window ending at nowMillis
+    synchronized LevelCounts window(long nowMillis) {
+        advance(nowMillis / bucketMillis);
+        long lines = 0;
+        for (long total : totals) {
+            lines += total;
+        }
+        return new LevelCounts(totals[LogLevel.ERROR.ordinal()], totals[LogLevel.WARN.ordinal()], lines);
+    }
+
+    // Lines of one level per bucket ending at nowMillis, oldest first; returns min(out.length, buckets)
+    synchronized int read(LogLevel level, long nowMillis, long[] out) {
+        advance(nowMillis / bucketMillis);
+        int n = Math.min(out.length, buckets);
+        for (int i = 0; i < n; i++) {
+            long bucket = head - (n - 1 - i);
+            out[i] = bucket < 0 ? 0 : counts[level.ordinal()][(int) (bucket % buckets)];
+        }
+        return n;
+    }
+
+    private void advance(long bucket) {
+        if (bucket <= head) {
+            return;
+        }
+        if (head < 0 || bucket - head >= buckets) {
+            for (int[] level : counts) {
+                Arrays.fill(level, 0);
+            }
+            Arrays.fill(totals, 0);
+        } else {
+            for (long b = head + 1; b <= bucket; b++) {
+                int index = (int) (b % buckets);
+                for (int level = 0; level < LEVELS; level++) {
+                    totals[level] -= counts[level][index];
+                    counts[level][index] = 0;
+                }
+            }
+        }
+        head = bucket;
+    }
+}
@@ -0,0 +1,129 @@
+package com.bludots.logs;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Log lines per level, per instance and for the whole fleet, counted as they are ingested
+ * into {@code buckets} time buckets of {@code bucket-ms} (by default the last hour per minute).
+ * <p>
+ * Window counts of an instance or of the fleet are kept as running totals, so reading them
+ * costs the same for any fleet size. The noisiest instances (most errors, then warnings)
+ * are ranked once per bucket on a background thread and read back as a snapshot.
+ */
+@Component
+public class LogLevelStats {
+
+    private static final Logger log = LoggerFactory.getLogger(LogLevelStats.class);
+    private static final Comparator<Map.Entry<Long, LevelCounts>> NOISE = Comparator
+            .comparingLong((Map.Entry<Long, LevelCounts> e) -> e.getValue().errors())
+            .thenComparingLong(e -> e.getValue().warnings());
+
+    private final long bucketMillis;
+    private final int buckets;
+    private final int topSize;
+    private final Map<Long, LogLevelHistogram> instances = new ConcurrentHashMap<>();
+    private final LogLevelHistogram fleet;
+    private volatile Map<Long, LevelCounts> noisiest = Map.of();
+
+    private final ScheduledExecutorService ranker = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "log-level-ranking");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public LogLevelStats(@Value("${central-manager.logs.levels.bucket-ms:60000}") long bucketMillis,
+                         @Value("${central-manager.logs.levels.buckets:60}") int buckets,
+                         @Value("${central-manager.logs.levels.top-size:10}") int topSize) {
+        this.bucketMillis = bucketMillis;
+        this.buckets = buckets;
+        this.topSize = topSize;
+        this.fleet = new LogLevelHistogram(bucketMillis, buckets);
+        ranker.scheduleWithFixedDelay(this::rank, bucketMillis, bucketMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public void record(Long instanceId, LogLevel level, long timeMillis, int lines) {
+        instances.computeIfAbsent(instanceId, id -> new LogLevelHistogram(bucketMillis, buckets))
+                .add(level, timeMillis, lines);
+        fleet.add(level, timeMillis, lines);
+    }
+
+    public LevelCounts window(Long instanceId) {
+        LogLevelHistogram histogram = instances.get(instanceId);
+        return histogram == null ? LevelCounts.NONE : histogram.window(System.currentTimeMillis());
+    }
+
+    public LevelCounts fleetWindow() {
+        return fleet.window(System.currentTimeMillis());
+    }
+
+    // Fleet lines of one level per bucket, oldest first; callers reuse the buffer
+    public int fleetSeries(LogLevel level, long[] out) {
+        return fleet.read(level, System.currentTimeMillis(), out);
+    }
+
+    // Up to top-size instances with errors or warnings in the window, noisiest first, as of the last ranking
+    public Map<Long, LevelCounts> noisiest() {
+        return noisiest;
+    }
+
+    public long windowMillis() {
+        return bucketMillis * buckets;
+    }
+
+    public void forget(Long instanceId) {
+        instances.remove(instanceId);
+    }
+
+    public int size() {
+        return instances.size();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        ranker.shutdownNow();
+    }
+
+    private void rank() {
+        try {
+            noisiest = Collections.unmodifiableMap(topNoisy(System.currentTimeMillis()));
+        } catch (RuntimeException e) {
+            log.warn("Log level ranking failed", e); // keep the schedule alive
+        }
+    }
+
+    // Top-k over all instances with a bounded min-heap
+    private Map<Long, LevelCounts> topNoisy(long now) {
+        PriorityQueue<Map.Entry<Long, LevelCounts>> top = new PriorityQueue<>(topSize + 1, NOISE);
+        instances.forEach((id, histogram) -> {
+            LevelCounts counts = histogram.window(now);
+            if (counts.errors() + counts.warnings() == 0) {
+                return;
+            }
+            top.add(Map.entry(id, counts));
+            if (top.size() > topSize) {
+                top.poll();
+            }
+        });
+        List<Map.Entry<Long, LevelCounts>> ranked = new ArrayList<>(top);
+        ranked.sort(NOISE.reversed());
+        Map<Long, LevelCounts> result = new LinkedHashMap<>();
+        ranked.forEach(e -> result.put(e.getKey(), e.getValue()));
+        return result;
+    }
+}
@@ -0,0 +1,7 @@
+package com.bludots.logs;
+
+/**
+ * One log line with its sequence number in the reader that produced it.
+ */
+public record LogLine(long seq, LogLevel level, String text) {
+}
@@ -0,0 +1,58 @@
+package com.bludots.logs;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Fixed-capacity ring buffer of log lines. When full, the oldest lines are
+ * overwritten, so memory per reader never exceeds the capacity.
+ */
+public class LogLineBuffer {
+
+    private final LogLine[] lines;
+    private int head; // index of the oldest line
+    private int size;
+    private long nextSeq;
+
+    public LogLineBuffer(int capacity) {
+        this.lines = new LogLine[capacity];
+    }
+
+    public synchronized void addAll(List<String> texts) {
+        for (String text : texts) {
+            LogLine line = new LogLine(nextSeq++, LogLevel.of(text), text);
+            if (size < lines.length) {
+                lines[(head + size) % lines.length] = line;
+                size++;
+            } else {
+                lines[head] = line;
+                head = (head + 1) % lines.length;
+            }
+        }
+    }
+
+    // Lines [offset, offset + limit), oldest first
+    public synchronized List<LogLine> range(int offset, int limit) {
+        int end = Math.min(size, offset + limit);
+        List<LogLine> result = new ArrayList<>(Math.max(0, end - offset));
+        for (int i = offset; i < end; i++) {
+            result.add(lines[(head + i) % lines.length]);
+        }
+        return result;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return lines.length;
+    }
+
+    public synchronized void clear() {
+        Arrays.fill(lines, null);
+        head = 0;
+        size = 0;
+    }
+}
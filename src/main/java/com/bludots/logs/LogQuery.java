@@ -0,0 +1,30 @@
+package com.bludots.logs;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Log search criteria. Empty levels means all levels, null times are open ends,
+ * and every word of the text must occur in a matching line. Words the index holds are
+ * looked up as tokens; the others (too short, too long, or text without any word) are
+ * matched as substrings of the lines the tokens leave.
+ */
+public record LogQuery(List<Long> instanceIds, Set<LogLevel> levels, Instant from, Instant to, String text) {
+
+    public List<String> tokens() {
+        return text == null ? List.of() : LogIndex.tokenize(text);
+    }
+
+    // Lower-case, matched with contains on the candidate lines
+    public List<String> substrings() {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        List<String> words = LogIndex.unindexedWords(text);
+        if (words.isEmpty() && tokens().isEmpty()) {
+            return List.of(text.trim().toLowerCase()); // e.g. only punctuation
+        }
+        return words;
+    }
+}
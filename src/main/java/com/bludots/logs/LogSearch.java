@@ -0,0 +1,24 @@
+package com.bludots.logs;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Handle of a running log search. Completes with the number of hits delivered.
+ */
+public class LogSearch {
+
+    private volatile boolean cancelled;
+    private final CompletableFuture<Integer> completion = new CompletableFuture<>();
+
+    public void cancel() {
+        cancelled = true;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    public CompletableFuture<Integer> completion() {
+        return completion;
+    }
+}
@@ -0,0 +1,296 @@
+package com.bludots.logs;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Append-only, segmented log storage per instance, written by one thread.
+ * <p>
+ * The active segment of an instance is {@code <directory>/<instanceId>.log}, the file
+ * {@link LogFileSource} tails and indexes. Once it reaches {@code segment-bytes}, or is older
+ * than {@code segment-max-age-ms} when the next lines arrive, it is sealed into the
+ * {@link LogArchive} and a new active segment starts (readers see this as a rotation).
+ * <p>
+ * Lines are queued by {@link #offer} and written in batches with group commit: the writer
+ * collects everything that arrived within {@code commit-interval-ms}, appends it with one
+ * gathering write per instance and then forces each touched segment once. Producers watch
+ * {@link #pendingBytes()} to apply backpressure instead of dropping lines. Written lines are
+ * counted per level in the {@link LogLevelStats}.
+ */
+@Component
+public class LogSegmentStore {
+
+    private static final Logger log = LoggerFactory.getLogger(LogSegmentStore.class);
+    private static final int MAX_BATCH_LINES = 10_000;
+
+    private final Path directory;
+    private final long segmentBytes;
+    private final long segmentMaxAgeMs;
+    private final long commitIntervalMs;
+    private final int maxOpenSegments;
+
+    private final BlockingQueue<PendingLine> queue = new LinkedBlockingQueue<>();
+    private final AtomicLong pendingBytes = new AtomicLong();
+    private final LongAdder linesWritten = new LongAdder();
+    private final LongAdder unresolved = new LongAdder();
+    private final LongAdder commits = new LongAdder();
+    private final LongAdder rolls = new LongAdder();
+
+    // Open active segments, least recently written first (writer thread only)
+    private final Map<Long, Segment> open = new LinkedHashMap<>(16, 0.75f, true);
+    private final Thread writer;
+    private final LogSenderResolver resolver;
+    private final LogArchive archive;
+    private final LogLevelStats levelStats;
+    private volatile boolean running = true;
+
+    public LogSegmentStore(LogSenderResolver resolver, LogArchive archive, LogLevelStats levelStats,
+                           @Value("${central-manager.logs.directory:logs}") String directory,
+                           @Value("${central-manager.logs.segment-bytes:67108864}") long segmentBytes,
+                           @Value("${central-manager.logs.segment-max-age-ms:86400000}") long segmentMaxAgeMs,
+                           @Value("${central-manager.logs.commit-interval-ms:10}") long commitIntervalMs,
+                           @Value("${central-manager.logs.open-segments:256}") int maxOpenSegments) {
+        this.resolver = resolver;
+        this.archive = archive;
+        this.levelStats = levelStats;
+        this.directory = Path.of(directory);
+        this.segmentBytes = segmentBytes;
+        this.segmentMaxAgeMs = segmentMaxAgeMs;
+        this.commitIntervalMs = commitIntervalMs;
+        this.maxOpenSegments = maxOpenSegments;
+        this.writer = Thread.ofPlatform().name("log-segment-writer").daemon().start(this::writeLoop);
+    }
+
+    // Never blocks and never drops; callers stop reading input while pendingBytes() is too high
+    public void offer(String senderAddress, String senderHost, LogLevel level, byte[] line) {
+        pendingBytes.addAndGet(line.length);
+        queue.add(new PendingLine(senderAddress, senderHost, level, line));
+    }
+
+    public long pendingBytes() {
+        return pendingBytes.get();
+    }
+
+    public long linesWritten() {
+        return linesWritten.sum();
+    }
+
+    public long unresolvedLines() {
+        return unresolved.sum();
+    }
+
+    public long commits() {
+        return commits.sum();
+    }
+
+    public long rolls() {
+        return rolls.sum();
+    }
+
+    // Not interrupted: an interrupt would close the segment channels mid-write
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        running = false;
+        writer.join(TimeUnit.SECONDS.toMillis(10));
+    }
+
+    private void writeLoop() {
+        List<PendingLine> batch = new ArrayList<>();
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingLine first = queue.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                // Group commit window: whatever arrives meanwhile shares the fsync
+                if (commitIntervalMs > 0 && running) {
+                    Thread.sleep(commitIntervalMs);
+                }
+            } catch (InterruptedException e) {
+                running = false; // write what is queued, then stop
+            }
+            queue.drainTo(batch, MAX_BATCH_LINES - batch.size());
+            if (!batch.isEmpty()) {
+                write(batch);
+                batch.clear();
+            }
+        }
+        closeAll();
+    }
+
+    private void write(List<PendingLine> batch) {
+        // Group by instance, keeping arrival order per instance
+        Map<Long, List<ByteBuffer>> byInstance = new LinkedHashMap<>();
+        Map<Long, int[]> levels = new HashMap<>();
+        long bytes = 0;
+        for (PendingLine line : batch) {
+            bytes += line.bytes().length;
+            Long instanceId = resolve(line);
+            if (instanceId == null) {
+                unresolved.increment();
+                continue;
+            }
+            byInstance.computeIfAbsent(instanceId, id -> new ArrayList<>()).add(ByteBuffer.wrap(line.bytes()));
+            levels.computeIfAbsent(instanceId, id -> new int[LogLevel.values().length])[line.level().ordinal()]++;
+        }
+        List<Segment> touched = new ArrayList<>(byInstance.size());
+        for (Map.Entry<Long, List<ByteBuffer>> entry : byInstance.entrySet()) {
+            try {
+                Segment segment = append(entry.getKey(), entry.getValue());
+                touched.add(segment);
+                linesWritten.add(entry.getValue().size());
+                countLevels(entry.getKey(), levels.get(entry.getKey()));
+            } catch (IOException e) {
+                log.error("Cannot append {} log lines of instance {}", entry.getValue().size(), entry.getKey(), e);
+            }
+        }
+        for (Segment segment : touched) {
+            if (!segment.channel.isOpen()) {
+                continue; // evicted or rolled during this batch, forced before closing
+            }
+            try {
+                segment.channel.force(false);
+            } catch (IOException e) {
+                log.error("Cannot sync log segment {}", segment.path, e);
+            }
+        }
+        commits.increment();
+        pendingBytes.addAndGet(-bytes);
+    }
+
+    // One update per instance and level per batch, bucketed by write time
+    private void countLevels(Long instanceId, int[] counts) {
+        long now = System.currentTimeMillis();
+        for (LogLevel level : LogLevel.values()) {
+            if (counts[level.ordinal()] > 0) {
+                levelStats.record(instanceId, level, now, counts[level.ordinal()]);
+            }
+        }
+    }
+
+    private Long resolve(PendingLine line) {
+        try {
+            return resolver.resolve(line.senderAddress(), line.senderHost());
+        } catch (RuntimeException e) {
+            log.warn("Cannot resolve log sender {}", line.senderAddress(), e);
+            return null;
+        }
+    }
+
+    private Segment append(Long instanceId, List<ByteBuffer> lines) throws IOException {
+        long size = 0;
+        for (ByteBuffer line : lines) {
+            size += line.remaining();
+        }
+        Segment segment = open(instanceId);
+        if (segment.size > 0 && (segment.size + size > segmentBytes
+                || System.currentTimeMillis() - segment.createdAt > segmentMaxAgeMs)) {
+            segment = roll(segment);
+        }
+        ByteBuffer[] buffers = lines.toArray(ByteBuffer[]::new);
+        long remaining = size;
+        while (remaining > 0) {
+            remaining -= segment.channel.write(buffers);
+        }
+        segment.size += size;
+        return segment;
+    }
+
+    private Segment open(Long instanceId) throws IOException {
+        Segment segment = open.get(instanceId);
+        if (segment != null) {
+            return segment;
+        }
+        if (open.size() >= maxOpenSegments) {
+            Iterator<Segment> eldest = open.values().iterator();
+            Segment victim = eldest.next();
+            eldest.remove();
+            victim.channel.force(false); // may still hold lines of the current batch
+            victim.close();
+        }
+        Files.createDirectories(directory);
+        Path path = directory.resolve(instanceId + ".log");
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND);
+        long size = channel.size();
+        long createdAt = size == 0 ? System.currentTimeMillis()
+                : Files.readAttributes(path, BasicFileAttributes.class).creationTime().toMillis();
+        segment = new Segment(instanceId, path, channel, size, createdAt);
+        open.put(instanceId, segment);
+        return segment;
+    }
+
+    // Seal the active segment and start an empty one
+    private Segment roll(Segment segment) throws IOException {
+        segment.channel.force(false);
+        segment.close();
+        open.remove(segment.instanceId);
+        archive.seal(segment.instanceId, segment.path);
+        rolls.increment();
+        return open(segment.instanceId);
+    }
+
+    private void closeAll() {
+        for (Segment segment : open.values()) {
+            try {
+                segment.channel.force(false);
+            } catch (IOException e) {
+                log.warn("Cannot sync log segment {}", segment.path, e);
+            }
+            segment.close();
+        }
+        open.clear();
+    }
+
+    // One received line, not yet attributed to an instance
+    private record PendingLine(String senderAddress, String senderHost, LogLevel level, byte[] bytes) {
+    }
+
+    private static final class Segment {
+
+        private final Long instanceId;
+        private final Path path;
+        private final FileChannel channel;
+        private final long createdAt;
+        private long size;
+
+        private Segment(Long instanceId, Path path, FileChannel channel, long size, long createdAt) {
+            this.instanceId = instanceId;
+            this.path = path;
+            this.channel = channel;
+            this.size = size;
+            this.createdAt = createdAt;
+        }
+
+        private void close() {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                log.warn("Cannot close log segment {}", path, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.bludots.logs;
+
+import com.bludots.repositories.TomcatInstanceRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Attributes received log lines to instances. A syslog HOSTNAME of the form
+ * {@code instance-<id>} names the instance directly; otherwise the HOSTNAME and then the
+ * sender's source address are matched against the instances' {@code ipAddress}.
+ * Answers (including "unknown") are cached for {@code sender-cache-ms}.
+ */
+@Component
+public class LogSenderResolver {
+
+    private static final String HOST_PREFIX = "instance-";
+    private static final int MAX_CACHED_SENDERS = 100_000;
+
+    private final TomcatInstanceRepository repository;
+    private final long cacheMs;
+    private final Map<String, Sender> senders = new ConcurrentHashMap<>();
+
+    public LogSenderResolver(TomcatInstanceRepository repository,
+                             @Value("${central-manager.ingest.sender-cache-ms:60000}") long cacheMs) {
+        this.repository = repository;
+        this.cacheMs = cacheMs;
+    }
+
+    // Instance id, or null when neither the host nor the address belongs to an instance
+    public Long resolve(String address, String host) {
+        Long id = host == null ? null : cached("host:" + host, () -> byHost(host));
+        if (id == null && address != null) {
+            id = cached("ip:" + address, () -> byIpAddress(address));
+        }
+        return id;
+    }
+
+    private Long byHost(String host) {
+        if (host.startsWith(HOST_PREFIX)) {
+            try {
+                long id = Long.parseLong(host.substring(HOST_PREFIX.length()));
+                return repository.existsById(id) ? id : null;
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+        return byIpAddress(host);
+    }
+
+    private Long byIpAddress(String address) {
+        List<Long> ids = repository.findIdsByIpAddress(address);
+        return ids.isEmpty() ? null : ids.get(0);
+    }
+
+    private Long cached(String key, Supplier<Long> lookup) {
+        long now = System.currentTimeMillis();
+        Sender sender = senders.get(key);
+        if (sender != null && now - sender.resolvedAt() < cacheMs) {
+            return sender.instanceId();
+        }
+        if (senders.size() >= MAX_CACHED_SENDERS) {
+            senders.clear();
+        }
+        Long id = lookup.get();
+        senders.put(key, new Sender(id, now));
+        return id;
+    }
+
+    private record Sender(Long instanceId, long resolvedAt) {
+    }
+}
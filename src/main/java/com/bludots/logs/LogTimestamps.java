@@ -0,0 +1,120 @@
+package com.bludots.logs;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.zone.ZoneRules;
+
+/**
+ * Parses the timestamp at the start of a log line, read as local time of the system zone.
+ * Supported: {@code 2026-10-18 10:15:30[.SSS]} (also with 'T') and Tomcat's
+ * {@code 18-Oct-2026 10:15:30.123}.
+ * <p>
+ * Epoch millis are computed arithmetically; the zone offset is looked up once per local
+ * hour and reused, so parsing the lines of one hour allocates nothing.
+ */
+public final class LogTimestamps {
+
+    private static final String MONTHS = "JanFebMarAprMayJunJulAugSepOctNovDec";
+    private static final int[] DAYS_IN_MONTH = {31, 29, 31, 30, 31, 30, 31, 31, 30, 31, 30, 31};
+
+    // Offset of the local hour last parsed; replaced as a whole so readers see a matching pair
+    private static volatile HourOffset lastHour = new HourOffset(Long.MIN_VALUE, 0);
+
+    private LogTimestamps() {}
+
+    // Epoch millis, or -1 when the line does not start with a timestamp
+    public static long parse(String line) {
+        try {
+            if (line.length() >= 19 && line.charAt(4) == '-' && line.charAt(7) == '-'
+                    && (line.charAt(10) == ' ' || line.charAt(10) == 'T')
+                    && line.charAt(13) == ':' && line.charAt(16) == ':') {
+                return toMillis(digits(line, 0, 4), digits(line, 5, 2), digits(line, 8, 2),
+                        digits(line, 11, 2), digits(line, 14, 2), digits(line, 17, 2), millis(line, 19));
+            }
+            if (line.length() >= 20 && line.charAt(2) == '-' && line.charAt(6) == '-'
+                    && line.charAt(11) == ' ' && line.charAt(14) == ':' && line.charAt(17) == ':') {
+                int month = MONTHS.indexOf(line.substring(3, 6));
+                if (month < 0 || month % 3 != 0) {
+                    return -1;
+                }
+                return toMillis(digits(line, 7, 4), month / 3 + 1, digits(line, 0, 2),
+                        digits(line, 12, 2), digits(line, 15, 2), digits(line, 18, 2), millis(line, 20));
+            }
+        } catch (RuntimeException e) {
+            // Looked like a timestamp but is not a valid date
+        }
+        return -1;
+    }
+
+    private static long toMillis(int year, int month, int day, int hour, int minute, int second, int millis) {
+        if (month < 1 || month > 12 || day < 1 || day > DAYS_IN_MONTH[month - 1]
+                || month == 2 && day == 29 && !isLeap(year)
+                || hour > 23 || minute > 59 || second > 59) {
+            return -1;
+        }
+        long localHour = epochDay(year, month, day) * 24 + hour;
+        HourOffset cached = lastHour;
+        if (cached.localHour() != localHour) {
+            cached = offsetOf(localHour);
+            if (cached == null) {
+                // Transition within the hour (rare, not on the hour): resolved per line
+                return LocalDateTime.of(year, month, day, hour, minute, second)
+                        .atZone(ZoneId.systemDefault())
+                        .toInstant()
+                        .toEpochMilli() + millis;
+            }
+            lastHour = cached;
+        }
+        return ((localHour * 60 + minute) * 60 + second - cached.offsetSeconds()) * 1000 + millis;
+    }
+
+    // Days since 1970-01-01 of a valid proleptic Gregorian date
+    private static long epochDay(int year, int month, int day) {
+        long y = month <= 2 ? year - 1 : year; // years counted from March, leap day last
+        long era = Math.floorDiv(y, 400);
+        long yearOfEra = y - era * 400;
+        long dayOfYear = (153L * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+        long dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146097 + dayOfEra - 719468;
+    }
+
+    private static boolean isLeap(int year) {
+        return year % 4 == 0 && (year % 100 != 0 || year % 400 == 0);
+    }
+
+    // Offset of the system zone during the local hour, or null when it changes within the hour.
+    // A gap or overlap resolves to the offset before the transition, as LocalDateTime.atZone does.
+    private static HourOffset offsetOf(long localHour) {
+        ZoneRules rules = ZoneId.systemDefault().getRules();
+        LocalDateTime start = LocalDateTime.ofEpochSecond(localHour * 3600, 0, ZoneOffset.UTC);
+        int offset = rules.getOffset(start).getTotalSeconds();
+        if (offset != rules.getOffset(start.plusSeconds(3599)).getTotalSeconds()) {
+            return null;
+        }
+        return new HourOffset(localHour, offset);
+    }
+
+    private static int digits(String line, int from, int count) {
+        int value = 0;
+        for (int i = from; i < from + count; i++) {
+            char c = line.charAt(i);
+            if (c < '0' || c > '9') {
+                throw new NumberFormatException();
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    // Optional ".SSS" / ",SSS" fraction
+    private static int millis(String line, int from) {
+        if (line.length() >= from + 4 && (line.charAt(from) == '.' || line.charAt(from) == ',')) {
+            return digits(line, from + 1, 3);
+        }
+        return 0;
+    }
+
+    private record HourOffset(long localHour, int offsetSeconds) {
+    }
+}
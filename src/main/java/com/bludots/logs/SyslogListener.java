@@ -0,0 +1,356 @@
+package com.bludots.logs;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.ProtocolException;
+import java.net.SocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.DatagramChannel;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Iterator;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Syslog-style log ingestion over TCP and UDP, for managed Tomcats to ship their logs to.
+ * <p>
+ * One selector thread serves every connection. TCP frames are either newline-terminated
+ * or octet-counted ({@code <length> <message>}, RFC 6587, recognized by the {@code <} of
+ * the message's PRI after the length); a UDP datagram is one message. A sender whose data
+ * cannot be framed is disconnected without affecting the others.
+ * Messages go to the {@link LogSegmentStore}. While more than {@code max-pending-bytes}
+ * are waiting to be written, the listener stops reading: TCP senders are then held back
+ * by flow control instead of losing lines (UDP has no flow control; datagrams wait in the
+ * socket buffer and the kernel drops them once it is full).
+ */
+@Component
+public class SyslogListener {
+
+    private static final Logger log = LoggerFactory.getLogger(SyslogListener.class);
+    private static final DateTimeFormatter RECEIVED_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSS ");
+    private static final int INITIAL_BUFFER_BYTES = 4096;
+    private static final int MAX_DATAGRAMS_PER_WAKEUP = 64;
+    // Up to 999,999,999: the length of an octet-counted frame always fits in an int
+    private static final int MAX_FRAME_DIGITS = 9;
+
+    private final LogSegmentStore store;
+    private final boolean enabled;
+    private final String bindAddress;
+    private final int tcpPort;
+    private final int udpPort;
+    private final long maxPendingBytes;
+    private final int maxLineBytes;
+    // A whole octet-counted frame: "<length> " and up to max-line-bytes of message
+    private final int maxBufferBytes;
+
+    private final AtomicInteger connections = new AtomicInteger();
+    private final LongAdder linesReceived = new LongAdder();
+    private final LongAdder pauses = new LongAdder();
+    private Selector selector;
+    private Thread thread;
+    private volatile boolean running;
+    private volatile boolean paused;
+    // Selector thread only
+    private ByteBuffer datagram;
+
+    public SyslogListener(LogSegmentStore store,
+                          @Value("${central-manager.ingest.enabled:true}") boolean enabled,
+                          @Value("${central-manager.ingest.bind-address:127.0.0.1}") String bindAddress,
+                          @Value("${central-manager.ingest.tcp-port:5514}") int tcpPort,
+                          @Value("${central-manager.ingest.udp-port:5514}") int udpPort,
+                          @Value("${central-manager.ingest.max-pending-bytes:67108864}") long maxPendingBytes,
+                          @Value("${central-manager.ingest.max-line-bytes:65536}") int maxLineBytes) {
+        this.store = store;
+        this.enabled = enabled;
+        this.bindAddress = bindAddress;
+        this.tcpPort = tcpPort;
+        this.udpPort = udpPort;
+        this.maxPendingBytes = maxPendingBytes;
+        this.maxLineBytes = maxLineBytes;
+        this.maxBufferBytes = maxLineBytes + MAX_FRAME_DIGITS + 1;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        selector = Selector.open();
+        if (tcpPort > 0) {
+            ServerSocketChannel server = ServerSocketChannel.open();
+            server.bind(new InetSocketAddress(bindAddress, tcpPort), 1024);
+            server.configureBlocking(false);
+            server.register(selector, SelectionKey.OP_ACCEPT);
+        }
+        if (udpPort > 0) {
+            DatagramChannel udp = DatagramChannel.open();
+            udp.setOption(StandardSocketOptions.SO_RCVBUF, 4 * 1024 * 1024);
+            udp.bind(new InetSocketAddress(bindAddress, udpPort));
+            udp.configureBlocking(false);
+            udp.register(selector, SelectionKey.OP_READ);
+            datagram = ByteBuffer.allocate(maxLineBytes);
+        }
+        running = true;
+        thread = Thread.ofPlatform().name("syslog-listener").daemon().start(this::selectLoop);
+        log.info("Log ingestion listening on {} (tcp {}, udp {})", bindAddress, tcpPort, udpPort);
+    }
+
+    public int connections() {
+        return connections.get();
+    }
+
+    public long linesReceived() {
+        return linesReceived.sum();
+    }
+
+    public boolean isPaused() {
+        return paused;
+    }
+
+    public long pauses() {
+        return pauses.sum();
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        if (thread == null) {
+            return;
+        }
+        running = false;
+        selector.wakeup();
+        thread.join(2000);
+    }
+
+    private void selectLoop() {
+        try {
+            while (running) {
+                selector.select(paused ? 50 : 1000);
+                if (paused && store.pendingBytes() <= maxPendingBytes / 2) {
+                    setReading(true);
+                }
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    if (!key.isValid()) {
+                        continue;
+                    }
+                    try {
+                        if (key.isAcceptable()) {
+                            accept((ServerSocketChannel) key.channel());
+                        } else if (key.isReadable() && key.channel() instanceof DatagramChannel udp) {
+                            receive(udp);
+                        } else if (key.isReadable()) {
+                            read(key);
+                        }
+                    } catch (IOException e) {
+                        log.debug("Log sender connection failed", e);
+                        close(key);
+                    } catch (RuntimeException e) {
+                        // Whatever one sender sent, the others keep being served
+                        log.warn("Closing log sender connection after unexpected data", e);
+                        close(key);
+                    }
+                }
+                if (!paused && store.pendingBytes() > maxPendingBytes) {
+                    setReading(false);
+                }
+            }
+        } catch (IOException | ClosedSelectorException e) {
+            if (running) {
+                log.error("Log ingestion stopped", e);
+            }
+        } finally {
+            for (SelectionKey key : selector.keys()) {
+                close(key);
+            }
+            try {
+                selector.close();
+            } catch (IOException e) {
+                log.debug("Cannot close selector", e);
+            }
+        }
+    }
+
+    // Backpressure: stop (or resume) reading from every sender at once
+    private void setReading(boolean reading) {
+        for (SelectionKey key : selector.keys()) {
+            if (key.isValid() && !(key.channel() instanceof ServerSocketChannel)) {
+                key.interestOps(reading ? SelectionKey.OP_READ : 0);
+            }
+        }
+        paused = !reading;
+        if (!reading) {
+            pauses.increment();
+        }
+    }
+
+    private void accept(ServerSocketChannel server) throws IOException {
+        SocketChannel channel = server.accept();
+        if (channel == null) {
+            return;
+        }
+        channel.configureBlocking(false);
+        String address = ((InetSocketAddress) channel.getRemoteAddress()).getAddress().getHostAddress();
+        channel.register(selector, paused ? 0 : SelectionKey.OP_READ, new Connection(address));
+        connections.incrementAndGet();
+    }
+
+    private void receive(DatagramChannel channel) throws IOException {
+        for (int i = 0; i < MAX_DATAGRAMS_PER_WAKEUP && store.pendingBytes() <= maxPendingBytes; i++) {
+            datagram.clear();
+            SocketAddress from = channel.receive(datagram);
+            if (from == null) {
+                return;
+            }
+            datagram.flip();
+            String address = ((InetSocketAddress) from).getAddress().getHostAddress();
+            emit(address, datagram.array(), 0, datagram.limit());
+        }
+    }
+
+    private void read(SelectionKey key) throws IOException {
+        Connection connection = (Connection) key.attachment();
+        SocketChannel channel = (SocketChannel) key.channel();
+        int read = channel.read(connection.buffer);
+        if (read < 0) {
+            connection.buffer.flip();
+            if (connection.buffer.hasRemaining()) {
+                // Last line without a terminator
+                emit(connection.address, connection.buffer.array(), 0, connection.buffer.limit());
+            }
+            close(key);
+            return;
+        }
+        connection.buffer.flip();
+        extractFrames(connection);
+        connection.buffer.compact();
+        if (!connection.buffer.hasRemaining()) {
+            makeRoom(connection);
+        }
+    }
+
+    // Emits every complete frame at the start of the buffer (flipped for reading)
+    private void extractFrames(Connection connection) throws ProtocolException {
+        ByteBuffer buffer = connection.buffer;
+        byte[] bytes = buffer.array();
+        while (buffer.hasRemaining()) {
+            int start = buffer.position();
+            int limit = buffer.limit();
+            if (bytes[start] >= '1' && bytes[start] <= '9') {
+                // Octet counting: "<length> <message>", where a syslog message starts with its "<PRI>";
+                // any other line that happens to start with a number is newline-terminated
+                int space = start;
+                int length = 0;
+                while (space < limit && isDigit(bytes[space]) && space - start < MAX_FRAME_DIGITS) {
+                    length = length * 10 + bytes[space] - '0';
+                    space++;
+                }
+                if (space + 1 >= limit && (space == limit || bytes[space] == ' ')) {
+                    return; // length prefix or first message byte not received yet
+                }
+                if (bytes[space] == ' ' && bytes[space + 1] == '<') {
+                    if (length > maxLineBytes) {
+                        throw new ProtocolException("Octet-counted frame of " + length
+                                + " bytes exceeds max-line-bytes");
+                    }
+                    if (limit - space - 1 < length) {
+                        connection.pendingFrame = space + 1 - start + length;
+                        return; // incomplete
+                    }
+                    emit(connection.address, bytes, space + 1, length);
+                    buffer.position(space + 1 + length);
+                    connection.pendingFrame = 0;
+                    continue;
+                }
+            }
+            int newline = indexOf(bytes, start, limit, (byte) '\n');
+            if (newline < 0) {
+                return; // incomplete
+            }
+            emit(connection.address, bytes, start, newline - start);
+            buffer.position(newline + 1);
+        }
+    }
+
+    // Buffer full without a complete frame: grow it, or hand out an over-long line in pieces
+    private void makeRoom(Connection connection) {
+        ByteBuffer buffer = connection.buffer;
+        int needed = Math.max(buffer.capacity() * 2, connection.pendingFrame);
+        if (buffer.capacity() < maxBufferBytes) {
+            ByteBuffer larger = ByteBuffer.allocate(Math.min(maxBufferBytes, needed));
+            buffer.flip();
+            larger.put(buffer);
+            connection.buffer = larger;
+            return;
+        }
+        emit(connection.address, buffer.array(), 0, buffer.position());
+        buffer.clear();
+        connection.pendingFrame = 0;
+    }
+
+    private void emit(String address, byte[] bytes, int offset, int length) {
+        SyslogMessage message = SyslogMessage.parse(new String(bytes, offset, length, StandardCharsets.UTF_8));
+        String text = message.text().replace('\n', ' ');
+        if (LogTimestamps.parse(text) < 0) {
+            // Keep lines searchable by time even when the sender's message has no timestamp
+            text = RECEIVED_FORMAT.format(LocalDateTime.now()) + text;
+        }
+        store.offer(address, message.host(), LogLevel.of(text), (text + "\n").getBytes(StandardCharsets.UTF_8));
+        linesReceived.increment();
+    }
+
+    private void close(SelectionKey key) {
+        key.cancel();
+        try {
+            key.channel().close();
+        } catch (IOException e) {
+            log.debug("Cannot close log sender channel", e);
+        }
+        if (key.attachment() instanceof Connection) {
+            connections.decrementAndGet();
+        }
+    }
+
+    private static boolean isDigit(byte b) {
+        return b >= '0' && b <= '9';
+    }
+
+    private static int indexOf(byte[] bytes, int from, int to, byte value) {
+        for (int i = from; i < to; i++) {
+            if (bytes[i] == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    // Per TCP connection: sender address and the bytes of a frame not yet complete
+    private static final class Connection {
+
+        private final String address;
+        private ByteBuffer buffer = ByteBuffer.allocate(INITIAL_BUFFER_BYTES);
+        // Total size of an incomplete octet-counted frame, 0 when unknown
+        private int pendingFrame;
+
+        private Connection(String address) {
+            this.address = address;
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.bludots.logs;
+
+/**
+ * One received syslog frame, split into the sender's HOSTNAME field (null when the frame
+ * has no syslog header) and the message text that is stored as the log line.
+ * <p>
+ * Understands RFC 5424 ({@code <PRI>1 TIMESTAMP HOST APP PROCID MSGID SD MSG}), RFC 3164
+ * ({@code <PRI>Mmm dd hh:mm:ss HOST TAG: MSG}) and plain lines without a header.
+ */
+public record SyslogMessage(String host, String text) {
+
+    public static SyslogMessage parse(String frame) {
+        String line = stripLineEnd(frame);
+        if (line.isEmpty() || line.charAt(0) != '<') {
+            return new SyslogMessage(null, line);
+        }
+        int pri = line.indexOf('>');
+        if (pri < 2 || pri > 4) {
+            return new SyslogMessage(null, line);
+        }
+        String rest = line.substring(pri + 1);
+        if (rest.length() > 2 && Character.isDigit(rest.charAt(0)) && rest.charAt(1) == ' ') {
+            return parse5424(rest.substring(2));
+        }
+        return parse3164(rest);
+    }
+
+    // TIMESTAMP HOST APP PROCID MSGID SD [MSG]
+    private static SyslogMessage parse5424(String rest) {
+        int[] at = {0};
+        skipField(rest, at); // timestamp
+        String host = nilToNull(nextField(rest, at));
+        skipField(rest, at); // app-name
+        skipField(rest, at); // procid
+        skipField(rest, at); // msgid
+        skipStructuredData(rest, at);
+        String msg = at[0] < rest.length() ? rest.substring(at[0]) : "";
+        if (msg.startsWith("\uFEFF")) {
+            msg = msg.substring(1); // UTF-8 BOM marker
+        }
+        return new SyslogMessage(host, msg);
+    }
+
+    // Mmm dd hh:mm:ss HOST TAG: MSG
+    private static SyslogMessage parse3164(String rest) {
+        if (rest.length() < 16 || rest.charAt(3) != ' ' || rest.charAt(9) != ':' || rest.charAt(15) != ' ') {
+            return new SyslogMessage(null, rest);
+        }
+        int hostEnd = rest.indexOf(' ', 16);
+        if (hostEnd < 0) {
+            return new SyslogMessage(rest.substring(16), "");
+        }
+        String host = rest.substring(16, hostEnd);
+        String msg = rest.substring(hostEnd + 1);
+        int colon = msg.indexOf(": ");
+        if (colon > 0 && isTag(msg, colon)) {
+            msg = msg.substring(colon + 2);
+        }
+        return new SyslogMessage(host, msg);
+    }
+
+    // "tomcat" or "tomcat[1234]"
+    private static boolean isTag(String msg, int end) {
+        for (int i = 0; i < end; i++) {
+            char c = msg.charAt(i);
+            if (!(Character.isLetterOrDigit(c) || c == '-' || c == '_' || c == '.' || c == '/' || c == '['
+                    || c == ']')) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String nextField(String text, int[] at) {
+        int start = at[0];
+        int end = text.indexOf(' ', start);
+        if (end < 0) {
+            at[0] = text.length();
+            return text.substring(start);
+        }
+        at[0] = end + 1;
+        return text.substring(start, end);
+    }
+
+    private static void skipField(String text, int[] at) {
+        int end = text.indexOf(' ', at[0]);
+        at[0] = end < 0 ? text.length() : end + 1;
+    }
+
+    // "-" or one or more [id key="value" ...] elements; values may contain escaped ']' and '"'
+    private static void skipStructuredData(String text, int[] at) {
+        int i = at[0];
+        if (i < text.length() && text.charAt(i) == '-') {
+            at[0] = Math.min(text.length(), i + 2);
+            return;
+        }
+        boolean quoted = false;
+        while (i < text.length() && text.charAt(i) == '[') {
+            for (i++; i < text.length(); i++) {
+                char c = text.charAt(i);
+                if (c == '\\') {
+                    i++;
+                } else if (c == '"') {
+                    quoted = !quoted;
+                } else if (c == ']' && !quoted) {
+                    i++;
+                    break;
+                }
+            }
+        }
+        at[0] = i < text.length() && text.charAt(i) == ' ' ? i + 1 : i;
+    }
+
+    private static String nilToNull(String value) {
+        return value.isEmpty() || value.equals("-") ? null : value;
+    }
+
+    private static String stripLineEnd(String frame) {
+        int end = frame.length();
+        while (end > 0) {
+            char c = frame.charAt(end - 1);
+            if (c != '\n' && c != '\r' && c != 0) {
+                break;
+            }
+            end--;
+        }
+        return frame.substring(0, end);
+    }
+}
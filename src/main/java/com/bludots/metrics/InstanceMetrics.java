@@ -0,0 +1,37 @@
+package com.bludots.metrics;
+
+import java.util.Arrays;
+
+/**
+ * All series of one instance: one {@link RingSeries} per metric and tier. The tiers of a
+ * metric are allocated on its first sample, so metrics nobody records cost nothing.
+ */
+class InstanceMetrics {
+
+    // Per metric: its tiers, null until the first sample
+    private final RingSeries[][] series = new RingSeries[MetricType.values().length][];
+
+    synchronized void add(MetricType type, long timeMillis, double value) {
+        RingSeries[] tiers = series[type.ordinal()];
+        if (tiers == null) {
+            tiers = new RingSeries[MetricTier.values().length];
+            for (MetricTier tier : MetricTier.values()) {
+                tiers[tier.ordinal()] = new RingSeries(tier);
+            }
+            series[type.ordinal()] = tiers;
+        }
+        for (RingSeries tier : tiers) {
+            tier.add(timeMillis, value);
+        }
+    }
+
+    synchronized int read(MetricType type, MetricTier tier, long nowMillis, double[] out) {
+        RingSeries[] tiers = series[type.ordinal()];
+        if (tiers == null) {
+            int n = Math.min(out.length, tier.buckets());
+            Arrays.fill(out, 0, n, Double.NaN);
+            return n;
+        }
+        return tiers[tier.ordinal()].read(nowMillis, out);
+    }
+}
@@ -0,0 +1,35 @@
+package com.bludots.metrics;
+
+/**
+ * Resolutions a series is kept at; every sample is folded into all tiers at once.
+ */
+public enum MetricTier {
+    ONE_MINUTE(60_000L, 60),      // last hour
+    FIVE_MINUTES(300_000L, 72),   // last 6 hours
+    ONE_HOUR(3_600_000L, 48);     // last 2 days
+
+    private final long bucketMillis;
+    private final int buckets;
+
+    MetricTier(long bucketMillis, int buckets) {
+        this.bucketMillis = bucketMillis;
+        this.buckets = buckets;
+    }
+
+    public long bucketMillis() {
+        return bucketMillis;
+    }
+
+    public int buckets() {
+        return buckets;
+    }
+
+    // Total buckets over all tiers, used for the memory bound
+    static int totalBuckets() {
+        int total = 0;
+        for (MetricTier tier : values()) {
+            total += tier.buckets;
+        }
+        return total;
+    }
+}
@@ -0,0 +1,11 @@
+package com.bludots.metrics;
+
+/**
+ * Metrics kept per instance.
+ */
+public enum MetricType {
+    HEAP_USED_MB,
+    THREADS,
+    REQUEST_RATE,
+    RESPONSE_TIME_MS
+}
@@ -0,0 +1,65 @@
+package com.bludots.metrics;
+
+import java.util.Arrays;
+
+/**
+ * Fixed-size ring of time buckets holding sum and count, so averages can be read back.
+ * Bucket i covers [i * bucketMillis, (i + 1) * bucketMillis); buckets that fall out of
+ * the window are cleared as the head moves forward. Not thread-safe.
+ */
+class RingSeries {
+
+    private final long bucketMillis;
+    private final double[] sums;
+    private final int[] counts;
+    private long head = -1; // newest bucket number written
+
+    RingSeries(MetricTier tier) {
+        this.bucketMillis = tier.bucketMillis();
+        this.sums = new double[tier.buckets()];
+        this.counts = new int[tier.buckets()];
+    }
+
+    void add(long timeMillis, double value) {
+        long bucket = timeMillis / bucketMillis;
+        if (bucket > head) {
+            advance(bucket);
+        } else if (bucket <= head - sums.length) {
+            return; // older than the window
+        }
+        int index = (int) (bucket % sums.length);
+        sums[index] += value;
+        counts[index]++;
+    }
+
+    /**
+     * Writes the bucket averages ending at nowMillis into out, oldest first (NaN = no
+     * samples). Returns the number of values written: min(out.length, buckets).
+     */
+    int read(long nowMillis, double[] out) {
+        int n = Math.min(out.length, sums.length);
+        long newest = nowMillis / bucketMillis;
+        for (int i = 0; i < n; i++) {
+            long bucket = newest - (n - 1 - i);
+            int index = (int) (bucket % sums.length);
+            boolean live = bucket <= head && bucket > head - sums.length && counts[index] > 0;
+            out[i] = live ? sums[index] / counts[index] : Double.NaN;
+        }
+        return n;
+    }
+
+    private void advance(long bucket) {
+        long steps = head < 0 ? sums.length : Math.min(bucket - head, sums.length);
+        if (steps >= sums.length) {
+            Arrays.fill(sums, 0);
+            Arrays.fill(counts, 0);
+        } else {
+            for (long b = head + 1; b <= bucket; b++) {
+                int index = (int) (b % sums.length);
+                sums[index] = 0;
+                counts[index] = 0;
+            }
+        }
+        head = bucket;
+    }
+}
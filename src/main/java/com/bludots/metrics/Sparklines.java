@@ -0,0 +1,35 @@
+package com.bludots.metrics;
+
+/**
+ * Turns a series read from {@link MetricsStore} into SVG polyline points.
+ */
+public final class Sparklines {
+
+    private Sparklines() {}
+
+    // "x,y x,y ..." scaled to width x height; gaps (NaN) are skipped, empty when there is no data
+    public static String points(double[] values, int count, int width, int height) {
+        double min = Double.POSITIVE_INFINITY;
+        double max = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < count; i++) {
+            if (!Double.isNaN(values[i])) {
+                min = Math.min(min, values[i]);
+                max = Math.max(max, values[i]);
+            }
+        }
+        if (min > max) {
+            return "";
+        }
+        double range = max > min ? max - min : 1;
+        double step = count > 1 ? (double) width / (count - 1) : 0;
+        StringBuilder points = new StringBuilder(count * 10);
+        for (int i = 0; i < count; i++) {
+            if (Double.isNaN(values[i])) {
+                continue;
+            }
+            double y = height - 1 - (values[i] - min) / range * (height - 2);
+            points.append(Math.round(i * step)).append(',').append(Math.round(y)).append(' ');
+        }
+        return points.toString();
+    }
+}
@@ -0,0 +1,285 @@
+package com.bludots.probes;
+
+import com.bludots.cache.InstanceCache;
+import com.bludots.cache.InstanceSnapshot;
+import com.bludots.entities.InstanceStatus;
+import com.bludots.entities.TomcatInstanceEntity;
+import com.bludots.history.StatusChange;
+import com.bludots.metrics.MetricType;
+import com.bludots.metrics.MetricsStore;
+import com.bludots.repositories.TomcatInstanceRepository;
+import com.bludots.repositories.TomcatInstanceSpecifications;
+import com.bludots.services.InstanceStatusWriter;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static com.bludots.entities.InstanceStatus.FAILED;
+import static com.bludots.entities.InstanceStatus.RUNNING;
+
+/**
+ * Periodically checks every instance's endpoint at its {@code ipAddress} and feeds the
+ * outcome into the status state machine: a Running instance that fails
+ * {@code failure-threshold} probes in a row becomes Failed, and a Failed instance that
+ * answers again becomes Running. Stopped and Deploying instances are not probed, and their
+ * failure count starts over, so a freshly started instance gets the full threshold.
+ * <p>
+ * Each probe runs on its own virtual thread with a timeout. Start times are spread
+ * randomly over {@code jitter-ms}, and at most {@code concurrency} probes are in flight.
+ * An address may carry its own port ({@code 127.0.0.1:18080}), so the engine can be
+ * pointed at stub servers on loopback.
+ */
+@Component
+public class HealthProbeEngine {
+
+    private static final Logger log = LoggerFactory.getLogger(HealthProbeEngine.class);
+    private static final int TARGET_PAGE_SIZE = 5000;
+    private static final int TRANSITION_BATCH_SIZE = 1000;
+    // Only these states are driven by probe outcomes
+    private static final Set<InstanceStatus> PROBED = EnumSet.of(RUNNING, FAILED);
+
+    private final InstanceCache cache;
+    private final TomcatInstanceRepository repository;
+    private final InstanceStatusWriter statusWriter;
+    private final MetricsStore metrics;
+    private final boolean enabled;
+    private final long intervalMs;
+    private final int timeoutMs;
+    private final long jitterMs;
+    private final int failureThreshold;
+    private final ProbeMode mode;
+    private final int defaultPort;
+    private final String httpPath;
+    private final Semaphore permits;
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "health-probes");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final ExecutorService probes = Executors.newVirtualThreadPerTaskExecutor();
+    private final HttpClient httpClient;
+    // Consecutive failed probes per instance
+    private final Map<Long, Integer> failures = new ConcurrentHashMap<>();
+    private volatile ProbeRound lastRound;
+
+    public HealthProbeEngine(InstanceCache cache, TomcatInstanceRepository repository,
+                             InstanceStatusWriter statusWriter, MetricsStore metrics,
+                             @Value("${central-manager.probes.enabled:false}") boolean enabled,
+                             @Value("${central-manager.probes.interval-ms:30000}") long intervalMs,
+                             @Value("${central-manager.probes.timeout-ms:2000}") int timeoutMs,
+                             @Value("${central-manager.probes.jitter-ms:5000}") long jitterMs,
+                             @Value("${central-manager.probes.concurrency:512}") int concurrency,
+                             @Value("${central-manager.probes.failure-threshold:2}") int failureThreshold,
+                             @Value("${central-manager.probes.mode:tcp}") String mode,
+                             @Value("${central-manager.probes.port:8080}") int defaultPort,
+                             @Value("${central-manager.probes.http-path:/}") String httpPath) {
+        this.cache = cache;
+        this.repository = repository;
+        this.statusWriter = statusWriter;
+        this.metrics = metrics;
+        this.enabled = enabled;
+        this.intervalMs = intervalMs;
+        this.timeoutMs = timeoutMs;
+        this.jitterMs = jitterMs;
+        this.failureThreshold = failureThreshold;
+        this.mode = ProbeMode.valueOf(mode.trim().toUpperCase());
+        this.defaultPort = defaultPort;
+        this.httpPath = httpPath;
+        this.permits = new Semaphore(concurrency);
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofMillis(timeoutMs))
+                .executor(probes)
+                .build();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (enabled) {
+            scheduler.scheduleWithFixedDelay(this::runScheduledRound, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        scheduler.shutdownNow();
+        probes.shutdownNow();
+    }
+
+    public Optional<ProbeRound> getLastRound() {
+        return Optional.ofNullable(lastRound);
+    }
+
+    private void runScheduledRound() {
+        try {
+            ProbeRound round = runRound();
+            log.debug("Probe round: {}", round);
+        } catch (RuntimeException e) {
+            log.warn("Probe round failed", e); // keep the schedule alive
+        }
+    }
+
+    // Probe the whole fleet once and apply the resulting transitions
+    public ProbeRound runRound() {
+        long start = System.currentTimeMillis();
+        Queue<ProbeResult> results = new ConcurrentLinkedQueue<>();
+        List<CompletableFuture<Void>> running = new ArrayList<>();
+        // Probed instances and their status when the round started
+        Map<Long, InstanceStatus> probed = new HashMap<>();
+        for (Target target : targets()) {
+            probed.put(target.id(), target.status());
+            running.add(CompletableFuture.runAsync(() -> results.add(probeWithJitter(target)), probes));
+        }
+        CompletableFuture.allOf(running.toArray(CompletableFuture[]::new)).join();
+        failures.keySet().retainAll(probed.keySet()); // forget deleted, stopped and deploying instances
+
+        List<Long> down = new ArrayList<>();
+        List<Long> up = new ArrayList<>();
+        int upCount = 0;
+        for (ProbeResult result : results) {
+            if (result.up()) {
+                upCount++;
+                // Probe latency doubles as the response time series
+                metrics.record(result.instanceId(), MetricType.RESPONSE_TIME_MS, start, result.latencyMs());
+                failures.remove(result.instanceId());
+                if (probed.get(result.instanceId()) == FAILED) {
+                    up.add(result.instanceId());
+                }
+            } else if (probed.get(result.instanceId()) == RUNNING
+                    && failures.merge(result.instanceId(), 1, Integer::sum) >= failureThreshold) {
+                down.add(result.instanceId());
+            }
+        }
+        // Only Running instances can fail and only Failed ones recover; the compare-and-set UPDATE
+        // still skips rows that left that state since the round started
+        int markedFailed = transitionInBatches(down, RUNNING, FAILED);
+        int recovered = transitionInBatches(up, FAILED, RUNNING);
+
+        ProbeRound round = new ProbeRound(results.size(), upCount, results.size() - upCount, markedFailed,
+                recovered, System.currentTimeMillis() - start);
+        lastRound = round;
+        return round;
+    }
+
+    // Check one address ("host" or "host:port") without touching any status
+    public ProbeResult probe(Long instanceId, String address) {
+        long start = System.nanoTime();
+        try {
+            int colon = address.lastIndexOf(':');
+            boolean hasPort = colon > 0 && address.indexOf(':') == colon;
+            String host = hasPort ? address.substring(0, colon) : address;
+            int port = hasPort ? Integer.parseInt(address.substring(colon + 1)) : defaultPort;
+            if (mode == ProbeMode.TCP) {
+                try (Socket socket = new Socket()) {
+                    socket.connect(new InetSocketAddress(host, port), timeoutMs);
+                }
+            } else {
+                HttpRequest request = HttpRequest.newBuilder(URI.create("http://" + host + ":" + port + httpPath))
+                        .timeout(Duration.ofMillis(timeoutMs))
+                        .GET()
+                        .build();
+                int code = httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                if (code >= 500) {
+                    return ProbeResult.down(instanceId, elapsedMs(start), "HTTP " + code);
+                }
+            }
+            return ProbeResult.up(instanceId, elapsedMs(start));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return ProbeResult.down(instanceId, elapsedMs(start), "interrupted");
+        } catch (Exception e) {
+            return ProbeResult.down(instanceId, elapsedMs(start), e.getClass().getSimpleName() + ": " + e.getMessage());
+        }
+    }
+
+    private ProbeResult probeWithJitter(Target target) {
+        try {
+            if (jitterMs > 0) {
+                Thread.sleep(ThreadLocalRandom.current().nextLong(jitterMs + 1));
+            }
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return ProbeResult.down(target.id(), 0, "interrupted");
+        }
+        try {
+            return probe(target.id(), target.address());
+        } finally {
+            permits.release();
+        }
+    }
+
+    private int transitionInBatches(List<Long> ids, InstanceStatus from, InstanceStatus to) {
+        int changed = 0;
+        for (int i = 0; i < ids.size(); i += TRANSITION_BATCH_SIZE) {
+            List<Long> batch = ids.subList(i, Math.min(ids.size(), i + TRANSITION_BATCH_SIZE));
+            changed += statusWriter.transitionAll(batch, EnumSet.of(from), to, StatusChange.PROBE, "probe").size();
+        }
+        return changed;
+    }
+
+    // Running and Failed instances with an address: from the cache when it holds the fleet, else in keyset pages
+    private List<Target> targets() {
+        List<Target> targets = new ArrayList<>();
+        Optional<List<InstanceSnapshot>> cached = cache.all();
+        if (cached.isPresent()) {
+            for (InstanceSnapshot snapshot : cached.get()) {
+                addTarget(targets, snapshot.id(), snapshot.status(), snapshot.ipAddress());
+            }
+            return targets;
+        }
+        Long afterId = null;
+        List<TomcatInstanceEntity> page;
+        do {
+            page = repository.findPageAfter(TomcatInstanceSpecifications.matching(null, null), afterId,
+                    TARGET_PAGE_SIZE);
+            for (TomcatInstanceEntity entity : page) {
+                addTarget(targets, entity.getId(), entity.getStatus(), entity.getIpAddress());
+                afterId = entity.getId();
+            }
+        } while (page.size() == TARGET_PAGE_SIZE);
+        return targets;
+    }
+
+    private void addTarget(List<Target> targets, Long id, InstanceStatus status, String address) {
+        if (PROBED.contains(status) && address != null && !address.isBlank()) {
+            targets.add(new Target(id, status, address.trim()));
+        }
+    }
+
+    private static long elapsedMs(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1_000_000;
+    }
+
+    private record Target(Long id, InstanceStatus status, String address) {
+    }
+}
@@ -0,0 +1,9 @@
+package com.bludots.probes;
+
+/**
+ * How an instance is checked: a TCP connect, or an HTTP GET that must not answer 5xx.
+ */
+public enum ProbeMode {
+    TCP,
+    HTTP
+}
@@ -0,0 +1,15 @@
+package com.bludots.probes;
+
+/**
+ * Outcome of one health probe. error is null when the instance answered.
+ */
+public record ProbeResult(Long instanceId, boolean up, long latencyMs, String error) {
+
+    public static ProbeResult up(Long instanceId, long latencyMs) {
+        return new ProbeResult(instanceId, true, latencyMs, null);
+    }
+
+    public static ProbeResult down(Long instanceId, long latencyMs, String error) {
+        return new ProbeResult(instanceId, false, latencyMs, error);
+    }
+}
@@ -0,0 +1,7 @@
+package com.bludots.probes;
+
+/**
+ * Summary of one probe round over the fleet.
+ */
+public record ProbeRound(int probed, int up, int down, int markedFailed, int recovered, long durationMs) {
+}
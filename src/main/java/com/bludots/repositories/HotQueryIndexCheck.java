@@ -0,0 +1,105 @@
+package com.bludots.repositories;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Refuses to start when a hot query has no index whose leading columns match it, e.g.
+ * after a migration or a hand-made schema dropped one. Runs once, after the schema is in
+ * place (Flyway or ddl-auto), from the JDBC metadata, so it works on H2 and PostgreSQL.
+ */
+@Component
+@DependsOn("entityManagerFactory")
+public class HotQueryIndexCheck {
+
+    private static final Logger log = LoggerFactory.getLogger(HotQueryIndexCheck.class);
+
+    // Hot queries and the leading index columns they need
+    private static final List<RequiredIndex> REQUIRED = List.of(
+            new RequiredIndex("tomcat_instance", List.of("name"), "instance grid sorted by name"),
+            new RequiredIndex("tomcat_instance", List.of("status"), "status filters and CAS transitions"),
+            new RequiredIndex("tomcat_instance", List.of("ip_address"), "log sender lookup"),
+            new RequiredIndex("tomcat_instance", List.of("status", "last_status_change", "id"), "stuck deployments"),
+            new RequiredIndex("status_change", List.of("instance_id", "changed_at"), "history of one instance"),
+            new RequiredIndex("status_change", List.of("changed_at"), "fleet history by time range"),
+            new RequiredIndex("change_feed", List.of("seq"), "change feed polling by cursor"),
+            new RequiredIndex("change_feed", List.of("changed_at"), "change feed pruning"));
+
+    private final DataSource dataSource;
+    private final boolean enabled;
+
+    public HotQueryIndexCheck(DataSource dataSource,
+                              @Value("${central-manager.persistence.index-check:true}") boolean enabled) {
+        this.dataSource = dataSource;
+        this.enabled = enabled;
+    }
+
+    @PostConstruct
+    void check() throws SQLException {
+        if (!enabled) {
+            return;
+        }
+        List<String> missing = new ArrayList<>();
+        try (Connection connection = dataSource.getConnection()) {
+            DatabaseMetaData metadata = connection.getMetaData();
+            for (RequiredIndex required : REQUIRED) {
+                if (!hasIndex(metadata, required)) {
+                    missing.add(required.table() + " " + required.columns() + " (" + required.query() + ")");
+                }
+            }
+        }
+        if (!missing.isEmpty()) {
+            throw new IllegalStateException("Unindexed hot queries, add the indexes or disable"
+                    + " central-manager.persistence.index-check: " + String.join(", ", missing));
+        }
+        log.info("Index check passed for {} hot queries", REQUIRED.size());
+    }
+
+    private boolean hasIndex(DatabaseMetaData metadata, RequiredIndex required) throws SQLException {
+        String table = metadata.storesUpperCaseIdentifiers() ? required.table().toUpperCase() : required.table();
+        // index name -> columns by position
+        Map<String, Map<Integer, String>> indexes = new TreeMap<>();
+        try (ResultSet rs = metadata.getIndexInfo(null, null, table, false, false)) {
+            while (rs.next()) {
+                String index = rs.getString("INDEX_NAME");
+                String column = rs.getString("COLUMN_NAME");
+                if (index != null && column != null) {
+                    indexes.computeIfAbsent(index, k -> new TreeMap<>()).put(rs.getInt("ORDINAL_POSITION"), column);
+                }
+            }
+        }
+        for (Map<Integer, String> columns : indexes.values()) {
+            List<String> leading = new ArrayList<>(columns.values());
+            if (leading.size() >= required.columns().size() && matches(leading, required.columns())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean matches(List<String> leading, List<String> wanted) {
+        for (int i = 0; i < wanted.size(); i++) {
+            if (!leading.get(i).equalsIgnoreCase(wanted.get(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private record RequiredIndex(String table, List<String> columns, String query) {
+    }
+}
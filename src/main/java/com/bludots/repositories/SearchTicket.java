@@ -0,0 +1,36 @@
+package com.bludots.repositories;
+
+/**
+ * Handle on one search query that another thread can cancel: a query not started yet is
+ * skipped, a running one has its JDBC statement cancelled.
+ */
+public final class SearchTicket {
+
+    // Guarded by this
+    private boolean cancelled;
+    private Runnable canceller;
+
+    public synchronized boolean isCancelled() {
+        return cancelled;
+    }
+
+    // Runs the canceller under the lock, so the statement cannot complete and close meanwhile
+    public synchronized void cancel() {
+        if (cancelled) {
+            return;
+        }
+        cancelled = true;
+        if (canceller != null) {
+            canceller.run();
+        }
+    }
+
+    // Set by the repository while the statement runs
+    synchronized void running(Runnable canceller) {
+        this.canceller = canceller;
+    }
+
+    synchronized void done() {
+        canceller = null;
+    }
+}
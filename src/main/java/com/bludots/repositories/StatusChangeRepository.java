@@ -0,0 +1,49 @@
+package com.bludots.repositories;
+
+import com.bludots.entities.StatusChangeEntity;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface StatusChangeRepository extends JpaRepository<StatusChangeEntity, Long> {
+
+    // History of one instance in a time range, newest first (index on instance_id, changed_at)
+    List<StatusChangeEntity> findByInstanceIdAndChangedAtBetweenOrderByChangedAtDescIdDesc(
+            Long instanceId, LocalDateTime from, LocalDateTime to, Pageable pageable);
+
+    long countByInstanceIdAndChangedAtBetween(Long instanceId, LocalDateTime from, LocalDateTime to);
+
+    // Fleet-wide history in a time range, newest first (index on changed_at)
+    List<StatusChangeEntity> findByChangedAtBetweenOrderByChangedAtDescIdDesc(
+            LocalDateTime from, LocalDateTime to, Pageable pageable);
+
+    long countByChangedAtBetween(LocalDateTime from, LocalDateTime to);
+
+    // Keyset pages of the two queries above: the entries older than the (beforeChangedAt, beforeId) entry
+    @Query("""
+            select c from StatusChangeEntity c
+            where c.instanceId = :instanceId and c.changedAt >= :from
+              and (c.changedAt < :beforeChangedAt or (c.changedAt = :beforeChangedAt and c.id < :beforeId))
+            order by c.changedAt desc, c.id desc
+            """)
+    List<StatusChangeEntity> findByInstanceIdBefore(@Param("instanceId") Long instanceId,
+                                                    @Param("from") LocalDateTime from,
+                                                    @Param("beforeChangedAt") LocalDateTime beforeChangedAt,
+                                                    @Param("beforeId") Long beforeId, Pageable pageable);
+
+    @Query("""
+            select c from StatusChangeEntity c
+            where c.changedAt >= :from
+              and (c.changedAt < :beforeChangedAt or (c.changedAt = :beforeChangedAt and c.id < :beforeId))
+            order by c.changedAt desc, c.id desc
+            """)
+    List<StatusChangeEntity> findBefore(@Param("from") LocalDateTime from,
+                                        @Param("beforeChangedAt") LocalDateTime beforeChangedAt,
+                                        @Param("beforeId") Long beforeId, Pageable pageable);
+}
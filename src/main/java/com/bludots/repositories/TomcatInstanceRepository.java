@@ -1,21 +1,98 @@
 package com.bludots.repositories;
 
+import com.bludots.entities.InstanceStatus;
 import com.bludots.entities.TomcatInstanceEntity;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface TomcatInstanceRepository extends JpaRepository<TomcatInstanceEntity, Long> {
-
-    // Find all by status
-    List<TomcatInstanceEntity> findByStatusIgnoreCase(String status);
-
-    // Case-insensitive search by name OR status
-    List<TomcatInstanceEntity> findByNameContainingIgnoreCaseOrStatusContainingIgnoreCase(String name, String status);
+public interface TomcatInstanceRepository extends JpaRepository<TomcatInstanceEntity, Long>,
+        JpaSpecificationExecutor<TomcatInstanceEntity>, TomcatInstanceSearchRepository {
 
     // For future: Search by client name only
     List<TomcatInstanceEntity> findByNameContainingIgnoreCase(String name);
 
+    // Ids only, e.g. to fan out over the whole fleet without loading rows
+    @Query("select i.id from TomcatInstanceEntity i order by i.id")
+    List<Long> findAllIds();
+
+    // Compare-and-set status transition: one atomic UPDATE, 0 rows when the instance is not in the "from" state
+    @Modifying
+    @Transactional
+    @Query("""
+            update TomcatInstanceEntity i
+            set i.status = :to, i.lastStatusChange = :now, i.version = i.version + 1
+            where i.id = :id and i.status = :from
+            """)
+    int transition(@Param("id") Long id, @Param("from") InstanceStatus from,
+                   @Param("to") InstanceStatus to, @Param("now") LocalDateTime now);
+
+    // Same transition for many instances in one statement
+    @Modifying
+    @Query("""
+            update TomcatInstanceEntity i
+            set i.status = :to, i.lastStatusChange = :now, i.version = i.version + 1
+            where i.id in :ids and i.status = :from
+            """)
+    int transitionAll(@Param("ids") Collection<Long> ids, @Param("from") InstanceStatus from,
+                      @Param("to") InstanceStatus to, @Param("now") LocalDateTime now);
+
+    // [id, status code] of the instances in one of the from states, their rows locked until commit
+    // (SELECT ... FOR UPDATE), so a transitionAll knows each instance's source state up front
+    @Query(value = """
+            select id, status from tomcat_instance
+            where id in (:ids) and status in (:from)
+            order by id
+            for update
+            """, nativeQuery = true)
+    List<Object[]> lockStatuses(@Param("ids") Collection<Long> ids, @Param("from") Collection<Short> fromCodes);
+
+    // One instance with its row locked until commit, for edits that read and write in one transaction
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select i from TomcatInstanceEntity i where i.id = :id")
+    Optional<TomcatInstanceEntity> findByIdForUpdate(@Param("id") Long id);
+
+    // Instances with this address, e.g. to attribute incoming log lines to their sender
+    @Query("select i.id from TomcatInstanceEntity i where i.ipAddress = :ip order by i.id")
+    List<Long> findIdsByIpAddress(@Param("ip") String ipAddress);
+
+    // Instances in a status since before the cutoff, longest first, as [id, lastStatusChange] rows: a range
+    // scan of the (status, last_status_change, id) index, so the cost follows the matches, not the fleet
+    @Query("""
+            select i.id, i.lastStatusChange from TomcatInstanceEntity i
+            where i.status = :status and i.lastStatusChange < :before
+            order by i.lastStatusChange, i.id
+            """)
+    List<Object[]> findInStatusSince(@Param("status") InstanceStatus status, @Param("before") LocalDateTime before,
+                                     Pageable page);
+
+    // Keyset page: the findInStatusSince rows after the (afterChange, afterId) row
+    @Query("""
+            select i.id, i.lastStatusChange from TomcatInstanceEntity i
+            where i.status = :status and i.lastStatusChange < :before
+              and (i.lastStatusChange > :afterChange or (i.lastStatusChange = :afterChange and i.id > :afterId))
+            order by i.lastStatusChange, i.id
+            """)
+    List<Object[]> findInStatusSinceAfter(@Param("status") InstanceStatus status,
+                                          @Param("before") LocalDateTime before,
+                                          @Param("afterChange") LocalDateTime afterChange,
+                                          @Param("afterId") Long afterId, Pageable page);
+
+    // [status, count] per status; only used to initialize the in-memory counters
+    @Query("select i.status, count(i) from TomcatInstanceEntity i group by i.status")
+    List<Object[]> countByStatus();
+
 }
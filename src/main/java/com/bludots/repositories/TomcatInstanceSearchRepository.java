@@ -0,0 +1,22 @@
+package com.bludots.repositories;
+
+import com.bludots.entities.TomcatInstanceEntity;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+/**
+ * Paged specification queries without the extra count query of {@code Page}.
+ */
+public interface TomcatInstanceSearchRepository {
+
+    // Offset page (any sort)
+    List<TomcatInstanceEntity> findPage(Specification<TomcatInstanceEntity> spec, Pageable pageable);
+
+    // Keyset page: next rows after afterId ordered by id
+    List<TomcatInstanceEntity> findPageAfter(Specification<TomcatInstanceEntity> spec, Long afterId, int limit);
+
+    // Count that the ticket can cancel from another thread; runs in the caller's transaction
+    long countCancellable(Specification<TomcatInstanceEntity> spec, SearchTicket ticket);
+}
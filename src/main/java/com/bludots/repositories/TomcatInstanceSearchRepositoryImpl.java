@@ -0,0 +1,79 @@
+package com.bludots.repositories;
+
+import com.bludots.entities.TomcatInstanceEntity;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import java.util.List;
+
+class TomcatInstanceSearchRepositoryImpl implements TomcatInstanceSearchRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // A search that runs longer than this is aborted by the database instead of piling up
+    @Value("${central-manager.search.query-timeout-ms:5000}")
+    private int queryTimeoutMs;
+
+    @Override
+    public List<TomcatInstanceEntity> findPage(Specification<TomcatInstanceEntity> spec, Pageable pageable) {
+        return select(spec, pageable.getSort(), (int) pageable.getOffset(), pageable.getPageSize());
+    }
+
+    @Override
+    public List<TomcatInstanceEntity> findPageAfter(Specification<TomcatInstanceEntity> spec, Long afterId,
+                                                    int limit) {
+        return select(spec.and(TomcatInstanceSpecifications.idAfter(afterId)), Sort.by("id"), 0, limit);
+    }
+
+    @Override
+    public long countCancellable(Specification<TomcatInstanceEntity> spec, SearchTicket ticket) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<TomcatInstanceEntity> root = query.from(TomcatInstanceEntity.class);
+        query.select(cb.count(root));
+        Predicate predicate = spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+
+        Session session = entityManager.unwrap(Session.class);
+        ticket.running(session::cancelQuery);
+        try {
+            return entityManager.createQuery(query)
+                    .setHint("jakarta.persistence.query.timeout", queryTimeoutMs)
+                    .getSingleResult();
+        } finally {
+            ticket.done();
+        }
+    }
+
+    private List<TomcatInstanceEntity> select(Specification<TomcatInstanceEntity> spec, Sort sort,
+                                              int offset, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<TomcatInstanceEntity> query = cb.createQuery(TomcatInstanceEntity.class);
+        Root<TomcatInstanceEntity> root = query.from(TomcatInstanceEntity.class);
+
+        Predicate predicate = spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(QueryUtils.toOrders(sort.isSorted() ? sort : Sort.by("id"), root, cb));
+
+        return entityManager.createQuery(query)
+                .setFirstResult(offset)
+                .setMaxResults(limit)
+                .setHint("jakarta.persistence.query.timeout", queryTimeoutMs)
+                .getResultList();
+    }
+}
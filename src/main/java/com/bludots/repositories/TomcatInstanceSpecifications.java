@@ -0,0 +1,55 @@
+package com.bludots.repositories;
+
+import com.bludots.entities.InstanceStatus;
+import com.bludots.entities.TomcatInstanceEntity;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Search filters for the instance table, combined into a single query.
+ * Status is compared by its smallint code (indexed). The keyword is a contains match on the
+ * pre-lowered {@code name_lower} column, so no lower() per row; no B-tree index can serve a
+ * leading wildcard, so keyword searches scan and are counted in the background, latest wins.
+ */
+public final class TomcatInstanceSpecifications {
+
+    private TomcatInstanceSpecifications() {}
+
+    // Keyword (name or status, case-insensitive) and status ("All"/null = any) in one predicate
+    public static Specification<TomcatInstanceEntity> matching(String keyword, String status) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+
+            if (status != null && !status.equalsIgnoreCase("All")) {
+                predicates.add(InstanceStatus.find(status)
+                        .map(s -> cb.equal(root.get("status"), s))
+                        .orElseGet(cb::disjunction));
+            }
+
+            if (keyword != null && !keyword.isBlank()) {
+                String needle = keyword.trim().toLowerCase();
+                Predicate byName = cb.like(root.get("nameLower"), "%" + escape(needle) + "%", '\\');
+                // Statuses are a small closed set: resolve the keyword to codes in Java and use IN
+                List<InstanceStatus> statuses = Arrays.stream(InstanceStatus.values())
+                        .filter(s -> s.label().toLowerCase().contains(needle))
+                        .toList();
+                predicates.add(statuses.isEmpty() ? byName : cb.or(byName, root.get("status").in(statuses)));
+            }
+
+            return cb.and(predicates.toArray(Predicate[]::new));
+        };
+    }
+
+    // Rows after the given id (keyset pagination)
+    public static Specification<TomcatInstanceEntity> idAfter(Long afterId) {
+        return (root, query, cb) -> afterId == null ? null : cb.greaterThan(root.get("id"), afterId);
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -0,0 +1,381 @@
+package com.bludots.search;
+
+import com.bludots.entities.TomcatInstanceEntity;
+import com.bludots.repositories.TomcatInstanceRepository;
+import com.bludots.repositories.TomcatInstanceSpecifications;
+import com.bludots.util.IntList;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory n-gram index over instance names and IP addresses, for typeahead lookups.
+ * <p>
+ * Every indexed instance occupies a dense int slot. Postings are ascending slot lists
+ * ({@link IntList}), one per trigram of the lower-cased name and IP. Queries shorter than
+ * three characters use word-prefix grams (first one or two characters of each word or IP
+ * octet). Re-indexing an instance tombstones its old slot and appends a new one. The
+ * arrays are compacted once half of the slots are dead.
+ * <p>
+ * Memory per instance: one {@code long} id, two lower-cased strings, one map entry and
+ * roughly {@code name.length() + ip.length()} postings entries of 4 bytes each.
+ */
+@Component
+public class InstanceSearchIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(InstanceSearchIndex.class);
+    private static final int WARM_UP_PAGE_SIZE = 5000;
+    private static final int MIN_COMPACT_DEAD = 1024;
+    // Gram keys: up to three 16-bit chars; bit 62 marks word-prefix grams, bits 48-49 their length
+    private static final long PREFIX_FLAG = 1L << 62;
+
+    // Ranking: best match kind wins, then the shorter name, then the older instance
+    private static final int SCORE_EXACT = 1000;
+    private static final int SCORE_IP_EXACT = 900;
+    private static final int SCORE_PREFIX = 800;
+    private static final int SCORE_IP_PREFIX = 700;
+    private static final int SCORE_WORD_PREFIX = 600;
+    private static final int SCORE_SUBSTRING = 400;
+    private static final int SCORE_IP_SUBSTRING = 300;
+
+    private final TomcatInstanceRepository repository;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private long[] ids = new long[1024];
+    private String[] names = new String[1024];
+    private String[] ips = new String[1024];
+    private int slotCount;
+    private final BitSet dead = new BitSet();
+    private int deadCount;
+    private final Map<Long, Integer> slotById = new HashMap<>();
+    private final Map<Long, IntList> postings = new HashMap<>();
+
+    private volatile boolean ready;
+
+    public InstanceSearchIndex(TomcatInstanceRepository repository) {
+        this.repository = repository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        long start = System.nanoTime();
+        Long afterId = null;
+        List<TomcatInstanceEntity> page;
+        do {
+            page = repository.findPageAfter(TomcatInstanceSpecifications.matching(null, null), afterId,
+                    WARM_UP_PAGE_SIZE);
+            lock.writeLock().lock();
+            try {
+                for (TomcatInstanceEntity entity : page) {
+                    // Instances saved while warming up are already indexed with newer data
+                    if (!slotById.containsKey(entity.getId())) {
+                        append(entity.getId(), entity.getName(), entity.getIpAddress());
+                    }
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+            if (!page.isEmpty()) {
+                afterId = page.get(page.size() - 1).getId();
+            }
+        } while (page.size() == WARM_UP_PAGE_SIZE);
+        ready = true;
+        log.info("Search index built for {} instances ({} grams) in {} ms", slotById.size(), postings.size(),
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return slotById.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Index a saved instance; only re-indexes when name or IP changed
+    public void put(TomcatInstanceEntity entity) {
+        String name = lower(entity.getName());
+        String ip = lower(entity.getIpAddress());
+        lock.writeLock().lock();
+        try {
+            Integer slot = slotById.get(entity.getId());
+            if (slot != null) {
+                if (names[slot].equals(name) && ips[slot].equals(ip)) {
+                    return;
+                }
+                kill(slot);
+            }
+            append(entity.getId(), entity.getName(), entity.getIpAddress());
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            Integer slot = slotById.remove(id);
+            if (slot != null) {
+                kill(slot);
+                compactIfNeeded();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Ids of the best matches for a name or IP fragment (case-insensitive), best first
+    public List<Long> search(String query, int limit) {
+        String needle = query == null ? "" : query.trim().toLowerCase();
+        if (needle.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            IntList[] lists = postingsFor(needle);
+            if (lists == null) {
+                return List.of();
+            }
+            int shortest = 0;
+            for (int i = 1; i < lists.length; i++) {
+                if (lists[i].size() < lists[shortest].size()) {
+                    shortest = i;
+                }
+            }
+
+            TopHits top = new TopHits(limit);
+            IntList driver = lists[shortest];
+            for (int p = 0; p < driver.size(); p++) {
+                int slot = driver.get(p);
+                if (dead.get(slot) || !containsAll(lists, slot)) {
+                    continue;
+                }
+                int score = score(slot, needle); // grams can match without the whole needle
+                if (score > 0) {
+                    top.offer(slot, score, names[slot].length());
+                }
+            }
+            return top.ids();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Postings to intersect for the needle, null when one gram is unknown (no match possible)
+    private IntList[] postingsFor(String needle) {
+        if (needle.length() < 3) {
+            IntList list = postings.get(prefixKey(needle, 0, needle.length()));
+            return list == null ? null : new IntList[] {list};
+        }
+        List<IntList> lists = new ArrayList<>();
+        for (int i = 0; i + 3 <= needle.length(); i++) {
+            IntList list = postings.get(trigramKey(needle, i));
+            if (list == null) {
+                return null;
+            }
+            if (!lists.contains(list)) {
+                lists.add(list);
+            }
+        }
+        return lists.toArray(IntList[]::new);
+    }
+
+    private int score(int slot, String needle) {
+        String name = names[slot];
+        String ip = ips[slot];
+        int score = 0;
+        if (name.equals(needle)) {
+            score = SCORE_EXACT;
+        } else if (name.startsWith(needle)) {
+            score = SCORE_PREFIX;
+        } else if (isWordPrefix(name, needle)) {
+            score = SCORE_WORD_PREFIX;
+        } else if (name.contains(needle)) {
+            score = SCORE_SUBSTRING;
+        }
+        if (ip.equals(needle)) {
+            score = Math.max(score, SCORE_IP_EXACT);
+        } else if (ip.startsWith(needle)) {
+            score = Math.max(score, SCORE_IP_PREFIX);
+        } else if (ip.contains(needle)) {
+            score = Math.max(score, SCORE_IP_SUBSTRING);
+        }
+        return score;
+    }
+
+    private boolean isWordPrefix(String text, String needle) {
+        for (int at = text.indexOf(needle); at >= 0; at = text.indexOf(needle, at + 1)) {
+            if (at == 0 || !Character.isLetterOrDigit(text.charAt(at - 1))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean containsAll(IntList[] lists, int slot) {
+        for (IntList list : lists) {
+            int index = list.lowerBound(slot);
+            if (index == list.size() || list.get(index) != slot) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void append(Long id, String rawName, String rawIp) {
+        String name = lower(rawName);
+        String ip = lower(rawIp);
+        int slot = slotCount;
+        if (slot == ids.length) {
+            int capacity = slot * 2;
+            ids = Arrays.copyOf(ids, capacity);
+            names = Arrays.copyOf(names, capacity);
+            ips = Arrays.copyOf(ips, capacity);
+        }
+        ids[slot] = id;
+        names[slot] = name;
+        ips[slot] = ip;
+        slotCount++;
+        slotById.put(id, slot);
+        indexText(name, slot);
+        indexText(ip, slot);
+    }
+
+    private void indexText(String text, int slot) {
+        for (int i = 0; i + 3 <= text.length(); i++) {
+            addPosting(trigramKey(text, i), slot);
+        }
+        for (int i = 0; i < text.length(); i++) {
+            boolean wordStart = Character.isLetterOrDigit(text.charAt(i))
+                    && (i == 0 || !Character.isLetterOrDigit(text.charAt(i - 1)));
+            if (wordStart) {
+                addPosting(prefixKey(text, i, 1), slot);
+                if (i + 1 < text.length()) {
+                    addPosting(prefixKey(text, i, 2), slot);
+                }
+            }
+        }
+    }
+
+    // Slots are appended in increasing order, so postings stay sorted without a sort
+    private void addPosting(long key, int slot) {
+        IntList list = postings.computeIfAbsent(key, k -> new IntList());
+        if (list.isEmpty() || list.last() != slot) {
+            list.add(slot);
+        }
+    }
+
+    private void kill(int slot) {
+        dead.set(slot);
+        deadCount++;
+    }
+
+    // Rebuild from the live slots once they are outnumbered by dead ones
+    private void compactIfNeeded() {
+        if (deadCount < MIN_COMPACT_DEAD || deadCount * 2 < slotCount) {
+            return;
+        }
+        long[] oldIds = ids;
+        String[] oldNames = names;
+        String[] oldIps = ips;
+        int oldCount = slotCount;
+        int capacity = Math.max(1024, Integer.highestOneBit(Math.max(1, oldCount - deadCount)) * 2);
+        ids = new long[capacity];
+        names = new String[capacity];
+        ips = new String[capacity];
+        slotCount = 0;
+        postings.clear();
+        slotById.clear();
+        BitSet oldDead = (BitSet) dead.clone();
+        dead.clear();
+        deadCount = 0;
+        for (int slot = 0; slot < oldCount; slot++) {
+            if (!oldDead.get(slot)) {
+                append(oldIds[slot], oldNames[slot], oldIps[slot]);
+            }
+        }
+        postings.values().forEach(IntList::trimToSize);
+    }
+
+    private static long trigramKey(String text, int at) {
+        return ((long) text.charAt(at) << 32) | ((long) text.charAt(at + 1) << 16) | text.charAt(at + 2);
+    }
+
+    private static long prefixKey(String text, int at, int length) {
+        long key = PREFIX_FLAG | ((long) length << 48);
+        for (int i = 0; i < length; i++) {
+            key |= (long) text.charAt(at + i) << (16 * (2 - i));
+        }
+        return key;
+    }
+
+    private static String lower(String value) {
+        return value == null ? "" : value.toLowerCase();
+    }
+
+    // Bounded best-k selection over parallel primitive arrays, kept sorted best first
+    private final class TopHits {
+
+        private final int[] slots;
+        private final int[] scores;
+        private final int[] lengths;
+        private int size;
+
+        private TopHits(int limit) {
+            slots = new int[limit];
+            scores = new int[limit];
+            lengths = new int[limit];
+        }
+
+        private void offer(int slot, int score, int length) {
+            if (size == slots.length && !better(score, length, slot, size - 1)) {
+                return;
+            }
+            int at = Math.min(size, slots.length - 1);
+            while (at > 0 && better(score, length, slot, at - 1)) {
+                slots[at] = slots[at - 1];
+                scores[at] = scores[at - 1];
+                lengths[at] = lengths[at - 1];
+                at--;
+            }
+            slots[at] = slot;
+            scores[at] = score;
+            lengths[at] = length;
+            size = Math.min(size + 1, slots.length);
+        }
+
+        private boolean better(int score, int length, int slot, int index) {
+            if (score != scores[index]) {
+                return score > scores[index];
+            }
+            if (length != lengths[index]) {
+                return length < lengths[index];
+            }
+            return slot < slots[index];
+        }
+
+        private List<Long> ids() {
+            List<Long> result = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                result.add(ids[slots[i]]);
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.bludots.seed;
+
+import com.bludots.entities.InstanceStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static com.bludots.entities.InstanceStatus.DEPLOYING;
+import static com.bludots.entities.InstanceStatus.FAILED;
+import static com.bludots.entities.InstanceStatus.RUNNING;
+import static com.bludots.entities.InstanceStatus.STOPPED;
+
+/**
+ * Bulk-loads a synthetic fleet with JDBC batch inserts (no entities, no cache or event
+ * traffic). Names are company + suffix + environment, about 80% of instances are Running,
+ * and addresses cluster in a few private subnets the way real estates do.
+ * The same seed always produces the same fleet.
+ */
+@Component
+public class FleetGenerator {
+
+    private static final Logger log = LoggerFactory.getLogger(FleetGenerator.class);
+
+    private static final String[] COMPANIES = {
+            "Acme", "Globex", "Initech", "Umbrella", "Hooli", "Vandelay", "Stark", "Wayne", "Wonka", "Tyrell",
+            "Cyberdyne", "Soylent", "Massive Dynamic", "Oscorp", "Aperture", "Monarch", "Gringotts", "Dunder Mifflin"
+    };
+    private static final String[] SUFFIXES = {"Corp", "BV", "GmbH", "Ltd", "Inc", "Group", "Labs"};
+    private static final String[] ENVIRONMENTS = {"prod", "prod", "prod", "staging", "test", "dev"};
+    // Cumulative status weights: 80% Running, 12% Stopped, 5% Deploying, 3% Failed
+    private static final InstanceStatus[] STATUSES = {RUNNING, STOPPED, DEPLOYING, FAILED};
+    private static final int[] STATUS_WEIGHTS = {80, 92, 97, 100};
+    private static final String[] SUBNETS = {"10.0", "10.1", "10.20", "172.16", "172.17", "192.168"};
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int batchSize;
+
+    public FleetGenerator(JdbcTemplate jdbcTemplate,
+                          @Value("${central-manager.seed.batch-size:1000}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.batchSize = batchSize;
+    }
+
+    // Inserts count instances; returns the number of rows written
+    public int generate(int count, long seed) {
+        long start = System.currentTimeMillis();
+        Random random = new Random(seed);
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> batch = new ArrayList<>(batchSize);
+        int written = 0;
+        for (int i = 0; i < count; i++) {
+            String name = COMPANIES[random.nextInt(COMPANIES.length)] + " " + SUFFIXES[random.nextInt(SUFFIXES.length)]
+                    + " " + ENVIRONMENTS[random.nextInt(ENVIRONMENTS.length)] + "-" + (i + 1);
+            String ip = SUBNETS[random.nextInt(SUBNETS.length)] + "." + random.nextInt(256) + "." + (1 + random.nextInt(254));
+            Timestamp changed = Timestamp.valueOf(now.minusMinutes(random.nextInt(30 * 24 * 60)));
+            batch.add(new Object[] {name, name.toLowerCase(), status(random).code(), ip, changed});
+            if (batch.size() == batchSize) {
+                written += insert(batch);
+            }
+        }
+        written += insert(batch);
+        log.info("Generated {} synthetic instances in {} ms", written, System.currentTimeMillis() - start);
+        return written;
+    }
+
+    private int insert(List<Object[]> batch) {
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        jdbcTemplate.batchUpdate("insert into tomcat_instance (name, name_lower, status, ip_address,"
+                + " last_status_change, version) values (?, ?, ?, ?, ?, 0)", batch);
+        int size = batch.size();
+        batch.clear();
+        return size;
+    }
+
+    private static InstanceStatus status(Random random) {
+        int roll = random.nextInt(100);
+        for (int i = 0; i < STATUS_WEIGHTS.length; i++) {
+            if (roll < STATUS_WEIGHTS[i]) {
+                return STATUSES[i];
+            }
+        }
+        return STATUSES[0];
+    }
+}
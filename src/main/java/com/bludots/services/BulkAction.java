@@ -0,0 +1,5 @@
+package com.bludots.services;
+
+public enum BulkAction {
+    START, STOP, REDEPLOY
+}
@@ -0,0 +1,170 @@
+package com.bludots.services;
+
+import com.bludots.entities.InstanceStatus;
+import com.bludots.history.StatusChange;
+import com.bludots.lifecycle.LifecycleExecutor;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import static com.bludots.entities.InstanceStatus.DEPLOYING;
+import static com.bludots.entities.InstanceStatus.FAILED;
+import static com.bludots.entities.InstanceStatus.RUNNING;
+import static com.bludots.entities.InstanceStatus.STOPPED;
+
+/**
+ * Fans a start/stop/redeploy out over many instances. At most {@code concurrency}
+ * deployments run at once; status changes are written in batches, and progress is
+ * reported as one throttled, aggregated stream.
+ */
+@Service
+public class BulkOperationService {
+
+    private static final long PROGRESS_INTERVAL_MS = 250;
+
+    private final InstanceStatusWriter statusWriter;
+    private final LifecycleExecutor lifecycle;
+    private final ExecutorService coordinator = Executors.newVirtualThreadPerTaskExecutor();
+    private final int concurrency;
+    private final int batchSize;
+
+    public BulkOperationService(InstanceStatusWriter statusWriter,
+                                LifecycleExecutor lifecycle,
+                                @Value("${central-manager.bulk.concurrency:64}") int concurrency,
+                                @Value("${central-manager.bulk.batch-size:500}") int batchSize) {
+        this.statusWriter = statusWriter;
+        this.lifecycle = lifecycle;
+        this.concurrency = concurrency;
+        this.batchSize = batchSize;
+    }
+
+    public CompletableFuture<BulkProgress> run(BulkAction action, List<Long> ids, long deployDurationMs,
+                                               Consumer<BulkProgress> progress) {
+        BulkRun run = new BulkRun(action, ids.size(), progress);
+        return CompletableFuture.supplyAsync(() -> run.execute(ids, deployDurationMs), coordinator);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        coordinator.shutdownNow();
+    }
+
+    private final class BulkRun {
+
+        private final BulkAction action;
+        private final String actionName;
+        private final int total;
+        private final Consumer<BulkProgress> progress;
+        private final AtomicInteger succeeded = new AtomicInteger();
+        private final AtomicInteger failed = new AtomicInteger();
+        private final AtomicInteger skipped = new AtomicInteger();
+        private final AtomicLong lastReport = new AtomicLong();
+        private final Semaphore permits = new Semaphore(concurrency);
+        // Deployed instances waiting for their batched Deploying -> Running transition
+        private final List<Long> deployed = new ArrayList<>();
+        private long lastFlush = System.currentTimeMillis();
+
+        private BulkRun(BulkAction action, int total, Consumer<BulkProgress> progress) {
+            this.action = action;
+            this.actionName = action.name().toLowerCase();
+            this.total = total;
+            this.progress = progress;
+        }
+
+        private BulkProgress execute(List<Long> ids, long deployDurationMs) {
+            List<CompletableFuture<Void>> deployments = new ArrayList<>();
+            for (int from = 0; from < ids.size(); from += batchSize) {
+                List<Long> chunk = ids.subList(from, Math.min(ids.size(), from + batchSize));
+                if (action == BulkAction.STOP) {
+                    int stopped = statusWriter.transitionAll(chunk, InstanceStatus.sourcesOf(STOPPED), STOPPED,
+                            StatusChange.BULK, actionName).size();
+                    succeeded.addAndGet(stopped);
+                    skipped.addAndGet(chunk.size() - stopped);
+                    report(false);
+                    continue;
+                }
+
+                // Only the instances that made the CAS transition get deployed; the rest are skipped
+                Set<InstanceStatus> sources = action == BulkAction.START
+                        ? EnumSet.of(STOPPED, FAILED)
+                        : InstanceStatus.sourcesOf(DEPLOYING);
+                List<Long> eligible = statusWriter.transitionAll(chunk, sources, DEPLOYING, StatusChange.BULK,
+                        actionName);
+                skipped.addAndGet(chunk.size() - eligible.size());
+
+                for (Long id : eligible) {
+                    permits.acquireUninterruptibly();
+                    deployments.add(lifecycle.submit(id, actionName, () -> {
+                        Thread.sleep(deployDurationMs);
+                        return null;
+                    }).result().handleAsync((v, error) -> {
+                        permits.release();
+                        if (error == null) {
+                            deployed(id);
+                        } else {
+                            // Cancelled while queued, timed out or failed: do not leave the instance deploying
+                            statusWriter.transition(id, EnumSet.of(DEPLOYING), STOPPED, StatusChange.BULK, actionName);
+                            failed.incrementAndGet();
+                        }
+                        report(false);
+                        return null;
+                    }, coordinator));
+                }
+            }
+
+            CompletableFuture.allOf(deployments.toArray(CompletableFuture[]::new)).join();
+            flushDeployed(true);
+            return report(true);
+        }
+
+        private void deployed(Long id) {
+            synchronized (deployed) {
+                deployed.add(id);
+            }
+            flushDeployed(false);
+        }
+
+        // Write "Running" for a full batch, or whatever is pending once per interval
+        private void flushDeployed(boolean force) {
+            List<Long> batch;
+            synchronized (deployed) {
+                long now = System.currentTimeMillis();
+                boolean due = deployed.size() >= batchSize || now - lastFlush >= PROGRESS_INTERVAL_MS;
+                if (deployed.isEmpty() || !(force || due)) {
+                    return;
+                }
+                batch = new ArrayList<>(deployed);
+                deployed.clear();
+                lastFlush = now;
+            }
+            // Succeeded once Running is written; an instance changed meanwhile (e.g. stopped) is skipped
+            int running = statusWriter.transitionAll(batch, EnumSet.of(DEPLOYING), RUNNING, StatusChange.BULK,
+                    actionName).size();
+            succeeded.addAndGet(running);
+            skipped.addAndGet(batch.size() - running);
+        }
+
+        // At most one progress report per interval, plus the final one
+        private BulkProgress report(boolean last) {
+            BulkProgress snapshot = new BulkProgress(action, total, succeeded.get(), failed.get(), skipped.get());
+            long now = System.currentTimeMillis();
+            long previous = lastReport.get();
+            if (last || (now - previous >= PROGRESS_INTERVAL_MS && lastReport.compareAndSet(previous, now))) {
+                progress.accept(snapshot);
+            }
+            return snapshot;
+        }
+    }
+}
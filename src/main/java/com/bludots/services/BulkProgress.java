@@ -0,0 +1,15 @@
+package com.bludots.services;
+
+/**
+ * Aggregated progress of one bulk operation.
+ */
+public record BulkProgress(BulkAction action, int total, int succeeded, int failed, int skipped) {
+
+    public int processed() {
+        return succeeded + failed + skipped;
+    }
+
+    public boolean isDone() {
+        return processed() >= total;
+    }
+}
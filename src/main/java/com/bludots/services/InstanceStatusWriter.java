@@ -0,0 +1,135 @@
+package com.bludots.services;
+
+import com.bludots.cache.InstanceCache;
+import com.bludots.cache.InstanceSnapshot;
+import com.bludots.cache.StatusCounters;
+import com.bludots.cluster.ChangeFeed;
+import com.bludots.cluster.ChangeKind;
+import com.bludots.entities.InstanceStatus;
+import com.bludots.events.InstanceChangedEvent;
+import com.bludots.events.InstanceChangedEvent.ChangeType;
+import com.bludots.events.InstanceEventBus;
+import com.bludots.history.StatusChange;
+import com.bludots.history.StatusJournal;
+import com.bludots.repositories.TomcatInstanceRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Applies status transitions through the compare-and-set UPDATE statements of the
+ * repository: one statement for a single instance; for many, the rows still in a source
+ * state are locked first and then moved with one statement per source state. Concurrent
+ * changes cannot be lost; they simply do not match. Every applied transition is written to
+ * the change feed in the same transaction, then counted, journaled, cached and published.
+ */
+@Component
+public class InstanceStatusWriter {
+
+    private final TomcatInstanceRepository repository;
+    private final InstanceCache cache;
+    private final StatusCounters counters;
+    private final StatusJournal journal;
+    private final InstanceEventBus eventBus;
+    private final ChangeFeed changeFeed;
+    private final TransactionTemplate transactionTemplate;
+
+    public InstanceStatusWriter(TomcatInstanceRepository repository, InstanceCache cache, StatusCounters counters,
+                                StatusJournal journal, InstanceEventBus eventBus, ChangeFeed changeFeed,
+                                TransactionTemplate transactionTemplate) {
+        this.repository = repository;
+        this.cache = cache;
+        this.counters = counters;
+        this.journal = journal;
+        this.eventBus = eventBus;
+        this.changeFeed = changeFeed;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    // True when the instance was in one of the from states and now is in to
+    public boolean transition(Long id, Set<InstanceStatus> from, InstanceStatus to, String actor, String action) {
+        validate(from, to);
+        LocalDateTime now = now();
+        // One UPDATE per source state, so counters and journal know which state the instance left
+        InstanceStatus moved = transactionTemplate.execute(tx -> {
+            for (InstanceStatus source : from) {
+                if (repository.transition(id, source, to, now) == 1) {
+                    changeFeed.append(id, ChangeKind.TRANSITION, source, to, now);
+                    return source;
+                }
+            }
+            return null;
+        });
+        if (moved == null) {
+            return false;
+        }
+        counters.moved(moved, to, 1);
+        applied(id, moved, to, actor, action, now);
+        return true;
+    }
+
+    // Batch variant; returns the ids that actually made the transition, events are published after commit
+    public List<Long> transitionAll(Collection<Long> ids, Set<InstanceStatus> from, InstanceStatus to,
+                                    String actor, String action) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        validate(from, to);
+        LocalDateTime now = now();
+        Map<Long, InstanceStatus> sources = new LinkedHashMap<>();
+        transactionTemplate.executeWithoutResult(tx -> {
+            // Lock the rows still in a source state and note each one's state; locked rows cannot change
+            // before commit, so every UPDATE below moves exactly the ids it is given
+            Map<InstanceStatus, List<Long>> bySource = new EnumMap<>(InstanceStatus.class);
+            for (Object[] row : repository.lockStatuses(ids, codes(from))) {
+                Long id = ((Number) row[0]).longValue();
+                InstanceStatus source = InstanceStatus.fromCode(((Number) row[1]).shortValue());
+                sources.put(id, source);
+                bySource.computeIfAbsent(source, s -> new ArrayList<>()).add(id);
+            }
+            bySource.forEach((source, sourceIds) -> repository.transitionAll(sourceIds, source, to, now));
+            changeFeed.appendTransitions(sources, to, now);
+        });
+        sources.forEach((id, source) -> {
+            counters.moved(source, to, 1);
+            applied(id, source, to, actor, action, now);
+        });
+        return List.copyOf(sources.keySet());
+    }
+
+    private void applied(Long id, InstanceStatus from, InstanceStatus to, String actor, String action,
+                         LocalDateTime now) {
+        LocalDateTime previousChange = cache.peek(id).map(InstanceSnapshot::lastStatusChange).orElse(null);
+        journal.record(new StatusChange(id, from, to, action, actor, now,
+                StatusChange.durationSince(previousChange, now)));
+        cache.applyTransition(id, to, now);
+        eventBus.publish(new InstanceChangedEvent(id, ChangeType.UPDATED));
+    }
+
+    // One precision for every transition: milliseconds, stored exactly by H2 and PostgreSQL alike
+    private static LocalDateTime now() {
+        return LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+    }
+
+    private static List<Short> codes(Set<InstanceStatus> statuses) {
+        return statuses.stream().map(InstanceStatus::code).toList();
+    }
+
+    // Validates the transitions against the state machine
+    private void validate(Set<InstanceStatus> from, InstanceStatus to) {
+        for (InstanceStatus status : from) {
+            if (!status.canTransitionTo(to)) {
+                throw new IllegalArgumentException("Illegal transition " + status + " -> " + to);
+            }
+        }
+    }
+}
@@ -0,0 +1,242 @@
+package com.bludots.services;
+
+import com.bludots.logs.LogArchive;
+import com.bludots.logs.LogFileSource;
+import com.bludots.logs.LogHit;
+import com.bludots.logs.LogIndex;
+import com.bludots.logs.LogLevel;
+import com.bludots.logs.LogQuery;
+import com.bludots.logs.LogSearch;
+import com.bludots.logs.LogTimestamps;
+import com.bludots.util.IntList;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Searches instance logs: sealed segments by time range, the active log through a
+ * {@link LogIndex} per instance. Indexes are kept for reuse up to {@code search-index-max-bytes}
+ * in total; beyond that the least recently used ones are dropped and rebuilt when needed.
+ */
+@Service
+public class LogSearchService {
+
+    private static final int BATCH_SIZE = 200;
+
+    private final LogFileSource logSource;
+    private final LogArchive archive;
+    private final int maxHits;
+    private final long maxIndexBytes;
+    // Least recently used first; guards indexBytes too
+    private final LinkedHashMap<Long, CachedIndex> indexes = new LinkedHashMap<>(16, 0.75f, true);
+    private long indexBytes;
+    private final LongAdder evicted = new LongAdder();
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public LogSearchService(LogFileSource logSource, LogArchive archive,
+                            @Value("${central-manager.logs.search-max-hits:10000}") int maxHits,
+                            @Value("${central-manager.logs.search-index-max-bytes:268435456}") long maxIndexBytes) {
+        this.logSource = logSource;
+        this.archive = archive;
+        this.maxHits = maxHits;
+        this.maxIndexBytes = maxIndexBytes;
+    }
+
+    // Runs the query in the background; hits are streamed to the sink in batches until done or cancelled
+    public LogSearch search(LogQuery query, Consumer<List<LogHit>> sink) {
+        LogSearch search = new LogSearch();
+        executor.execute(() -> {
+            try {
+                search.completion().complete(run(query, sink, search));
+            } catch (RuntimeException e) {
+                search.completion().completeExceptionally(e);
+            }
+        });
+        return search;
+    }
+
+    // Index of one instance log, caught up with the file (only new bytes are read)
+    public LogIndex index(Long instanceId) {
+        CachedIndex cached;
+        synchronized (indexes) {
+            cached = indexes.computeIfAbsent(instanceId, id -> new CachedIndex(new LogIndex(id)));
+        }
+        cached.index.catchUp(logSource);
+        long bytes = cached.index.estimatedBytes();
+        synchronized (indexes) {
+            if (indexes.get(instanceId) == cached) { // not evicted or forgotten meanwhile
+                indexBytes += bytes - cached.bytes;
+                cached.bytes = bytes;
+                evict(instanceId);
+            }
+        }
+        return cached.index;
+    }
+
+    // Drop the index of a deleted instance
+    public void forget(Long instanceId) {
+        synchronized (indexes) {
+            CachedIndex cached = indexes.remove(instanceId);
+            if (cached != null) {
+                indexBytes -= cached.bytes;
+            }
+        }
+    }
+
+    public long indexBytes() {
+        synchronized (indexes) {
+            return indexBytes;
+        }
+    }
+
+    public long evictedIndexes() {
+        return evicted.sum();
+    }
+
+    // Least recently used indexes go until the rest fits; the one just used stays (caller holds the lock)
+    private void evict(Long keep) {
+        Iterator<Map.Entry<Long, CachedIndex>> it = indexes.entrySet().iterator();
+        while (indexBytes > maxIndexBytes && it.hasNext()) {
+            Map.Entry<Long, CachedIndex> eldest = it.next();
+            if (!eldest.getKey().equals(keep)) {
+                indexBytes -= eldest.getValue().bytes;
+                it.remove();
+                evicted.increment();
+            }
+        }
+    }
+
+    private int run(LogQuery query, Consumer<List<LogHit>> sink, LogSearch search) {
+        long from = query.from() == null ? Long.MIN_VALUE : query.from().toEpochMilli();
+        long to = query.to() == null ? Long.MAX_VALUE : query.to().toEpochMilli();
+        List<String> tokens = query.tokens();
+        List<String> substrings = query.substrings();
+        int delivered = 0;
+
+        for (Long instanceId : query.instanceIds()) {
+            if (search.isCancelled() || delivered >= maxHits) {
+                break;
+            }
+            // Sealed segments only for queries with a start time; open-ended queries stay on the active log
+            if (query.from() != null) {
+                delivered += scanArchive(instanceId, query, from, to, tokens, substrings, sink, search,
+                        maxHits - delivered);
+                if (search.isCancelled() || delivered >= maxHits) {
+                    break;
+                }
+            }
+
+            LogIndex index = index(instanceId);
+            int[] range = index.lineRange(from, to);
+            int line = range[0];
+            IntList lines = new IntList(BATCH_SIZE);
+
+            while (line < range[1] && !search.isCancelled() && delivered < maxHits) {
+                lines.clear();
+                line = index.collect(query.levels(), tokens, line, range[1],
+                        Math.min(BATCH_SIZE, maxHits - delivered), lines);
+                if (lines.isEmpty()) {
+                    break; // range exhausted
+                }
+
+                List<String> texts = index.readLines(logSource, lines);
+                if (texts.isEmpty()) {
+                    break; // rotated or truncated since the index caught up; its offsets are stale
+                }
+                List<LogHit> hits = new ArrayList<>(texts.size());
+                for (int i = 0; i < texts.size(); i++) {
+                    // The sparse time index is block-granular; exact check on lines that carry a timestamp.
+                    // Words the index does not hold are checked on the line text.
+                    long time = LogTimestamps.parse(texts.get(i));
+                    if ((time < 0 || (time >= from && time <= to)) && containsAll(texts.get(i), substrings)) {
+                        hits.add(new LogHit(instanceId, index.levelOf(lines.get(i)), texts.get(i)));
+                    }
+                }
+                if (!hits.isEmpty()) {
+                    delivered += hits.size();
+                    sink.accept(hits);
+                }
+            }
+        }
+        return delivered;
+    }
+
+    // Sealed segments are not indexed: lines of the blocks in the time range are matched one by one
+    private int scanArchive(Long instanceId, LogQuery query, long from, long to, List<String> tokens,
+                            List<String> substrings, Consumer<List<LogHit>> sink, LogSearch search, int max) {
+        Set<LogLevel> levels = query.levels();
+        List<LogHit> hits = new ArrayList<>(BATCH_SIZE);
+        int[] delivered = {0};
+        archive.scan(instanceId, from, to, text -> {
+            if (search.isCancelled()) {
+                return false;
+            }
+            long time = LogTimestamps.parse(text);
+            if ((time >= 0 && (time < from || time > to)) || !matchesText(text, tokens)
+                    || !containsAll(text, substrings)) {
+                return true;
+            }
+            LogLevel level = LogLevel.of(text);
+            if (!levels.isEmpty() && !levels.contains(level)) {
+                return true;
+            }
+            hits.add(new LogHit(instanceId, level, text));
+            delivered[0]++;
+            if (hits.size() == BATCH_SIZE || delivered[0] >= max) {
+                sink.accept(List.copyOf(hits));
+                hits.clear();
+            }
+            return delivered[0] < max;
+        });
+        if (!hits.isEmpty()) {
+            sink.accept(List.copyOf(hits));
+        }
+        return delivered[0];
+    }
+
+    private static boolean matchesText(String text, List<String> tokens) {
+        return tokens.isEmpty() || new HashSet<>(LogIndex.tokenize(text)).containsAll(tokens);
+    }
+
+    // Query words the index does not hold, as substrings of the lower-cased line
+    private static boolean containsAll(String text, List<String> substrings) {
+        if (substrings.isEmpty()) {
+            return true;
+        }
+        String lower = text.toLowerCase();
+        for (String substring : substrings) {
+            if (!lower.contains(substring)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    // An index with the footprint it had when last caught up
+    private static final class CachedIndex {
+
+        private final LogIndex index;
+        private long bytes;
+
+        private CachedIndex(LogIndex index) {
+            this.index = index;
+        }
+    }
+}
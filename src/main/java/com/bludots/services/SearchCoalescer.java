@@ -0,0 +1,78 @@
+package com.bludots.services;
+
+import com.bludots.entities.TomcatInstanceEntity;
+import com.bludots.repositories.SearchTicket;
+import com.bludots.repositories.TomcatInstanceRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Runs the instance searches of one search box (the owner, e.g. a dashboard) in the
+ * background, latest wins: a newer search of the same owner skips the older one if it has
+ * not started and cancels its statement if it is running. Typing ahead thus never leaves
+ * stale full scans queued on the database. Futures of superseded searches fail with a
+ * {@link CancellationException}.
+ */
+@Component
+public class SearchCoalescer {
+
+    private final TomcatInstanceRepository repository;
+    private final TransactionTemplate transactionTemplate;
+    // Latest search per owner; removed by the search itself when done
+    private final Map<Object, SearchTicket> latest = new ConcurrentHashMap<>();
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public SearchCoalescer(TomcatInstanceRepository repository, TransactionTemplate transactionTemplate) {
+        this.repository = repository;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    public CompletableFuture<Long> count(Object owner, Specification<TomcatInstanceEntity> spec) {
+        SearchTicket ticket = new SearchTicket();
+        cancelTicket(latest.put(owner, ticket));
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                if (ticket.isCancelled()) {
+                    throw new CancellationException("Superseded before it started");
+                }
+                Long count = transactionTemplate.execute(tx -> repository.countCancellable(spec, ticket));
+                if (ticket.isCancelled()) {
+                    throw new CancellationException("Superseded"); // finished just too late: drop it
+                }
+                return count;
+            } catch (RuntimeException e) {
+                if (ticket.isCancelled() && !(e instanceof CancellationException)) {
+                    throw new CancellationException("Statement cancelled");
+                }
+                throw e;
+            } finally {
+                latest.remove(owner, ticket);
+            }
+        }, executor);
+    }
+
+    // Cancels the owner's search still queued or running, e.g. when its view closes
+    public void cancel(Object owner) {
+        cancelTicket(latest.remove(owner));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void cancelTicket(SearchTicket older) {
+        if (older != null) {
+            older.cancel();
+        }
+    }
+}
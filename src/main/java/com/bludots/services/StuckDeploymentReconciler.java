@@ -0,0 +1,191 @@
+package com.bludots.services;
+
+import com.bludots.entities.InstanceStatus;
+import com.bludots.history.StatusChange;
+import com.bludots.lifecycle.LifecycleExecutor;
+import com.bludots.repositories.TomcatInstanceRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import static com.bludots.entities.InstanceStatus.DEPLOYING;
+import static com.bludots.entities.InstanceStatus.FAILED;
+
+/**
+ * Finds instances left in a transitional state (Deploying) for longer than
+ * {@code deadline-ms}, e.g. because the node running the deployment died, and marks them
+ * Failed. With {@code retry} on, they are redeployed once; an instance that gets stuck
+ * again within {@code retry-window-ms} of its retry stays Failed.
+ * <p>
+ * Stale instances are read through the (status, last_status_change, id) index, oldest first
+ * and {@code batch-size} at a time, keyset-paged past the rows already seen, so a tick costs
+ * in proportion to the stale rows, not the fleet. Operations still queued or running on this
+ * node are left alone (and paged past); the deadline must exceed the lifecycle timeout so
+ * that deployments on other nodes are not cut short.
+ */
+@Component
+public class StuckDeploymentReconciler {
+
+    private static final Logger log = LoggerFactory.getLogger(StuckDeploymentReconciler.class);
+    private static final Set<InstanceStatus> TRANSITIONAL = EnumSet.of(DEPLOYING);
+    private static final String ACTION = "deadline";
+
+    private final TomcatInstanceRepository repository;
+    private final InstanceStatusWriter statusWriter;
+    private final LifecycleExecutor lifecycle;
+    private final TomcatInstanceService instanceService;
+    private final boolean enabled;
+    private final long intervalMs;
+    private final long deadlineMs;
+    private final int batchSize;
+    private final boolean retry;
+    private final long retryWindowMs;
+
+    // Reconciler thread only: instance id -> time of its last retry
+    private final Map<Long, Long> retriedAt = new HashMap<>();
+
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder retried = new LongAdder();
+    private volatile int lastStale;
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "deployment-reconciler");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public StuckDeploymentReconciler(TomcatInstanceRepository repository, InstanceStatusWriter statusWriter,
+                                     LifecycleExecutor lifecycle, TomcatInstanceService instanceService,
+                                     @Value("${central-manager.reconciler.enabled:true}") boolean enabled,
+                                     @Value("${central-manager.reconciler.interval-ms:30000}") long intervalMs,
+                                     @Value("${central-manager.reconciler.deadline-ms:300000}") long deadlineMs,
+                                     @Value("${central-manager.reconciler.batch-size:500}") int batchSize,
+                                     @Value("${central-manager.reconciler.retry:false}") boolean retry,
+                                     @Value("${central-manager.reconciler.retry-window-ms:3600000}")
+                                     long retryWindowMs) {
+        this.repository = repository;
+        this.statusWriter = statusWriter;
+        this.lifecycle = lifecycle;
+        this.instanceService = instanceService;
+        this.enabled = enabled;
+        this.intervalMs = intervalMs;
+        this.deadlineMs = deadlineMs;
+        this.batchSize = batchSize;
+        this.retry = retry;
+        this.retryWindowMs = retryWindowMs;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (enabled) {
+            // First tick right away: deployments cut off by the last shutdown are past their deadline already
+            scheduler.scheduleWithFixedDelay(this::reconcile, 0, intervalMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    public long failed() {
+        return failed.sum();
+    }
+
+    public long retried() {
+        return retried.sum();
+    }
+
+    // Stale instances found by the last tick, including those still busy on this node
+    public int lastStale() {
+        return lastStale;
+    }
+
+    private void reconcile() {
+        try {
+            LocalDateTime deadline = LocalDateTime.now().minus(Duration.ofMillis(deadlineMs));
+            int stale = 0;
+            for (InstanceStatus status : TRANSITIONAL) {
+                stale += reconcile(status, deadline);
+            }
+            lastStale = stale;
+            long now = System.currentTimeMillis();
+            retriedAt.values().removeIf(at -> now - at > retryWindowMs);
+        } catch (RuntimeException e) {
+            log.warn("Deployment reconciliation failed", e); // keep the schedule alive
+        }
+    }
+
+    // Returns the number of stale instances seen
+    private int reconcile(InstanceStatus status, LocalDateTime deadline) {
+        int seen = 0;
+        int marked = 0;
+        Object[] last = null;
+        List<Object[]> stale;
+        do {
+            // Keyset past the last row seen: busy rows stay behind instead of blocking newer ones
+            stale = last == null
+                    ? repository.findInStatusSince(status, deadline, PageRequest.of(0, batchSize))
+                    : repository.findInStatusSinceAfter(status, deadline, (LocalDateTime) last[1], (Long) last[0],
+                            PageRequest.of(0, batchSize));
+            List<Long> idle = new ArrayList<>(stale.size());
+            for (Object[] row : stale) {
+                Long id = (Long) row[0];
+                if (!lifecycle.isBusy(id)) {
+                    idle.add(id);
+                }
+            }
+            seen += stale.size();
+            List<Long> moved = statusWriter.transitionAll(idle, EnumSet.of(status), FAILED, StatusChange.RECONCILER,
+                    ACTION);
+            marked += moved.size();
+            failed.add(moved.size());
+            if (retry) {
+                retry(moved);
+            }
+            if (!stale.isEmpty()) {
+                last = stale.get(stale.size() - 1);
+            }
+        } while (stale.size() == batchSize);
+        if (marked > 0) {
+            log.info("{} instances {} for longer than {} ms, {} marked {}", seen, status.label(), deadlineMs,
+                    marked, FAILED.label());
+        }
+        return seen;
+    }
+
+    // Redeploys the failed instances not retried within the window; the others stay Failed
+    private void retry(List<Long> ids) {
+        long now = System.currentTimeMillis();
+        List<Long> redeploy = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            Long last = retriedAt.get(id);
+            if (last == null || now - last > retryWindowMs) {
+                retriedAt.put(id, now);
+                redeploy.add(id);
+            }
+        }
+        if (!redeploy.isEmpty()) {
+            retried.add(redeploy.size());
+            instanceService.bulkOperation(BulkAction.REDEPLOY, redeploy, progress -> { });
+        }
+    }
+}
@@ -1,28 +1,130 @@
 package com.bludots.services;
 
+import com.bludots.cache.CacheStats;
+import com.bludots.cache.InstanceCache;
+import com.bludots.cache.InstanceSnapshot;
+import com.bludots.cache.StatusCounters;
+import com.bludots.cluster.ChangeFeed;
+import com.bludots.cluster.ChangeKind;
+import com.bludots.entities.InstanceStatus;
+import com.bludots.entities.StatusChangeEntity;
 import com.bludots.entities.TomcatInstanceEntity;
+import com.bludots.events.InstanceChangedEvent;
+import com.bludots.events.InstanceChangedEvent.ChangeType;
+import com.bludots.events.InstanceEventBus;
+import com.bludots.history.StatusChange;
+import com.bludots.history.StatusJournal;
+import com.bludots.lifecycle.LifecycleExecutor;
+import com.bludots.logs.LogCursor;
+import com.bludots.logs.LogFileSource;
+import com.bludots.logs.LevelCounts;
+import com.bludots.logs.LogHit;
+import com.bludots.logs.LogLevelStats;
+import com.bludots.logs.LogQuery;
+import com.bludots.logs.LogSearch;
+import com.bludots.metrics.MetricTier;
+import com.bludots.metrics.MetricType;
+import com.bludots.metrics.MetricsStore;
+import com.bludots.repositories.StatusChangeRepository;
 import com.bludots.repositories.TomcatInstanceRepository;
+import com.bludots.repositories.TomcatInstanceSpecifications;
+import com.bludots.search.InstanceSearchIndex;
+import com.bludots.telemetry.Telemetry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 import com.vaadin.flow.component.UI;
-import org.springframework.scheduling.annotation.Async;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
 import com.vaadin.flow.component.notification.Notification;
 
 
+import java.time.LocalDateTime;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+
+import static com.bludots.entities.InstanceStatus.DEPLOYING;
+import static com.bludots.entities.InstanceStatus.FAILED;
+import static com.bludots.entities.InstanceStatus.RUNNING;
+import static com.bludots.entities.InstanceStatus.STOPPED;
 
 @Service
 public class TomcatInstanceService {
 
+    // Simulated deployment durations
+    private static final long START_DURATION_MS = 2000;
+    private static final long REDEPLOY_DURATION_MS = 3000;
+    private static final Sort BY_ID = Sort.by("id");
+
     private final TomcatInstanceRepository repository;
+    private final InstanceCache cache;
+    private final StatusCounters counters;
+    private final InstanceSearchIndex searchIndex;
+    private final SearchCoalescer searches;
+    private final InstanceEventBus eventBus;
+    private final LifecycleExecutor lifecycle;
+    private final BulkOperationService bulkOperations;
+    private final InstanceStatusWriter statusWriter;
+    private final StatusJournal journal;
+    private final StatusChangeRepository historyRepository;
+    private final ChangeFeed changeFeed;
+    private final TransactionTemplate transactionTemplate;
+    private final LogFileSource logSource;
+    private final LogSearchService logSearchService;
+    private final LogLevelStats logLevels;
+    private final MetricsStore metrics;
+    private final Telemetry telemetry;
+    private final int tailLines;
 
-    public TomcatInstanceService(TomcatInstanceRepository repository) {
+    public TomcatInstanceService(TomcatInstanceRepository repository, InstanceCache cache, StatusCounters counters,
+                                 InstanceSearchIndex searchIndex, SearchCoalescer searches, InstanceEventBus eventBus,
+                                 LifecycleExecutor lifecycle, BulkOperationService bulkOperations,
+                                 InstanceStatusWriter statusWriter, StatusJournal journal,
+                                 StatusChangeRepository historyRepository, ChangeFeed changeFeed,
+                                 TransactionTemplate transactionTemplate, LogFileSource logSource, LogSearchService logSearchService,
+                                 LogLevelStats logLevels, MetricsStore metrics, Telemetry telemetry,
+                                 @Value("${central-manager.logs.tail-lines:500}") int tailLines) {
         this.repository = repository;
+        this.cache = cache;
+        this.counters = counters;
+        this.searchIndex = searchIndex;
+        this.searches = searches;
+        this.eventBus = eventBus;
+        this.lifecycle = lifecycle;
+        this.bulkOperations = bulkOperations;
+        this.statusWriter = statusWriter;
+        this.journal = journal;
+        this.historyRepository = historyRepository;
+        this.changeFeed = changeFeed;
+        this.transactionTemplate = transactionTemplate;
+        this.logSource = logSource;
+        this.logSearchService = logSearchService;
+        this.logLevels = logLevels;
+        this.metrics = metrics;
+        this.telemetry = telemetry;
+        this.tailLines = tailLines;
     }
 
-    // Get all instances
+    // Get all instances (from the shared cache when it holds the whole fleet)
     public List<TomcatInstanceEntity> getAll() {
-        return repository.findAll();
+        return telemetry.timeRows("getAll", () -> cache.all().map(this::toEntities).orElseGet(repository::findAll));
+    }
+
+    // Ids of all instances
+    public List<Long> getAllIds() {
+        return repository.findAllIds();
     }
 
     // Get by Status
@@ -30,7 +132,8 @@ public class TomcatInstanceService {
         if (status == null || status.equalsIgnoreCase("All")) {
             return getAll();
         }
-        return repository.findByStatusIgnoreCase(status);
+        return telemetry.timeRows("getByStatus", () -> cachedByStatus(status).map(this::toEntities)
+                .orElseGet(() -> repository.findAll(TomcatInstanceSpecifications.matching(null, status), BY_ID)));
     }
 
     // Search (Name or Status)
@@ -38,87 +141,374 @@ public class TomcatInstanceService {
         if (keyword == null || keyword.trim().isEmpty()) {
             return getAll();
         }
-        return repository.findByNameContainingIgnoreCaseOrStatusContainingIgnoreCase(keyword, keyword);
+        String needle = keyword.trim().toLowerCase();
+        return telemetry.timeRows("search", () -> cache.all()
+                .map(all -> toEntities(all.stream().filter(i -> matches(i, needle)).toList()))
+                .orElseGet(() -> repository.findAll(TomcatInstanceSpecifications.matching(keyword, null), BY_ID)));
     }
 
-    // Search + Filter Combined
+    // Search + Filter Combined (one query when the cache cannot answer)
     public List<TomcatInstanceEntity> searchAndFilter(String keyword, String status) {
-        List<TomcatInstanceEntity> results = search(keyword);
-        if (status != null && !status.equalsIgnoreCase("All")) {
-            return results.stream()
-                    .filter(i -> i.getStatus().equalsIgnoreCase(status))
-                    .toList();
+        String needle = normalizeKeyword(keyword) == null ? null : keyword.trim().toLowerCase();
+        return telemetry.timeRows("searchAndFilter", () -> {
+            Optional<List<InstanceSnapshot>> cached = normalizeStatus(status) != null
+                    ? cachedByStatus(status) // start from the (smaller) status index
+                    : cache.all();
+            return cached
+                    .map(list -> toEntities(list.stream().filter(i -> needle == null || matches(i, needle)).toList()))
+                    .orElseGet(() -> repository.findAll(TomcatInstanceSpecifications.matching(keyword, status), BY_ID));
+        });
+    }
+
+    // Page of instances for lazy grids (offset based, any sort)
+    public List<TomcatInstanceEntity> fetchPage(String keyword, String status, Pageable pageable) {
+        Pageable sorted = pageable.getSort().isUnsorted()
+                ? PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), BY_ID)
+                : pageable;
+        return telemetry.timeRows("fetchPage",
+                () -> repository.findPage(TomcatInstanceSpecifications.matching(keyword, status), sorted));
+    }
+
+    // Keyset page: next rows after the last seen id (null = from the start), ordered by id
+    public List<TomcatInstanceEntity> fetchPageAfter(String keyword, String status, Long afterId, int limit) {
+        return telemetry.timeRows("fetchPageAfter",
+                () -> repository.findPageAfter(TomcatInstanceSpecifications.matching(keyword, status), afterId, limit));
+    }
+
+    // Count matching instances without loading them
+    public long count(String keyword, String status) {
+        return telemetry.time(Telemetry.SERVICE, "count", () -> countMatching(keyword, status));
+    }
+
+    private long countMatching(String keyword, String status) {
+        String normalizedKeyword = normalizeKeyword(keyword);
+        String normalizedStatus = normalizeStatus(status);
+        // Fleet and per-status totals come from the in-memory counters
+        if (normalizedKeyword == null && normalizedStatus == null) {
+            return counters.total();
+        } else if (normalizedKeyword == null) {
+            return InstanceStatus.find(normalizedStatus).map(counters::count).orElse(0L);
+        }
+        return repository.count(TomcatInstanceSpecifications.matching(normalizedKeyword, normalizedStatus));
+    }
+
+    // Same count in the background, latest wins per owner (e.g. one dashboard): a newer call cancels
+    // the owner's keyword search still queued or running, whose future fails with CancellationException
+    public CompletableFuture<Long> countLatest(Object owner, String keyword, String status) {
+        String normalizedKeyword = normalizeKeyword(keyword);
+        if (normalizedKeyword == null) {
+            searches.cancel(owner); // an older keyword search is stale as well
+            return CompletableFuture.completedFuture(count(keyword, status));
+        }
+        return searches.count(owner, TomcatInstanceSpecifications.matching(normalizedKeyword, normalizeStatus(status)));
+    }
+
+    // Drops the owner's search still in flight, e.g. when its view is closed
+    public void cancelSearches(Object owner) {
+        searches.cancel(owner);
+    }
+
+    // Ranked typeahead over names and IP addresses (database query until the index is built)
+    public List<TomcatInstanceEntity> lookup(String query, int limit) {
+        if (normalizeKeyword(query) == null) {
+            return List.of();
         }
-        return results;
+        if (!searchIndex.isReady()) {
+            return repository.findPage(TomcatInstanceSpecifications.matching(query, null), PageRequest.of(0, limit));
+        }
+        return telemetry.timeRows("lookup", () -> searchIndex.search(query, limit).stream()
+                .map(this::getById)
+                .filter(Objects::nonNull)
+                .toList());
+    }
+
+    private boolean matches(InstanceSnapshot instance, String needle) {
+        return (instance.name() != null && instance.name().toLowerCase().contains(needle))
+                || (instance.status() != null && instance.status().label().toLowerCase().contains(needle));
     }
 
-    // Save or Update
+    // Cached instances with a status label; an unknown label matches nothing
+    private Optional<List<InstanceSnapshot>> cachedByStatus(String status) {
+        return InstanceStatus.find(status).map(cache::byStatus).orElse(Optional.of(List.of()));
+    }
+
+    // Instances per status over the whole fleet (live, in-memory)
+    public Map<InstanceStatus, Long> getStatusSummary() {
+        return counters.snapshot();
+    }
+
+    private List<TomcatInstanceEntity> toEntities(List<InstanceSnapshot> snapshots) {
+        return snapshots.stream().map(InstanceSnapshot::toEntity).toList();
+    }
+
+    private String normalizeKeyword(String keyword) {
+        return keyword == null || keyword.trim().isEmpty() ? null : keyword.trim();
+    }
+
+    private String normalizeStatus(String status) {
+        return status == null || status.equalsIgnoreCase("All") ? null : status;
+    }
+
+    // Create a new instance
     public TomcatInstanceEntity save(TomcatInstanceEntity instance) {
-        return repository.save(instance);
+        if (instance.getId() != null) {
+            throw new IllegalArgumentException("Existing instances are changed with update()");
+        }
+        return telemetry.time(Telemetry.SERVICE, "save", () -> doSave(instance));
+    }
+
+    private TomcatInstanceEntity doSave(TomcatInstanceEntity instance) {
+        // Row and change feed entry commit together, so other nodes see exactly the committed edits
+        TomcatInstanceEntity saved = transactionTemplate.execute(tx -> {
+            TomcatInstanceEntity row = repository.save(instance);
+            changeFeed.append(row.getId(), ChangeKind.CREATED, null, row.getStatus(), LocalDateTime.now());
+            return row;
+        });
+        counters.added(saved.getStatus());
+        LocalDateTime at = saved.getLastStatusChange() != null ? saved.getLastStatusChange() : LocalDateTime.now();
+        journal.record(new StatusChange(saved.getId(), null, saved.getStatus(), "create", StatusChange.UI, at, null));
+        published(saved, ChangeType.CREATED);
+        return saved;
+    }
+
+    // Edit name and address. The status is not editable: it only changes through start, stop and
+    // redeploy (state machine, compare-and-set). Fails when the instance was deleted meanwhile.
+    public TomcatInstanceEntity update(Long id, String name, String ipAddress) {
+        return telemetry.time(Telemetry.SERVICE, "update", () -> doUpdate(id, name, ipAddress));
+    }
+
+    private TomcatInstanceEntity doUpdate(Long id, String name, String ipAddress) {
+        TomcatInstanceEntity saved = transactionTemplate.execute(tx -> {
+            // Locked, so the status written to the feed is the one the row has when the edit commits
+            TomcatInstanceEntity row = repository.findByIdForUpdate(id)
+                    .orElseThrow(() -> new ObjectOptimisticLockingFailureException(TomcatInstanceEntity.class, id));
+            row.setName(name);
+            row.setIpAddress(ipAddress);
+            changeFeed.append(id, ChangeKind.UPDATED, row.getStatus(), row.getStatus(), LocalDateTime.now());
+            return row;
+        });
+        published(saved, ChangeType.UPDATED);
+        return saved;
+    }
+
+    private void published(TomcatInstanceEntity saved, ChangeType type) {
+        cache.put(saved);
+        searchIndex.put(saved);
+        eventBus.publish(new InstanceChangedEvent(saved.getId(), type));
     }
 
     // Delete
     public void delete(Long id) {
-        repository.deleteById(id);
+        telemetry.run(Telemetry.SERVICE, "delete", () -> doDelete(id));
     }
 
-    // Get by ID (used later for details page)
-    public TomcatInstanceEntity getById(Long id) {
-        return repository.findById(id).orElse(null);
+    private void doDelete(Long id) {
+        LocalDateTime now = LocalDateTime.now();
+        TomcatInstanceEntity deleted = transactionTemplate.execute(tx -> {
+            // Locked, so the status counted out and written to the feed is the one the row has when it goes
+            TomcatInstanceEntity row = repository.findByIdForUpdate(id).orElse(null);
+            if (row != null) {
+                repository.delete(row);
+                changeFeed.append(id, ChangeKind.DELETED, row.getStatus(), null, now);
+            }
+            return row;
+        });
+        if (deleted != null) {
+            counters.removed(deleted.getStatus());
+            journal.record(new StatusChange(id, deleted.getStatus(), null, "delete", StatusChange.UI, now,
+                    StatusChange.durationSince(deleted.getLastStatusChange(), now)));
+        }
+        cache.remove(id);
+        searchIndex.remove(id);
+        logSearchService.forget(id);
+        logLevels.forget(id);
+        metrics.remove(id);
+        eventBus.publish(new InstanceChangedEvent(id, ChangeType.DELETED));
     }
 
-    @Async
-    public CompletableFuture<Void> startInstanceAsync(TomcatInstanceEntity instance, UI ui) {
-        // Check: if already running, don't start again
-        if ("Running".equalsIgnoreCase(instance.getStatus())) {
-            ui.access(() -> Notification.show("⚠️ " + instance.getName() + " is already running."));
-            return CompletableFuture.completedFuture(null);
+    // Journal entries in a time range, newest first; all instances when instanceId is null.
+    // Entries reach the table in batches, so the last second or so may not be visible yet.
+    public List<StatusChangeEntity> getHistory(Long instanceId, LocalDateTime from, LocalDateTime to,
+                                               Pageable pageable) {
+        return telemetry.timeRows("getHistory", () -> instanceId == null
+                ? historyRepository.findByChangedAtBetweenOrderByChangedAtDescIdDesc(from, to, pageable)
+                : historyRepository.findByInstanceIdAndChangedAtBetweenOrderByChangedAtDescIdDesc(instanceId, from, to,
+                        pageable));
+    }
+
+    // Keyset page of getHistory: the next entries (older, down to from) after the given entry
+    public List<StatusChangeEntity> getHistoryBefore(Long instanceId, LocalDateTime from,
+                                                     LocalDateTime beforeChangedAt, Long beforeId, int limit) {
+        Pageable first = PageRequest.of(0, limit);
+        return telemetry.timeRows("getHistoryBefore", () -> instanceId == null
+                ? historyRepository.findBefore(from, beforeChangedAt, beforeId, first)
+                : historyRepository.findByInstanceIdBefore(instanceId, from, beforeChangedAt, beforeId, first));
+    }
+
+    public long countHistory(Long instanceId, LocalDateTime from, LocalDateTime to) {
+        return telemetry.time(Telemetry.SERVICE, "countHistory", () -> instanceId == null
+                ? historyRepository.countByChangedAtBetween(from, to)
+                : historyRepository.countByInstanceIdAndChangedAtBetween(instanceId, from, to));
+    }
+
+    // Get by ID (cache first, loaded into the cache on a miss)
+    public TomcatInstanceEntity getById(Long id) {
+        Optional<InstanceSnapshot> cached = cache.get(id);
+        if (cached.isPresent()) {
+            return cached.get().toEntity();
+        }
+        TomcatInstanceEntity loaded = repository.findById(id).orElse(null);
+        if (loaded != null) {
+            cache.put(loaded);
         }
+        return loaded;
+    }
+
+    // Newest bucket averages of one metric series into a caller-owned buffer (oldest first, NaN = gap)
+    public int readMetrics(Long id, MetricType type, MetricTier tier, double[] out) {
+        return metrics.read(id, type, tier, System.currentTimeMillis(), out);
+    }
 
-        instance.setStatus("Deploying");
-        save(instance);
+    // Hit/miss/eviction counters of the shared instance cache
+    public CacheStats getCacheStats() {
+        return cache.stats();
+    }
 
-        ui.access(() -> ui.getPage().reload()); // update UI
+    // Lifecycle operations run on the lifecycle executor: serialized per instance, parallel across instances.
+    // Every state change is a compare-and-set transition; a rejected one means someone else changed the instance.
+    public CompletableFuture<Void> startInstanceAsync(TomcatInstanceEntity instance, UI ui) {
+        return runLifecycle(instance, "start", ui, () -> {
+            // Check: only a stopped instance can be started
+            if (!transition(instance.getId(), EnumSet.of(STOPPED, FAILED), DEPLOYING, "start")) {
+                ui.access(() -> Notification.show("⚠️ " + instance.getName() + " is already running or deploying."));
+                return null;
+            }
 
-        return CompletableFuture.runAsync(() -> {
-            try { Thread.sleep(2000); } catch (InterruptedException ignored) {}
-            instance.setStatus("Running");
-            save(instance);
-            ui.access(() -> Notification.show("✅ " + instance.getName() + " is now running."));
+            simulateDeployment(instance.getId(), "start", START_DURATION_MS);
+            finishDeployment(instance, ui, "start", "✅ " + instance.getName() + " is now running.");
+            return null;
         });
     }
 
-    @Async
     public CompletableFuture<Void> stopInstanceAsync(TomcatInstanceEntity instance, UI ui) {
-        instance.setStatus("Stopped");
-        save(instance);
-        ui.access(() -> Notification.show("🛑 " + instance.getName() + " stopped."));
-        return CompletableFuture.completedFuture(null);
+        return runLifecycle(instance, "stop", ui, () -> {
+            if (transition(instance.getId(), InstanceStatus.sourcesOf(STOPPED), STOPPED, "stop")) {
+                ui.access(() -> Notification.show("🛑 " + instance.getName() + " stopped."));
+            } else {
+                ui.access(() -> Notification.show("⚠️ " + instance.getName() + " is already stopped."));
+            }
+            return null;
+        });
     }
 
-    @Async
     public CompletableFuture<Void> redeployInstanceAsync(TomcatInstanceEntity instance, UI ui) {
-        instance.setStatus("Deploying");
-        save(instance);
-        ui.access(() -> Notification.show("♻️ Redeploying " + instance.getName() + "..."));
-
-        return CompletableFuture.runAsync(() -> {
-            try { Thread.sleep(3000); } catch (InterruptedException ignored) {}
-            instance.setStatus("Running");
-            save(instance);
-            ui.access(() -> Notification.show("✅ " + instance.getName() + " redeployed successfully."));
+        return runLifecycle(instance, "redeploy", ui, () -> {
+            if (!transition(instance.getId(), InstanceStatus.sourcesOf(DEPLOYING), DEPLOYING, "redeploy")) {
+                ui.access(() -> Notification.show("⚠️ " + instance.getName() + " is already deploying."));
+                return null;
+            }
+            ui.access(() -> Notification.show("♻️ Redeploying " + instance.getName() + "..."));
+
+            simulateDeployment(instance.getId(), "redeploy", REDEPLOY_DURATION_MS);
+            finishDeployment(instance, ui, "redeploy", "✅ " + instance.getName() + " redeployed successfully.");
+            return null;
         });
     }
 
-    // Mock logs for now – later replaced with real server logs
+    // Atomic status transition (one compare-and-set UPDATE per source state, in one transaction); false when rejected
+    public boolean transition(Long id, Set<InstanceStatus> from, InstanceStatus to, String action) {
+        return statusWriter.transition(id, from, to, StatusChange.UI, action);
+    }
+
+    private void simulateDeployment(Long id, String operation, long durationMs) throws InterruptedException {
+        try {
+            Thread.sleep(durationMs);
+        } catch (InterruptedException e) {
+            // Cancelled or timed out: do not leave the instance deploying
+            transition(id, EnumSet.of(DEPLOYING), STOPPED, operation);
+            throw e;
+        }
+    }
+
+    private void finishDeployment(TomcatInstanceEntity instance, UI ui, String operation, String message) {
+        if (transition(instance.getId(), EnumSet.of(DEPLOYING), RUNNING, operation)) {
+            ui.access(() -> Notification.show(message));
+        } else {
+            ui.access(() -> Notification.show("⚠️ " + instance.getName() + " changed state during deployment."));
+        }
+    }
+
+    // Bulk start/stop/redeploy over many instances; progress is reported as one aggregated stream
+    public CompletableFuture<BulkProgress> bulkOperation(BulkAction action, List<Long> ids,
+                                                        Consumer<BulkProgress> progress) {
+        long duration = action == BulkAction.REDEPLOY ? REDEPLOY_DURATION_MS : START_DURATION_MS;
+        return bulkOperations.run(action, ids, duration, progress);
+    }
+
+    // Cancel queued and running lifecycle operations of an instance
+    public int cancelOperations(Long instanceId) {
+        return lifecycle.cancel(instanceId);
+    }
+
+    private CompletableFuture<Void> runLifecycle(TomcatInstanceEntity instance, String operation, UI ui,
+                                                 Callable<Void> action) {
+        Timer.Sample sample = telemetry.start();
+        CompletableFuture<Void> result = lifecycle.submit(instance.getId(), operation, action).result();
+        result.whenComplete((v, error) -> {
+            telemetry.stop(sample, Telemetry.LIFECYCLE, operation, outcomeOf(error));
+            if (error instanceof CancellationException) {
+                ui.access(() -> Notification.show("✖ " + operation + " of " + instance.getName() + " cancelled."));
+            } else if (error instanceof TimeoutException) {
+                ui.access(() -> Notification.show("⌛ " + operation + " of " + instance.getName() + " timed out."));
+            } else if (error != null) {
+                ui.access(() -> Notification.show("❌ " + operation + " of " + instance.getName() + " failed."));
+            }
+        });
+        return result;
+    }
+
+    private static String outcomeOf(Throwable error) {
+        if (error == null) {
+            return "completed";
+        }
+        if (error instanceof CancellationException) {
+            return "cancelled";
+        }
+        return error instanceof TimeoutException ? "timed_out" : "failed";
+    }
+
+    // Last lines of the instance log file
     public List<String> getLogsForInstance(Long instanceId) {
-        return List.of(
-                "[INFO] Server starting...",
-                "[INFO] Deploying application...",
-                "[INFO] Application started successfully!",
-                "[WARN] Low memory detected",
-                "[ERROR] Example error log here"
-        );
+        return logSource.tail(instanceId, tailLines, new LogCursor());
+    }
+
+    // Last lines of the instance log; the cursor then follows the file from there
+    public List<String> tailLogs(Long instanceId, LogCursor cursor) {
+        return logSource.tail(instanceId, tailLines, cursor);
+    }
+
+    // Only the lines written since the cursor position (handles rotation and truncation)
+    public List<String> readNewLogs(Long instanceId, LogCursor cursor) {
+        return logSource.readNew(instanceId, cursor);
+    }
+
+    // Ingested lines per level over the last window (precomputed, no log data is read)
+    public LevelCounts getLogLevels(Long instanceId) {
+        return logLevels.window(instanceId);
+    }
+
+    public LevelCounts getFleetLogLevels() {
+        return logLevels.fleetWindow();
+    }
+
+    // Instances with the most errors (then warnings) in the window, noisiest first
+    public Map<Long, LevelCounts> getNoisiestInstances() {
+        return logLevels.noisiest();
+    }
+
+    // Indexed search by instance, level, time range and text; hits stream to the sink
+    public LogSearch searchLogs(LogQuery query, Consumer<List<LogHit>> sink) {
+        return logSearchService.search(query, sink);
     }
 
 }
@@ -0,0 +1,192 @@
+package com.bludots.telemetry;
+
+import com.bludots.cache.InstanceCache;
+import com.bludots.cache.StatusCounters;
+import com.bludots.cluster.ChangeFeedPoller;
+import com.bludots.entities.InstanceStatus;
+import com.bludots.events.InstanceEventBus;
+import com.bludots.history.StatusJournal;
+import com.bludots.lifecycle.LifecycleExecutor;
+import com.bludots.logs.LogArchive;
+import com.bludots.logs.LogLevelStats;
+import com.bludots.logs.LogSegmentStore;
+import com.bludots.logs.SyslogListener;
+import com.bludots.metrics.MetricsStore;
+import com.bludots.probes.HealthProbeEngine;
+import com.bludots.probes.ProbeRound;
+import com.bludots.search.InstanceSearchIndex;
+import com.bludots.services.LogSearchService;
+import com.bludots.services.StuckDeploymentReconciler;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.stereotype.Component;
+
+/**
+ * Gauges and counters read from the components' own statistics on each scrape:
+ * lifecycle queue, push queue, cache, status counters, status journal, search index,
+ * metric store, probe rounds, log ingestion, log archive, log search, change feed and deployment
+ * reconciler.
+ */
+@Component
+public class FleetMeterBinder implements MeterBinder {
+
+    private final LifecycleExecutor lifecycle;
+    private final InstanceEventBus eventBus;
+    private final InstanceCache cache;
+    private final StatusCounters counters;
+    private final StatusJournal journal;
+    private final InstanceSearchIndex searchIndex;
+    private final MetricsStore metricsStore;
+    private final HealthProbeEngine probes;
+    private final SyslogListener ingest;
+    private final LogSegmentStore segments;
+    private final LogArchive archive;
+    private final LogLevelStats logLevels;
+    private final LogSearchService logSearch;
+    private final ChangeFeedPoller changeFeed;
+    private final StuckDeploymentReconciler reconciler;
+
+    public FleetMeterBinder(LifecycleExecutor lifecycle, InstanceEventBus eventBus, InstanceCache cache,
+                            StatusCounters counters, StatusJournal journal, InstanceSearchIndex searchIndex,
+                            MetricsStore metricsStore, HealthProbeEngine probes, SyslogListener ingest,
+                            LogSegmentStore segments, LogArchive archive, LogLevelStats logLevels,
+                            LogSearchService logSearch, ChangeFeedPoller changeFeed,
+                            StuckDeploymentReconciler reconciler) {
+        this.lifecycle = lifecycle;
+        this.eventBus = eventBus;
+        this.cache = cache;
+        this.counters = counters;
+        this.journal = journal;
+        this.searchIndex = searchIndex;
+        this.metricsStore = metricsStore;
+        this.probes = probes;
+        this.ingest = ingest;
+        this.segments = segments;
+        this.archive = archive;
+        this.logLevels = logLevels;
+        this.logSearch = logSearch;
+        this.changeFeed = changeFeed;
+        this.reconciler = reconciler;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        // Lifecycle executor
+        Gauge.builder("central.manager.lifecycle.pending", lifecycle, l -> l.stats().pending())
+                .description("Lifecycle operations submitted and not finished")
+                .register(registry);
+        Gauge.builder("central.manager.lifecycle.running", lifecycle, l -> l.stats().running())
+                .register(registry);
+        FunctionCounter.builder("central.manager.lifecycle.finished", lifecycle, l -> l.stats().completed())
+                .tag("outcome", "completed").register(registry);
+        FunctionCounter.builder("central.manager.lifecycle.finished", lifecycle, l -> l.stats().failed())
+                .tag("outcome", "failed").register(registry);
+        FunctionCounter.builder("central.manager.lifecycle.finished", lifecycle, l -> l.stats().timedOut())
+                .tag("outcome", "timed_out").register(registry);
+        FunctionCounter.builder("central.manager.lifecycle.finished", lifecycle, l -> l.stats().cancelled())
+                .tag("outcome", "cancelled").register(registry);
+
+        // Server push
+        Gauge.builder("central.manager.push.pending", eventBus, InstanceEventBus::pendingEvents)
+                .description("Merged instance events waiting for the next push frame, over all UIs")
+                .register(registry);
+        Gauge.builder("central.manager.push.subscribers", eventBus, InstanceEventBus::subscriberCount)
+                .register(registry);
+
+        // Shared instance cache
+        Gauge.builder("central.manager.cache.size", cache, c -> c.stats().size()).register(registry);
+        FunctionCounter.builder("central.manager.cache.requests", cache, c -> c.stats().hits())
+                .tag("result", "hit").register(registry);
+        FunctionCounter.builder("central.manager.cache.requests", cache, c -> c.stats().misses())
+                .tag("result", "miss").register(registry);
+        FunctionCounter.builder("central.manager.cache.evictions", cache, c -> c.stats().evictions())
+                .register(registry);
+
+        // Fleet per status
+        for (InstanceStatus status : InstanceStatus.values()) {
+            Gauge.builder("central.manager.instances", counters, c -> c.count(status))
+                    .tag("status", status.name().toLowerCase()).register(registry);
+        }
+
+        // Status journal write-behind queue
+        Gauge.builder("central.manager.history.pending", journal, StatusJournal::pending).register(registry);
+        FunctionCounter.builder("central.manager.history.entries", journal, StatusJournal::written)
+                .tag("result", "written").register(registry);
+        FunctionCounter.builder("central.manager.history.entries", journal, StatusJournal::dropped)
+                .tag("result", "dropped").register(registry);
+
+        Gauge.builder("central.manager.search.index.size", searchIndex, InstanceSearchIndex::size)
+                .register(registry);
+        Gauge.builder("central.manager.metrics.instances", metricsStore, MetricsStore::size)
+                .register(registry);
+
+        // Last health probe round
+        Gauge.builder("central.manager.probes.round.duration", probes,
+                        p -> p.getLastRound().map(ProbeRound::durationMs).orElse(0L))
+                .baseUnit("milliseconds").register(registry);
+        Gauge.builder("central.manager.probes.down", probes,
+                        p -> p.getLastRound().map(ProbeRound::down).orElse(0))
+                .register(registry);
+
+        // Log ingestion and segment writer
+        Gauge.builder("central.manager.ingest.connections", ingest, SyslogListener::connections)
+                .register(registry);
+        Gauge.builder("central.manager.ingest.paused", ingest, i -> i.isPaused() ? 1 : 0)
+                .description("1 while reading is paused because too many bytes wait to be written")
+                .register(registry);
+        FunctionCounter.builder("central.manager.ingest.pauses", ingest, SyslogListener::pauses)
+                .register(registry);
+        Gauge.builder("central.manager.logs.pending", segments, LogSegmentStore::pendingBytes)
+                .baseUnit("bytes").register(registry);
+        FunctionCounter.builder("central.manager.logs.lines", segments, LogSegmentStore::linesWritten)
+                .tag("result", "written").register(registry);
+        FunctionCounter.builder("central.manager.logs.lines", segments, LogSegmentStore::unresolvedLines)
+                .tag("result", "unresolved").register(registry);
+        FunctionCounter.builder("central.manager.logs.commits", segments, LogSegmentStore::commits)
+                .register(registry);
+        FunctionCounter.builder("central.manager.logs.rolls", segments, LogSegmentStore::rolls)
+                .register(registry);
+
+        // Log archive: compression ratio is compressed / raw bytes
+        FunctionCounter.builder("central.manager.logs.archive.segments", archive, LogArchive::compressedSegments)
+                .tag("result", "compressed").register(registry);
+        FunctionCounter.builder("central.manager.logs.archive.segments", archive, LogArchive::deletedSegments)
+                .tag("result", "deleted").register(registry);
+        FunctionCounter.builder("central.manager.logs.archive.bytes", archive, LogArchive::rawBytes)
+                .tag("form", "raw").baseUnit("bytes").register(registry);
+        FunctionCounter.builder("central.manager.logs.archive.bytes", archive, LogArchive::compressedBytes)
+                .tag("form", "compressed").baseUnit("bytes").register(registry);
+
+        // Log search indexes kept in memory
+        Gauge.builder("central.manager.logs.search.index.bytes", logSearch, LogSearchService::indexBytes)
+                .baseUnit("bytes").register(registry);
+        FunctionCounter.builder("central.manager.logs.search.index.evictions", logSearch,
+                LogSearchService::evictedIndexes).register(registry);
+
+        // Ingested lines per level over the histogram window
+        Gauge.builder("central.manager.logs.window.lines", logLevels, l -> l.fleetWindow().errors())
+                .tag("level", "error").register(registry);
+        Gauge.builder("central.manager.logs.window.lines", logLevels, l -> l.fleetWindow().warnings())
+                .tag("level", "warn").register(registry);
+        Gauge.builder("central.manager.logs.window.lines", logLevels, l -> l.fleetWindow().lines())
+                .tag("level", "all").register(registry);
+
+        // Change feed: entries from other nodes applied locally
+        Gauge.builder("central.manager.cluster.cursor", changeFeed, ChangeFeedPoller::cursor)
+                .description("Last change feed sequence applied on this node").register(registry);
+        FunctionCounter.builder("central.manager.cluster.applied", changeFeed, ChangeFeedPoller::applied)
+                .register(registry);
+        FunctionCounter.builder("central.manager.cluster.gaps.skipped", changeFeed, ChangeFeedPoller::gapsSkipped)
+                .register(registry);
+
+        // Stuck deployments
+        Gauge.builder("central.manager.reconciler.stale", reconciler, StuckDeploymentReconciler::lastStale)
+                .description("Instances past the deployment deadline at the last reconciliation").register(registry);
+        FunctionCounter.builder("central.manager.reconciler.failed", reconciler, StuckDeploymentReconciler::failed)
+                .register(registry);
+        FunctionCounter.builder("central.manager.reconciler.retried", reconciler, StuckDeploymentReconciler::retried)
+                .register(registry);
+    }
+}
@@ -0,0 +1,77 @@
+package com.bludots.telemetry;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Timers and row-count summaries for the hot paths. Meters are created once per
+ * name/tag combination and cached, so recording does not go through the registry lookup.
+ * All timers publish histogram buckets for percentile queries in Prometheus.
+ */
+@Component
+public class Telemetry {
+
+    public static final String SERVICE = "central.manager.service";
+    public static final String SERVICE_ROWS = "central.manager.service.rows";
+    public static final String UI = "central.manager.ui";
+    public static final String LIFECYCLE = "central.manager.lifecycle";
+
+    private final MeterRegistry registry;
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+    private final Map<String, DistributionSummary> summaries = new ConcurrentHashMap<>();
+
+    public Telemetry(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    public <T> T time(String name, String operation, Supplier<T> body) {
+        return timer(name, operation, null).record(body);
+    }
+
+    public void run(String name, String operation, Runnable body) {
+        timer(name, operation, null).record(body);
+    }
+
+    // Service call returning rows: latency plus the number of rows returned
+    public <T> List<T> timeRows(String operation, Supplier<List<T>> body) {
+        List<T> rows = timer(SERVICE, operation, null).record(body);
+        rows(operation).record(rows == null ? 0 : rows.size());
+        return rows;
+    }
+
+    public Timer.Sample start() {
+        return Timer.start(registry);
+    }
+
+    // Ends a sample started with start(), tagged with how the operation ended
+    public void stop(Timer.Sample sample, String name, String operation, String outcome) {
+        sample.stop(timer(name, operation, outcome));
+    }
+
+    private Timer timer(String name, String operation, String outcome) {
+        return timers.computeIfAbsent(name + '|' + operation + '|' + outcome, key -> {
+            Timer.Builder builder = Timer.builder(name)
+                    .tag("operation", operation)
+                    .publishPercentileHistogram();
+            if (outcome != null) {
+                builder.tag("outcome", outcome);
+            }
+            return builder.register(registry);
+        });
+    }
+
+    private DistributionSummary rows(String operation) {
+        return summaries.computeIfAbsent(operation, key -> DistributionSummary.builder(SERVICE_ROWS)
+                .tag("operation", operation)
+                .baseUnit("rows")
+                .publishPercentileHistogram()
+                .register(registry));
+    }
+}
@@ -16,6 +16,7 @@ import com.vaadin.flow.server.menu.MenuConfiguration;
 import com.vaadin.flow.server.menu.MenuEntry;
 import com.vaadin.flow.theme.lumo.LumoUtility;
 import com.bludots.views.dashboard.DashboardView;
+import com.bludots.views.history.HistoryView;
 import com.bludots.views.home.HomeView;
 import com.bludots.views.logs.LogViewerView;
 import com.vaadin.flow.router.RouterLink;
@@ -65,10 +66,12 @@ public class MainLayout extends AppLayout {
         SideNavItem home = new SideNavItem("Home", HomeView.class);
         SideNavItem dashboard = new SideNavItem("Dashboard", DashboardView.class);
         SideNavItem logViewer = new SideNavItem("Log Viewer", LogViewerView.class);
+        SideNavItem history = new SideNavItem("History", HistoryView.class);
 
         nav.addItem(home);
         nav.addItem(dashboard);
         nav.addItem(logViewer);
+        nav.addItem(history);
 
         return nav;
     }
@@ -1,36 +1,70 @@
 package com.bludots.views.dashboard;
 
+import com.bludots.entities.InstanceStatus;
 import com.bludots.entities.TomcatInstanceEntity;
+import com.bludots.events.InstanceChangedEvent;
+import com.bludots.events.InstanceChangedEvent.ChangeType;
+import com.bludots.events.InstanceEventBus;
+import com.bludots.logs.LevelCounts;
+import com.bludots.metrics.MetricTier;
+import com.bludots.metrics.MetricType;
+import com.bludots.metrics.Sparklines;
+import com.bludots.services.BulkAction;
+import com.bludots.services.BulkProgress;
 import com.bludots.services.TomcatInstanceService;
+import com.bludots.telemetry.Telemetry;
 
+import com.vaadin.flow.component.AttachEvent;
+import com.vaadin.flow.component.DetachEvent;
 import com.vaadin.flow.component.UI;
 import com.vaadin.flow.component.button.Button;
+import com.vaadin.flow.component.combobox.ComboBox;
 import com.vaadin.flow.component.contextmenu.MenuItem;
 import com.vaadin.flow.component.contextmenu.SubMenu;
 import com.vaadin.flow.component.dialog.Dialog;
 import com.vaadin.flow.component.formlayout.FormLayout;
 import com.vaadin.flow.component.grid.Grid;
+import com.vaadin.flow.component.grid.contextmenu.GridContextMenu;
+import com.vaadin.flow.component.grid.contextmenu.GridMenuItem;
+import com.vaadin.flow.component.grid.dataview.GridLazyDataView;
 import com.vaadin.flow.component.html.H1;
 import com.vaadin.flow.component.html.H3;
 import com.vaadin.flow.component.html.Image;
 import com.vaadin.flow.component.html.Span;
 import com.vaadin.flow.component.menubar.MenuBar;
 import com.vaadin.flow.component.notification.Notification;
+import com.vaadin.flow.component.progressbar.ProgressBar;
 import com.vaadin.flow.component.orderedlayout.FlexComponent;
 import com.vaadin.flow.component.orderedlayout.HorizontalLayout;
 import com.vaadin.flow.component.orderedlayout.Scroller;
 import com.vaadin.flow.component.orderedlayout.VerticalLayout;
 import com.vaadin.flow.component.select.Select;
 import com.vaadin.flow.component.textfield.TextField;
+import com.vaadin.flow.data.provider.Query;
+import com.vaadin.flow.data.renderer.LitRenderer;
 import com.vaadin.flow.data.value.ValueChangeMode;
 import com.vaadin.flow.router.PageTitle;
 import com.vaadin.flow.router.Route;
 import com.vaadin.flow.server.auth.AnonymousAllowed;
+import com.vaadin.flow.shared.Registration;
+import com.vaadin.flow.spring.data.VaadinSpringDataHelpers;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 
 @PageTitle("Dashboard")
@@ -39,14 +73,58 @@ import java.util.stream.Collectors;
 public class DashboardView extends VerticalLayout {
 
     private final TomcatInstanceService service;
+    private final InstanceEventBus eventBus;
+    private final Telemetry telemetry;
+    private Registration eventRegistration;
     private final Grid<TomcatInstanceEntity> grid;
-    private List<TomcatInstanceEntity> allInstances;
     private TextField searchField;
     private final Span resultsCount;
+    private final Span statusSummary;
+    private final Span logSummary;
+
+    // Bulk actions on the selected rows
+    private HorizontalLayout bulkBar;
+    private Span selectionCount;
+    private ProgressBar bulkProgressBar;
+    private Span bulkProgressText;
+
+    // More changes than this in one push frame reload the grid instead of refreshing rows one by one
+    private static final int MAX_ROW_REFRESHES = 50;
+    // The search field sends its value once typing pauses this long
+    private static final int SEARCH_DEBOUNCE_MS = 300;
+    // Suggestions shown by the quick-find box
+    private static final int QUICK_FIND_LIMIT = 20;
+    // Status labels accepted by the add and edit dialogs
+    private static final String STATUS_LABELS = Arrays.stream(InstanceStatus.values())
+            .map(InstanceStatus::label).collect(Collectors.joining(", "));
+    // IPv4 address with an optional port, the forms the health probes understand
+    private static final Pattern ADDRESS = Pattern.compile(
+            "((25[0-5]|2[0-4][0-9]|[0-1]?[0-9][0-9]?)\\.){3}(25[0-5]|2[0-4][0-9]|[0-1]?[0-9][0-9]?)(:[0-9]{1,5})?");
+    // Response-time sparkline size in pixels
+    private static final int SPARK_WIDTH = 90;
+    private static final int SPARK_HEIGHT = 20;
+
+    // Filter last entered; its count may still be running
+    private String keywordFilter;
+    private String statusFilterValue = "All";
+    // Filter the grid shows, read by the lazy data provider
+    private String shownKeyword;
+    private String shownStatus = "All";
+    private long totalCount;
+    private long visibleCount;
+
+    // Keyset anchors: row offset -> id of the row just before it (only for the default id order)
+    private final Map<Integer, Long> keysetAnchors = new HashMap<>();
+    // Rows with a start/stop/redeploy from this view still running (touched under the session lock)
+    private final Set<Long> busy = new HashSet<>();
+    // Reused for every sparkline row (rendering happens under the session lock)
+    private final double[] sparkBuffer = new double[MetricTier.ONE_MINUTE.buckets()];
 
     @Autowired
-    public DashboardView(TomcatInstanceService service) {
+    public DashboardView(TomcatInstanceService service, InstanceEventBus eventBus, Telemetry telemetry) {
         this.service = service;
+        this.eventBus = eventBus;
+        this.telemetry = telemetry;
 
         setSizeFull();
         setPadding(false);
@@ -68,12 +146,55 @@ public class DashboardView extends VerticalLayout {
                 .set("margin", "8px 0 0 12px");
         add(resultsCount);
 
+        // Fleet-wide totals per status
+        statusSummary = new Span();
+        statusSummary.getStyle()
+                .set("font-size", "13px")
+                .set("color", "#666")
+                .set("margin", "2px 0 0 12px");
+        add(statusSummary);
+
+        // Fleet-wide log levels and the noisiest instances, from the ingest-time histograms
+        logSummary = new Span();
+        logSummary.getStyle()
+                .set("font-size", "13px")
+                .set("color", "#666")
+                .set("margin", "2px 0 0 12px");
+        add(logSummary);
+
+        // Bulk bar (visible while rows are selected)
+        add(createBulkBar());
+
         // GRID
         grid = new Grid<>(TomcatInstanceEntity.class, false);
-        grid.addColumn(TomcatInstanceEntity::getName).setHeader("Client").setAutoWidth(true);
-        grid.addComponentColumn(this::createStatusBadge).setHeader("Status").setAutoWidth(true);
-        grid.addColumn(TomcatInstanceEntity::getIpAddress).setHeader("IP Address").setAutoWidth(true);
-        grid.addComponentColumn(this::createActionMenu).setHeader("Actions").setAutoWidth(true);
+        grid.setSelectionMode(Grid.SelectionMode.MULTI);
+        grid.addSelectionListener(e -> updateBulkBar(e.getAllSelectedItems()));
+        grid.addColumn(TomcatInstanceEntity::getName).setHeader("Client").setAutoWidth(true)
+                .setSortProperty("name");
+        grid.addColumn(statusBadgeRenderer()).setHeader("Status").setAutoWidth(true)
+                .setSortProperty("status");
+        grid.addColumn(TomcatInstanceEntity::getIpAddress).setHeader("IP Address").setAutoWidth(true)
+                .setSortProperty("ipAddress");
+        grid.addColumn(LitRenderer.<TomcatInstanceEntity>of(
+                        "<svg width=\"" + SPARK_WIDTH + "\" height=\"" + SPARK_HEIGHT + "\">"
+                                + "<polyline points=\"${item.spark}\" fill=\"none\" stroke=\"#2E3A59\""
+                                + " stroke-width=\"1.5\"></polyline></svg>")
+                        .withProperty("spark", this::responseTimeSparkline))
+                .setHeader("Response time (1h)").setAutoWidth(true);
+        grid.addColumn(this::errorsCell).setHeader("Errors (1h)").setAutoWidth(true);
+        grid.addColumn(actionsRenderer()).setHeader("Actions").setAutoWidth(true);
+        createRowMenu();
+
+        // Lazy data provider: only the rows the client scrolls to are fetched. The background count
+        // is just the size estimate: rows can leave the filter before they are fetched, and a short
+        // page then ends the list where a fixed count would no longer match the rows
+        GridLazyDataView<TomcatInstanceEntity> dataView = grid.setItems(this::fetchInstances);
+        dataView.setIdentifierProvider(TomcatInstanceEntity::getId);
+        // The "Showing X of Y" label follows the grid's item count: the estimate, exact once the end is fetched
+        dataView.addItemCountChangeListener(e -> {
+            visibleCount = e.getItemCount();
+            updateResultsCount(visibleCount, totalCount);
+        });
 
         Scroller gridScroller = new Scroller(grid);
         gridScroller.setSizeFull();
@@ -85,6 +206,49 @@ public class DashboardView extends VerticalLayout {
         refreshData();
     }
 
+    // Server push: receive merged instance changes while this view is open
+    @Override
+    protected void onAttach(AttachEvent attachEvent) {
+        super.onAttach(attachEvent);
+        UI ui = attachEvent.getUI();
+        eventRegistration = eventBus.subscribe(events -> ui.access(() -> applyChanges(events)));
+    }
+
+    @Override
+    protected void onDetach(DetachEvent detachEvent) {
+        if (eventRegistration != null) {
+            eventRegistration.remove();
+            eventRegistration = null;
+        }
+        service.cancelSearches(this);
+        super.onDetach(detachEvent);
+    }
+
+    // Single-row updates; added/removed instances, and rows leaving the status filter, change counts and need a reload
+    private void applyChanges(List<InstanceChangedEvent> events) {
+        updateStatusSummary();
+        boolean structural = events.stream().anyMatch(e -> e.type() != ChangeType.UPDATED);
+        if (structural || events.size() > MAX_ROW_REFRESHES) {
+            refreshData();
+            return;
+        }
+        for (InstanceChangedEvent event : events) {
+            TomcatInstanceEntity fresh = service.getById(event.instanceId());
+            if (fresh != null && !matchesStatusFilter(fresh)) {
+                refreshData(); // e.g. a Stopped row under "Running": the row, count and anchors go
+                return;
+            }
+            if (fresh != null) {
+                grid.getDataProvider().refreshItem(fresh);
+            }
+        }
+    }
+
+    private boolean matchesStatusFilter(TomcatInstanceEntity instance) {
+        return shownStatus == null || shownStatus.equalsIgnoreCase("All")
+                || shownStatus.equalsIgnoreCase(instance.getStatus().label());
+    }
+
     // HEADER (Logo + Titel + Menu)
     private HorizontalLayout createHeader() {
         HorizontalLayout header = new HorizontalLayout();
@@ -129,18 +293,35 @@ public class DashboardView extends VerticalLayout {
         searchField.setPlaceholder("🔍 Search by Client or Status...");
         searchField.setClearButtonVisible(true);
         searchField.setWidth("280px");
-        searchField.setValueChangeMode(ValueChangeMode.EAGER);
+        searchField.setValueChangeMode(ValueChangeMode.LAZY);
+        searchField.setValueChangeTimeout(SEARCH_DEBOUNCE_MS);
 
         Select<String> statusFilter = new Select<>();
-        statusFilter.setItems("All", "Running", "Stopped", "Deploying");
+        statusFilter.setItems("All", "Running", "Stopped", "Deploying", "Failed");
         statusFilter.setValue("All");
         statusFilter.setWidth("150px");
 
+        // Quick find: ranked typeahead over names and IPs, opens the instance
+        ComboBox<TomcatInstanceEntity> quickFind = new ComboBox<>();
+        quickFind.setPlaceholder("⚡ Quick find (name or IP)");
+        quickFind.setWidth("260px");
+        quickFind.setItems(query -> service.lookup(query.getFilter().orElse(null), QUICK_FIND_LIMIT).stream()
+                .skip(query.getOffset())
+                .limit(query.getLimit()));
+        quickFind.setItemLabelGenerator(i -> i.getName() + " (" + i.getIpAddress() + ")");
+        quickFind.addValueChangeListener(e -> {
+            if (e.getValue() != null) {
+                openEditDialog(e.getValue());
+                quickFind.clear();
+            }
+        });
+
         Button refreshButton = new Button("🔄 Refresh", e -> refreshData());
         Button addButton = new Button("➕ Add Instance", e -> openAddDialog());
         addButton.getStyle().set("background-color", "#4CAF50").set("color", "white");
 
-        HorizontalLayout bar = new HorizontalLayout(searchField, statusFilter, refreshButton, addButton);
+        HorizontalLayout bar = new HorizontalLayout(searchField, statusFilter, quickFind, refreshButton,
+                addButton);
         bar.setWidthFull();
         bar.setAlignItems(FlexComponent.Alignment.END);
         bar.setJustifyContentMode(FlexComponent.JustifyContentMode.BETWEEN);
@@ -157,37 +338,198 @@ public class DashboardView extends VerticalLayout {
     }
 
     private void refreshData() {
-        allInstances = service.getAll();
-        grid.setItems(allInstances);
-        updateResultsCount(allInstances.size(), allInstances.size());
+        telemetry.run(Telemetry.UI, "refreshData", () -> {
+            totalCount = service.count(null, null);
+            updateStatusSummary();
+            reloadGrid();
+        });
+    }
+
+    // Reads the in-memory counters, no query
+    private void updateStatusSummary() {
+        statusSummary.setText(service.getStatusSummary().entrySet().stream()
+                .map(e -> e.getKey().label() + ": " + e.getValue())
+                .collect(Collectors.joining(" · ")));
+        updateLogSummary();
+    }
+
+    // Precomputed window counts and ranking, independent of fleet size and log volume
+    private void updateLogSummary() {
+        LevelCounts fleet = service.getFleetLogLevels();
+        String noisiest = service.getNoisiestInstances().entrySet().stream()
+                .limit(5)
+                .map(e -> instanceName(e.getKey()) + " " + e.getValue().errors())
+                .collect(Collectors.joining(", "));
+        logSummary.setText(String.format("Logs (1h): %d errors (%.1f%%) · %d warnings · %d lines", fleet.errors(),
+                fleet.errorRate() * 100, fleet.warnings(), fleet.lines())
+                + (noisiest.isEmpty() ? "" : " · noisiest: " + noisiest));
+    }
+
+    private String instanceName(Long id) {
+        TomcatInstanceEntity instance = service.getById(id);
+        return instance != null ? instance.getName() : "#" + id;
+    }
+
+    private String errorsCell(TomcatInstanceEntity instance) {
+        LevelCounts counts = service.getLogLevels(instance.getId());
+        return counts.errors() == 0 ? "" : String.format("%d (%.1f%%)", counts.errors(), counts.errorRate() * 100);
     }
 
     // ----------------- Filter via service -----------------
     private void filterData(String textFilter, String statusFilter) {
-        // Haal gefilterde data op via service
-        List<TomcatInstanceEntity> filtered = service.searchAndFilter(textFilter, statusFilter);
+        if (Objects.equals(normalize(textFilter), normalize(keywordFilter))
+                && Objects.equals(statusFilter, statusFilterValue)) {
+            return; // e.g. only whitespace changed
+        }
+        keywordFilter = textFilter;
+        statusFilterValue = statusFilter;
+        telemetry.run(Telemetry.UI, "filterData", this::reloadGrid);
+    }
 
-        // Toon gefilterde resultaten
-        grid.setItems(filtered);
+    // The count runs in the background, latest wins: a newer filter cancels the search of an older one
+    // still running. The grid keeps its rows until the count is in, then fetches rows for the same filter.
+    private void reloadGrid() {
+        String keyword = keywordFilter;
+        String status = statusFilterValue;
+        CompletableFuture<Long> count = service.countLatest(this, keyword, status);
+        if (count.isDone() && !count.isCompletedExceptionally()) {
+            showResults(keyword, status, count.join()); // from the counters, no query
+            return;
+        }
+        UI ui = UI.getCurrent();
+        count.whenComplete((matching, error) -> ui.access(() -> {
+            Throwable cause = error instanceof CompletionException ? error.getCause() : error;
+            if (cause == null) {
+                if (Objects.equals(keyword, keywordFilter) && Objects.equals(status, statusFilterValue)) {
+                    showResults(keyword, status, matching);
+                } // else finished just before a newer filter was entered
+            } else if (!(cause instanceof CancellationException)) {
+                Notification.show("⚠️ Search failed: " + cause.getMessage());
+            } // else superseded by a newer filter
+        }));
+    }
 
-        // Update teller
-        updateResultsCount(filtered.size(), allInstances == null ? filtered.size() : allInstances.size());
+    private void showResults(String keyword, String status, long matching) {
+        shownKeyword = keyword;
+        shownStatus = status;
+        keysetAnchors.clear();
+        grid.getLazyDataView().setItemCountEstimate(Math.clamp(matching, 1, Integer.MAX_VALUE));
+        // refreshAll only marks the grid dirty; the fetch runs once when the response is written,
+        // so several filter changes in one round trip end up as a single query with the last filter
+        grid.getDataProvider().refreshAll();
+
+        // Update teller (the filtered count follows through the item count listener)
+        updateResultsCount(visibleCount, totalCount);
     }
 
+    private static String normalize(String text) {
+        return text == null ? "" : text.trim();
+    }
 
-    // ACTIES via 3-dot Menu
-    private MenuBar createActionMenu(TomcatInstanceEntity instance) {
-        MenuBar menuBar = new MenuBar();
-        MenuItem main = menuBar.addItem("⋮");
-        SubMenu sub = main.getSubMenu();
+    // Fetch one page; uses keyset pagination when scrolling forward in the default order
+    private Stream<TomcatInstanceEntity> fetchInstances(Query<TomcatInstanceEntity, Void> query) {
+        int offset = query.getOffset();
+        int limit = query.getLimit();
+        boolean defaultOrder = query.getSortOrders().isEmpty();
+
+        List<TomcatInstanceEntity> rows;
+        if (defaultOrder && (offset == 0 || keysetAnchors.containsKey(offset))) {
+            rows = service.fetchPageAfter(shownKeyword, shownStatus, keysetAnchors.get(offset), limit);
+        } else {
+            rows = service.fetchPage(shownKeyword, shownStatus,
+                    VaadinSpringDataHelpers.toSpringPageRequest(query));
+        }
 
-        sub.addItem("▶️ Start", e -> asyncStart(instance, e.getSource()));
-        sub.addItem("⏹️ Stop", e -> asyncStop(instance, e.getSource()));
-        sub.addItem("🔁 Redeploy", e -> asyncRedeploy(instance, e.getSource()));
-        sub.addItem("✏️ Edit", e -> openEditDialog(instance));
-        sub.addItem("🗑️ Delete", e -> openDeleteConfirmation(instance));
+        if (defaultOrder && !rows.isEmpty()) {
+            keysetAnchors.put(offset + rows.size(), rows.get(rows.size() - 1).getId());
+        }
+        return rows.stream();
+    }
+
+
+    // BULK BAR
+    private HorizontalLayout createBulkBar() {
+        selectionCount = new Span();
+        Button startAll = new Button("▶️ Start selected", e -> runBulk(BulkAction.START));
+        Button stopAll = new Button("⏹️ Stop selected", e -> runBulk(BulkAction.STOP));
+        Button redeployAll = new Button("🔁 Redeploy selected", e -> runBulk(BulkAction.REDEPLOY));
+
+        bulkProgressBar = new ProgressBar();
+        bulkProgressBar.setWidth("200px");
+        bulkProgressBar.setVisible(false);
+        bulkProgressText = new Span();
+
+        bulkBar = new HorizontalLayout(selectionCount, startAll, stopAll, redeployAll, bulkProgressBar, bulkProgressText);
+        bulkBar.setAlignItems(FlexComponent.Alignment.CENTER);
+        bulkBar.getStyle().set("padding", "6px 20px");
+        bulkBar.setVisible(false);
+        return bulkBar;
+    }
+
+    private void updateBulkBar(Set<TomcatInstanceEntity> selected) {
+        selectionCount.setText(selected.size() + " selected");
+        bulkBar.setVisible(!selected.isEmpty() || bulkProgressBar.isVisible());
+    }
+
+    private void runBulk(BulkAction action) {
+        List<Long> ids = grid.getSelectedItems().stream().map(TomcatInstanceEntity::getId).toList();
+        if (ids.isEmpty()) {
+            return;
+        }
+        UI ui = UI.getCurrent();
+        grid.deselectAll();
+        bulkProgressBar.setValue(0);
+        bulkProgressBar.setVisible(true);
+        bulkBar.setVisible(true);
+
+        service.bulkOperation(action, ids, progress -> ui.access(() -> showBulkProgress(progress)))
+                .whenComplete((result, error) -> ui.access(() -> {
+                    bulkProgressBar.setVisible(false);
+                    updateBulkBar(grid.getSelectedItems());
+                    if (error != null) {
+                        Notification.show("❌ Bulk " + action.name().toLowerCase() + " failed: " + error.getMessage());
+                    } else {
+                        Notification.show("✅ Bulk " + action.name().toLowerCase() + " done: " + result.succeeded()
+                                + " ok, " + result.failed() + " failed, " + result.skipped() + " skipped.");
+                    }
+                }));
+    }
+
+    private void showBulkProgress(BulkProgress progress) {
+        bulkProgressBar.setValue(progress.total() == 0 ? 1 : (double) progress.processed() / progress.total());
+        bulkProgressText.setText(progress.action().name().toLowerCase() + ": " + progress.processed() + " / "
+                + progress.total() + " (" + progress.failed() + " failed)");
+    }
+
+    // ACTIES via 3-dot button: re-fires the click as a contextmenu event so the grid's
+    // shared row menu opens for this row. Package-private for the row rendering benchmark
+    static LitRenderer<TomcatInstanceEntity> actionsRenderer() {
+        return LitRenderer.of("<vaadin-button theme=\"tertiary-inline\" aria-label=\"Actions\""
+                + " @click=\"${e => e.currentTarget.dispatchEvent(new MouseEvent('contextmenu',"
+                + " {bubbles: true, composed: true, clientX: e.clientX, clientY: e.clientY}))}\">⋮</vaadin-button>");
+    }
 
-        return menuBar;
+    // One context menu for all rows (right-click or the ⋮ button)
+    private void createRowMenu() {
+        GridContextMenu<TomcatInstanceEntity> menu = grid.addContextMenu();
+        GridMenuItem<TomcatInstanceEntity> start = menu.addItem("▶️ Start", e -> e.getItem().ifPresent(this::asyncStart));
+        GridMenuItem<TomcatInstanceEntity> stop = menu.addItem("⏹️ Stop", e -> e.getItem().ifPresent(this::asyncStop));
+        GridMenuItem<TomcatInstanceEntity> redeploy = menu.addItem("🔁 Redeploy",
+                e -> e.getItem().ifPresent(this::asyncRedeploy));
+        menu.addItem("✖ Cancel pending", e -> e.getItem().ifPresent(this::cancelOperations));
+        menu.addItem("✏️ Edit", e -> e.getItem().ifPresent(this::openEditDialog));
+        menu.addItem("🗑️ Delete", e -> e.getItem().ifPresent(this::openDeleteConfirmation));
+        // Lifecycle items stay disabled while an operation started here is in flight for the row
+        menu.setDynamicContentHandler(instance -> {
+            if (instance == null) {
+                return false; // not on a row
+            }
+            boolean idle = !busy.contains(instance.getId());
+            start.setEnabled(idle);
+            stop.setEnabled(idle);
+            redeploy.setEnabled(idle);
+            return true;
+        });
     }
 
     // ADD DIALOG
@@ -196,7 +538,7 @@ public class DashboardView extends VerticalLayout {
         dialog.setHeaderTitle("Add New Tomcat Instance");
 
         TextField nameField = new TextField("Client Name");
-        TextField statusField = new TextField("Status (Running / Stopped / Deploying)");
+        TextField statusField = new TextField("Status");
         TextField ipField = new TextField("IP Address");
 
         nameField.setRequiredIndicatorVisible(true);
@@ -204,8 +546,8 @@ public class DashboardView extends VerticalLayout {
         ipField.setRequiredIndicatorVisible(true);
 
         nameField.setHelperText("Enter Firstname and Lastname");
-        statusField.setHelperText("Allowed values: Running, Stopped, Deploying");
-        ipField.setHelperText("e.g. 10.0.0.12");
+        statusField.setHelperText("Allowed values: " + STATUS_LABELS);
+        ipField.setHelperText("e.g. 10.0.0.12, or 127.0.0.1:18080 with a port");
 
         Button save = new Button("Save", e -> {
             String name = nameField.getValue().trim();
@@ -216,20 +558,19 @@ public class DashboardView extends VerticalLayout {
                 Notification.show("⚠️ Please fill all fields!");
                 return;
             }
-            if (!status.matches("(?i)Running|Stopped|Deploying")) {
-                Notification.show("⚠️ Invalid status! Use: Running, Stopped or Deploying.");
+            if (Arrays.stream(InstanceStatus.values()).noneMatch(s -> s.label().equalsIgnoreCase(status))) {
+                Notification.show("⚠️ Invalid status! Use one of: " + STATUS_LABELS + ".");
                 return;
             }
-            if (!ip.matches("^((25[0-5]|2[0-4][0-9]|[0-1]?[0-9][0-9]?)\\.){3}(25[0-5]|2[0-4][0-9]|[0-1]?[0-9][0-9]?)$")) {
-                Notification.show("⚠️ Invalid IP address!");
+            if (!isValidAddress(ip)) {
+                Notification.show("⚠️ Invalid IP address! Use an IPv4 address, optionally with a port.");
                 return;
             }
 
-            TomcatInstanceEntity instance = new TomcatInstanceEntity(name, status, ip);
+            TomcatInstanceEntity instance = new TomcatInstanceEntity(name, InstanceStatus.fromLabel(status), ip);
             service.save(instance);
             Notification.show("✅ Instance added successfully!");
             dialog.close();
-            refreshData();
         });
 
         Button cancel = new Button("Cancel", e -> dialog.close());
@@ -246,52 +587,47 @@ public class DashboardView extends VerticalLayout {
         dialog.setHeaderTitle("Edit Instance");
 
         TextField nameField = new TextField("Client Name");
-        TextField statusField = new TextField("Status (Running / Stopped / Deploying)");
+        TextField statusField = new TextField("Status");
         TextField ipField = new TextField("IP Address");
 
         // Prefill values
         nameField.setValue(instance.getName());
-        statusField.setValue(instance.getStatus());
+        statusField.setValue(instance.getStatus().label());
         ipField.setValue(instance.getIpAddress());
 
-        // Same UI requirements as Add
+        // Same UI requirements as Add; the status only changes through start, stop and redeploy
         nameField.setRequiredIndicatorVisible(true);
-        statusField.setRequiredIndicatorVisible(true);
         ipField.setRequiredIndicatorVisible(true);
+        statusField.setReadOnly(true);
 
         nameField.setHelperText("Enter Firstname and Lastname");
-        statusField.setHelperText("Allowed values: Running, Stopped, Deploying");
-        ipField.setHelperText("e.g. 10.0.0.12");
+        statusField.setHelperText("Use Start, Stop or Redeploy to change it");
+        ipField.setHelperText("e.g. 10.0.0.12, or 127.0.0.1:18080 with a port");
 
         Button save = new Button("Save", e -> {
             String name = nameField.getValue().trim();
-            String status = statusField.getValue().trim();
             String ip = ipField.getValue().trim();
 
-            if (name.isEmpty() || status.isEmpty() || ip.isEmpty()) {
+            if (name.isEmpty() || ip.isEmpty()) {
                 Notification.show("⚠️ Please fill all fields!");
                 return;
             }
 
-            if (!status.matches("(?i)Running|Stopped|Deploying")) {
-                Notification.show("⚠️ Invalid status! Use: Running, Stopped or Deploying.");
+            if (!isValidAddress(ip)) {
+                Notification.show("⚠️ Invalid IP address! Use an IPv4 address, optionally with a port.");
                 return;
             }
 
-            if (!ip.matches("^((25[0-5]|2[0-4][0-9]|[0-1]?[0-9][0-9]?)\\.){3}(25[0-5]|2[0-4][0-9]|[0-1]?[0-9][0-9]?)$")) {
-                Notification.show("⚠️ Invalid IP address!");
+            try {
+                service.update(instance.getId(), name, ip);
+            } catch (ObjectOptimisticLockingFailureException ex) {
+                Notification.show("⚠️ " + instance.getName() + " no longer exists.");
+                dialog.close();
                 return;
             }
 
-            // Apply changes only if valid
-            instance.setName(name);
-            instance.setStatus(status);
-            instance.setIpAddress(ip);
-            service.save(instance);
-
             Notification.show("✅ Updated successfully!");
             dialog.close();
-            refreshData();
         });
 
         Button cancel = new Button("Cancel", e -> dialog.close());
@@ -302,6 +638,14 @@ public class DashboardView extends VerticalLayout {
         dialog.open();
     }
 
+    private static boolean isValidAddress(String address) {
+        if (!ADDRESS.matcher(address).matches()) {
+            return false;
+        }
+        int colon = address.indexOf(':');
+        return colon < 0 || Integer.parseInt(address.substring(colon + 1)) <= 65535;
+    }
+
     // Delete
     private void openDeleteConfirmation(TomcatInstanceEntity instance) {
         Dialog confirm = new Dialog();
@@ -311,62 +655,71 @@ public class DashboardView extends VerticalLayout {
             service.delete(instance.getId());
             Notification.show("🗑️ Instance deleted successfully.");
             confirm.close();
-            refreshData();
         });
         Button cancel = new Button("Cancel", e -> confirm.close());
         confirm.add(msg, new HorizontalLayout(yes, cancel));
         confirm.open();
     }
 
-    // ASYNC Start (knop disablen)
-    private void asyncStart(TomcatInstanceEntity instance, MenuItem item) {
-        item.setEnabled(false);
-        service.startInstanceAsync(instance, UI.getCurrent())
-                .thenRun(() -> UI.getCurrent().access(() -> {
-                    item.setEnabled(true);
-                    refreshData();
-                }));
+    // ASYNC Start (rij disablen)
+    private void asyncStart(TomcatInstanceEntity instance) {
+        UI ui = UI.getCurrent();
+        busy.add(instance.getId());
+        service.startInstanceAsync(instance, ui)
+                .whenComplete((v, error) -> ui.access(() -> busy.remove(instance.getId())));
     }
 
     // ASYNC Stop
-    private void asyncStop(TomcatInstanceEntity instance, MenuItem item) {
-        item.setEnabled(false);
-        service.stopInstanceAsync(instance, UI.getCurrent())
-                .thenRun(() -> UI.getCurrent().access(() -> {
-                    item.setEnabled(true);
-                    refreshData();
-                }));
+    private void asyncStop(TomcatInstanceEntity instance) {
+        UI ui = UI.getCurrent();
+        busy.add(instance.getId());
+        service.stopInstanceAsync(instance, ui)
+                .whenComplete((v, error) -> ui.access(() -> busy.remove(instance.getId())));
     }
 
     // ASYNC Redeploy
-    private void asyncRedeploy(TomcatInstanceEntity instance, MenuItem item) {
-        item.setEnabled(false);
-        service.redeployInstanceAsync(instance, UI.getCurrent())
-                .thenRun(() -> UI.getCurrent().access(() -> {
-                    item.setEnabled(true);
-                    refreshData();
-                }));
+    private void asyncRedeploy(TomcatInstanceEntity instance) {
+        UI ui = UI.getCurrent();
+        busy.add(instance.getId());
+        service.redeployInstanceAsync(instance, ui)
+                .whenComplete((v, error) -> ui.access(() -> busy.remove(instance.getId())));
     }
 
-    private void updateResultsCount(int visible, int total) {
+    // Cancel queued/running start, stop and redeploy operations
+    private void cancelOperations(TomcatInstanceEntity instance) {
+        int cancelled = service.cancelOperations(instance.getId());
+        Notification.show(cancelled == 0
+                ? "Nothing pending for " + instance.getName() + "."
+                : "✖ Cancelled " + cancelled + " operation(s) for " + instance.getName() + ".");
+    }
+
+    private void updateResultsCount(long visible, long total) {
         resultsCount.setText("Showing " + visible + " of " + total + " instances");
     }
 
-    // Status Badge
-    private Span createStatusBadge(TomcatInstanceEntity instance) {
-        Span badge = new Span(instance.getStatus());
-        badge.getStyle()
-                .set("padding", "5px 10px")
-                .set("border-radius", "10px")
-                .set("color", "white")
-                .set("font-weight", "bold");
+    private String responseTimeSparkline(TomcatInstanceEntity instance) {
+        int count = service.readMetrics(instance.getId(), MetricType.RESPONSE_TIME_MS, MetricTier.ONE_MINUTE,
+                sparkBuffer);
+        return Sparklines.points(sparkBuffer, count, SPARK_WIDTH, SPARK_HEIGHT);
+    }
 
-        switch (instance.getStatus()) {
-            case "Running" -> badge.getStyle().set("background-color", "#4CAF50");
-            case "Stopped" -> badge.getStyle().set("background-color", "#F44336");
-            case "Deploying" -> badge.getStyle().set("background-color", "#FFC107").set("color", "black");
-            default -> badge.getStyle().set("background-color", "#9E9E9E");
-        }
-        return badge;
+    // Status Badge (rendered in the browser from three row properties)
+    static LitRenderer<TomcatInstanceEntity> statusBadgeRenderer() {
+        return LitRenderer.<TomcatInstanceEntity>of(
+                        "<span style=\"padding: 5px 10px; border-radius: 10px; font-weight: bold;"
+                                + " color: ${item.statusColor}; background-color: ${item.statusBackground}\">"
+                                + "${item.status}</span>")
+                .withProperty("status", i -> i.getStatus().label())
+                .withProperty("statusColor", i -> i.getStatus() == InstanceStatus.DEPLOYING ? "black" : "white")
+                .withProperty("statusBackground", i -> badgeColor(i.getStatus()));
+    }
+
+    private static String badgeColor(InstanceStatus status) {
+        return switch (status) {
+            case RUNNING -> "#4CAF50";
+            case STOPPED -> "#F44336";
+            case DEPLOYING -> "#FFC107";
+            case FAILED -> "#8E24AA";
+        };
     }
 }
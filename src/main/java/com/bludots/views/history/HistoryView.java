@@ -0,0 +1,179 @@
+package com.bludots.views.history;
+
+import com.bludots.entities.InstanceStatus;
+import com.bludots.entities.StatusChangeEntity;
+import com.bludots.entities.TomcatInstanceEntity;
+import com.bludots.services.TomcatInstanceService;
+import com.bludots.views.MainLayout;
+import com.vaadin.flow.component.button.Button;
+import com.vaadin.flow.component.combobox.ComboBox;
+import com.vaadin.flow.component.datetimepicker.DateTimePicker;
+import com.vaadin.flow.component.grid.Grid;
+import com.vaadin.flow.component.html.H1;
+import com.vaadin.flow.component.html.Span;
+import com.vaadin.flow.component.orderedlayout.FlexComponent;
+import com.vaadin.flow.component.orderedlayout.HorizontalLayout;
+import com.vaadin.flow.component.orderedlayout.VerticalLayout;
+import com.vaadin.flow.data.provider.Query;
+import com.vaadin.flow.router.PageTitle;
+import com.vaadin.flow.router.Route;
+import com.vaadin.flow.server.auth.AnonymousAllowed;
+import com.vaadin.flow.spring.data.VaadinSpringDataHelpers;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+@PageTitle("History")
+@Route(value = "history", layout = MainLayout.class)
+@AnonymousAllowed
+public class HistoryView extends VerticalLayout {
+
+    private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    // Default time range when the view opens
+    private static final Duration DEFAULT_RANGE = Duration.ofHours(24);
+
+    private final TomcatInstanceService service;
+    private final ComboBox<TomcatInstanceEntity> instanceSelect;
+    private final DateTimePicker fromPicker;
+    private final DateTimePicker toPicker;
+    private final Grid<StatusChangeEntity> grid;
+    private final Span resultsCount;
+
+    // Instance names of the rows on screen (deleted instances keep their id only)
+    private final Map<Long, String> instanceNames = new HashMap<>();
+    // Filters as of the last reload: "to" is pinned, so entries written while scrolling don't shift the pages
+    private HistoryRange range;
+    // Keyset anchors: row offset -> the entry just before it
+    private final Map<Integer, StatusChangeEntity> keysetAnchors = new HashMap<>();
+
+    public HistoryView(TomcatInstanceService service) {
+        this.service = service;
+
+        setSizeFull();
+        setPadding(true);
+        setSpacing(true);
+
+        H1 title = new H1("🕘 Status History");
+        title.getStyle()
+                .set("color", "#2E3A59")
+                .set("font-size", "1.6em")
+                .set("margin-bottom", "0");
+
+        // Filters: one instance or the whole fleet, and a time range
+        instanceSelect = new ComboBox<>("Instance");
+        instanceSelect.setItems(query -> service.fetchPage(query.getFilter().orElse(null), null,
+                VaadinSpringDataHelpers.toSpringPageRequest(query)).stream());
+        instanceSelect.setItemLabelGenerator(i -> i.getName() + " (" + i.getIpAddress() + ")");
+        instanceSelect.setPlaceholder("All instances");
+        instanceSelect.setClearButtonVisible(true);
+        instanceSelect.setWidth("320px");
+        instanceSelect.addValueChangeListener(e -> reload());
+
+        LocalDateTime now = LocalDateTime.now();
+        fromPicker = new DateTimePicker("From", now.minus(DEFAULT_RANGE));
+        toPicker = new DateTimePicker("To");
+        toPicker.setHelperText("Empty = now");
+        fromPicker.addValueChangeListener(e -> reload());
+        toPicker.addValueChangeListener(e -> reload());
+
+        Button refreshButton = new Button("🔄 Refresh", e -> reload());
+
+        HorizontalLayout filters = new HorizontalLayout(instanceSelect, fromPicker, toPicker, refreshButton);
+        filters.setAlignItems(FlexComponent.Alignment.BASELINE);
+        filters.setWrap(true);
+
+        resultsCount = new Span();
+        resultsCount.getStyle().set("font-size", "14px").set("color", "#666");
+
+        // Lazy grid: pages come straight from the (instance_id, changed_at) / changed_at index,
+        // keyset-paged on (changed_at, id) when scrolling forward
+        grid = new Grid<>(StatusChangeEntity.class, false);
+        grid.addColumn(c -> TIME_FORMAT.format(c.getChangedAt())).setHeader("Time").setAutoWidth(true);
+        grid.addColumn(c -> instanceName(c.getInstanceId())).setHeader("Instance").setAutoWidth(true);
+        grid.addColumn(c -> label(c.getFromStatus())).setHeader("From").setAutoWidth(true);
+        grid.addColumn(c -> label(c.getToStatus())).setHeader("To").setAutoWidth(true);
+        grid.addColumn(StatusChangeEntity::getAction).setHeader("Action").setAutoWidth(true);
+        grid.addColumn(StatusChangeEntity::getActor).setHeader("Actor").setAutoWidth(true);
+        grid.addColumn(c -> formatDuration(c.getDurationMs())).setHeader("Time in previous status")
+                .setAutoWidth(true);
+        range = currentRange();
+        grid.setItems(this::fetchHistory,
+                        query -> (int) service.countHistory(range.instanceId(), range.from(), range.to()))
+                .addItemCountChangeListener(e -> resultsCount.setText(e.getItemCount() + " status changes"));
+
+        add(title, filters, resultsCount, grid);
+        setFlexGrow(1, grid);
+    }
+
+    private void reload() {
+        instanceNames.clear();
+        keysetAnchors.clear();
+        range = currentRange();
+        grid.getDataProvider().refreshAll();
+    }
+
+    // Fetch one page; jumps without an anchor (e.g. dragging the scrollbar) fall back to offset paging
+    private Stream<StatusChangeEntity> fetchHistory(Query<StatusChangeEntity, Void> query) {
+        int offset = query.getOffset();
+        StatusChangeEntity anchor = keysetAnchors.get(offset);
+        List<StatusChangeEntity> rows = anchor != null
+                ? service.getHistoryBefore(range.instanceId(), range.from(), anchor.getChangedAt(), anchor.getId(),
+                        query.getLimit())
+                : service.getHistory(range.instanceId(), range.from(), range.to(),
+                        VaadinSpringDataHelpers.toSpringPageRequest(query));
+        if (!rows.isEmpty()) {
+            keysetAnchors.put(offset + rows.size(), rows.get(rows.size() - 1));
+        }
+        return rows.stream();
+    }
+
+    private HistoryRange currentRange() {
+        return new HistoryRange(selectedInstanceId(), from(), to());
+    }
+
+    private Long selectedInstanceId() {
+        TomcatInstanceEntity selected = instanceSelect.getValue();
+        return selected == null ? null : selected.getId();
+    }
+
+    private LocalDateTime from() {
+        return fromPicker.getValue() != null ? fromPicker.getValue() : LocalDateTime.now().minus(DEFAULT_RANGE);
+    }
+
+    private LocalDateTime to() {
+        return toPicker.getValue() != null ? toPicker.getValue() : LocalDateTime.now();
+    }
+
+    private String instanceName(Long id) {
+        return instanceNames.computeIfAbsent(id, key -> {
+            TomcatInstanceEntity instance = service.getById(key);
+            return instance != null ? instance.getName() : "#" + key + " (deleted)";
+        });
+    }
+
+    private static String label(InstanceStatus status) {
+        return status == null ? "—" : status.label();
+    }
+
+    private static String formatDuration(Long durationMs) {
+        if (durationMs == null) {
+            return "";
+        }
+        Duration duration = Duration.ofMillis(durationMs);
+        if (duration.toHours() > 0) {
+            return duration.toHours() + "h " + duration.toMinutesPart() + "m";
+        }
+        if (duration.toMinutes() > 0) {
+            return duration.toMinutes() + "m " + duration.toSecondsPart() + "s";
+        }
+        return duration.toSeconds() + "." + (duration.toMillisPart() / 100) + "s";
+    }
+
+    private record HistoryRange(Long instanceId, LocalDateTime from, LocalDateTime to) {
+    }
+}
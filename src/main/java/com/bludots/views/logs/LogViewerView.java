@@ -1,21 +1,49 @@
 package com.bludots.views.logs;
 
+import com.bludots.entities.TomcatInstanceEntity;
+import com.bludots.logs.LogCursor;
+import com.bludots.logs.LogHit;
+import com.bludots.logs.LogLevel;
+import com.bludots.logs.LogLine;
+import com.bludots.logs.LogLineBuffer;
+import com.bludots.logs.LogQuery;
+import com.bludots.logs.LogSearch;
+import com.bludots.services.TomcatInstanceService;
+import com.vaadin.flow.component.AttachEvent;
+import com.vaadin.flow.component.DetachEvent;
+import com.vaadin.flow.component.UI;
 import com.vaadin.flow.component.button.Button;
+import com.vaadin.flow.component.checkbox.Checkbox;
+import com.vaadin.flow.component.checkbox.CheckboxGroup;
+import com.vaadin.flow.component.combobox.ComboBox;
+import com.vaadin.flow.component.datetimepicker.DateTimePicker;
 import com.vaadin.flow.component.dependency.CssImport;
-import com.vaadin.flow.component.html.Div;
 import com.vaadin.flow.component.html.H1;
 import com.vaadin.flow.component.html.Span;
 import com.vaadin.flow.component.notification.Notification;
 import com.vaadin.flow.component.orderedlayout.FlexComponent;
+import com.vaadin.flow.component.orderedlayout.HorizontalLayout;
 import com.vaadin.flow.component.orderedlayout.VerticalLayout;
+import com.vaadin.flow.component.textfield.TextField;
+import com.vaadin.flow.component.virtuallist.VirtualList;
+import com.vaadin.flow.data.provider.CallbackDataProvider;
+import com.vaadin.flow.data.provider.DataProvider;
+import com.vaadin.flow.data.renderer.LitRenderer;
 import com.vaadin.flow.router.PageTitle;
 import com.vaadin.flow.router.Route;
 import com.vaadin.flow.server.auth.AnonymousAllowed;
+import com.vaadin.flow.shared.Registration;
+import com.vaadin.flow.spring.data.VaadinSpringDataHelpers;
 import com.bludots.views.MainLayout;
 
+import org.springframework.beans.factory.annotation.Value;
+
+import java.time.Instant;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.time.ZoneId;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @PageTitle("Log Viewer")
 @Route(value = "logs", layout = MainLayout.class)
@@ -23,9 +51,40 @@ import java.util.List;
 @CssImport(value = "./themes/central-manager/styles.css")
 public class LogViewerView extends VerticalLayout {
 
-    private final VerticalLayout logContainer;
+    private final TomcatInstanceService service;
+    private final ComboBox<TomcatInstanceEntity> instanceSelect;
+    private final Checkbox followTail;
+    private final Span status;
+
+    // Only the visible lines exist client-side; server memory is capped by the ring buffer
+    private final VirtualList<LogLine> logList;
+    private final LogLineBuffer buffer;
+    private final CallbackDataProvider<LogLine, Void> logProvider;
+
+    // Read position of this view in the selected instance log
+    private final LogCursor cursor = new LogCursor();
+
+    private final int followIntervalMs;
+    private Registration pollRegistration;
+
+    // Log search
+    private final TextField searchText;
+    private final CheckboxGroup<LogLevel> levelFilter;
+    private final DateTimePicker fromPicker;
+    private final DateTimePicker toPicker;
+    private final Checkbox allInstances;
+    private final Button searchButton;
+    private final Button cancelButton;
+    private LogSearch currentSearch;
+    private final Map<Long, String> instanceNames = new HashMap<>();
+
+    public LogViewerView(TomcatInstanceService service,
+                         @Value("${central-manager.logs.view-buffer-lines:10000}") int bufferLines,
+                         @Value("${central-manager.logs.follow-interval-ms:1000}") int followIntervalMs) {
+        this.service = service;
+        this.buffer = new LogLineBuffer(bufferLines);
+        this.followIntervalMs = followIntervalMs;
 
-    public LogViewerView() {
         setSizeFull();
         setPadding(true);
         setSpacing(true);
@@ -37,74 +96,208 @@ public class LogViewerView extends VerticalLayout {
                 .set("font-size", "1.6em")
                 .set("margin-bottom", "0");
 
-        Button refreshButton = new Button("🔄 Refresh Logs", e -> loadLogs());
+        // Instance selection (lazy, filtered by name)
+        instanceSelect = new ComboBox<>("Instance");
+        instanceSelect.setItems(query -> service.fetchPage(query.getFilter().orElse(null), null,
+                VaadinSpringDataHelpers.toSpringPageRequest(query)).stream());
+        instanceSelect.setItemLabelGenerator(i -> i.getName() + " (" + i.getIpAddress() + ")");
+        instanceSelect.setWidth("320px");
+        instanceSelect.addValueChangeListener(e -> loadLogs());
+
+        Button refreshButton = new Button("🔄 Refresh Logs", e -> refreshLogs(true));
         refreshButton.getStyle().set("background-color", "#4CAF50").set("color", "white");
 
-        VerticalLayout header = new VerticalLayout(title, refreshButton);
+        // Follow tail: poll for new lines and append them in one batch per interval
+        followTail = new Checkbox("Follow tail");
+        followTail.addValueChangeListener(e -> updateFollowMode());
+
+        HorizontalLayout controls = new HorizontalLayout(instanceSelect, refreshButton, followTail);
+        controls.setAlignItems(FlexComponent.Alignment.BASELINE);
+
+        // Search bar: answered from the log index, results stream in while the query runs
+        searchText = new TextField("Search text");
+        searchText.setClearButtonVisible(true);
+        levelFilter = new CheckboxGroup<>("Levels");
+        levelFilter.setItems(LogLevel.values());
+        fromPicker = new DateTimePicker("From");
+        fromPicker.setHelperText("Set to include archived logs");
+        toPicker = new DateTimePicker("To");
+        allInstances = new Checkbox("All instances");
+        searchButton = new Button("🔍 Search", e -> startSearch());
+        cancelButton = new Button("✖ Cancel", e -> cancelSearch());
+        cancelButton.setEnabled(false);
+
+        HorizontalLayout searchBar = new HorizontalLayout(searchText, levelFilter, fromPicker, toPicker,
+                allInstances, searchButton, cancelButton);
+        searchBar.setAlignItems(FlexComponent.Alignment.BASELINE);
+        searchBar.setWrap(true);
+
+        VerticalLayout header = new VerticalLayout(title, controls, searchBar);
         header.setAlignItems(FlexComponent.Alignment.START);
         header.getStyle().set("margin-bottom", "20px");
         add(header);
 
-        // Log container
-        logContainer = new VerticalLayout();
-        logContainer.setSpacing(true);
-        logContainer.setPadding(true);
-        logContainer.getStyle()
-                .set("background-color", "#F9FAFB")
-                .set("border-radius", "10px")
-                .set("padding", "20px")
-                .set("box-shadow", "0 2px 8px rgba(0,0,0,0.1)");
+        status = new Span();
+        status.getStyle().set("font-size", "14px").set("color", "#666");
+        add(status);
 
-        add(logContainer);
-        setFlexGrow(1, logContainer);
+        // Log list
+        logProvider = DataProvider.fromCallbacks(
+                query -> buffer.range(query.getOffset(), query.getLimit()).stream(),
+                query -> buffer.size());
+        logList = new VirtualList<>();
+        logList.setRenderer(LitRenderer.<LogLine>of("<div class=\"log-line ${item.level}\">${item.text}</div>")
+                .withProperty("level", line -> line.level().name().toLowerCase())
+                .withProperty("text", LogLine::text));
+        logList.setDataProvider(logProvider);
+        logList.addClassName("log-list");
+        logList.setSizeFull();
+
+        add(logList);
+        setFlexGrow(1, logList);
 
         loadLogs(); // initial load
     }
 
+    @Override
+    protected void onAttach(AttachEvent attachEvent) {
+        super.onAttach(attachEvent);
+        updateFollowMode();
+    }
+
+    @Override
+    protected void onDetach(DetachEvent detachEvent) {
+        cancelSearch();
+        stopFollowing(detachEvent.getUI());
+        super.onDetach(detachEvent);
+    }
+
+    // Tail of the selected instance log
     private void loadLogs() {
-        logContainer.removeAll();
-
-        // Mock log data (later replaced by real DB or AWS logs)
-        List<String> logs = List.of(
-                "[INFO] Server started successfully at " + now(),
-                "[INFO] User 'Admin' logged in",
-                "[WARN] High memory usage detected (85%)",
-                "[ERROR] Deployment failed for instance Tomcat#3",
-                "[INFO] Instance Tomcat#1 restarted",
-                "[INFO] System running normally"
-        );
-
-        for (String log : logs) {
-            logContainer.add(createLogCard(log));
+        buffer.clear();
+        cursor.reset();
+
+        TomcatInstanceEntity instance = instanceSelect.getValue();
+        if (instance == null) {
+            status.setText("Select an instance to view its logs.");
+        } else {
+            buffer.addAll(service.tailLogs(instance.getId(), cursor));
+            updateStatus(instance);
+        }
+        logProvider.refreshAll();
+        logList.scrollToEnd();
+    }
+
+    // Append only the lines written since the last read
+    private void refreshLogs(boolean notify) {
+        TomcatInstanceEntity instance = instanceSelect.getValue();
+        if (instance == null) {
+            loadLogs();
+            return;
         }
 
-        Notification.show("✅ Logs refreshed.", 2000, Notification.Position.TOP_CENTER);
+        List<String> lines = service.readNewLogs(instance.getId(), cursor);
+        if (!lines.isEmpty()) {
+            buffer.addAll(lines);
+            logProvider.refreshAll();
+            if (followTail.getValue()) {
+                logList.scrollToEnd();
+            }
+            updateStatus(instance);
+        }
+
+        if (notify) {
+            Notification.show("✅ Logs refreshed.", 2000, Notification.Position.TOP_CENTER);
+        }
     }
 
-    private Div createLogCard(String logText) {
-        Div card = new Div();
-        card.getStyle()
-                .set("padding", "12px 16px")
-                .set("border-radius", "8px")
-                .set("margin-bottom", "10px")
-                .set("font-family", "monospace")
-                .set("font-size", "14px");
-
-        Span text = new Span(logText);
-
-        if (logText.contains("[ERROR]")) {
-            card.getStyle().set("background-color", "#ffebee").set("color", "#c62828");
-        } else if (logText.contains("[WARN]")) {
-            card.getStyle().set("background-color", "#fff8e1").set("color", "#f9a825");
-        } else {
-            card.getStyle().set("background-color", "#e8f5e9").set("color", "#2e7d32");
+    private void startSearch() {
+        cancelSearch();
+
+        TomcatInstanceEntity instance = instanceSelect.getValue();
+        List<Long> ids = allInstances.getValue()
+                ? service.getAllIds()
+                : instance == null ? List.of() : List.of(instance.getId());
+        if (ids.isEmpty()) {
+            Notification.show("⚠️ Select an instance or search all instances.");
+            return;
+        }
+
+        followTail.setValue(false);
+        buffer.clear();
+        logProvider.refreshAll();
+        status.setText("Searching...");
+        searchButton.setEnabled(false);
+        cancelButton.setEnabled(true);
+
+        LogQuery query = new LogQuery(ids, levelFilter.getValue(), toInstant(fromPicker.getValue()),
+                toInstant(toPicker.getValue()), searchText.getValue());
+        UI ui = UI.getCurrent();
+        LogSearch search = service.searchLogs(query, hits -> ui.access(() -> appendHits(hits)));
+        currentSearch = search;
+        search.completion().whenComplete((count, error) -> ui.access(() -> {
+            if (currentSearch != search) {
+                return;
+            }
+            currentSearch = null;
+            searchButton.setEnabled(true);
+            cancelButton.setEnabled(false);
+            if (error != null) {
+                status.setText("Search failed: " + error.getMessage());
+            } else {
+                status.setText((search.isCancelled() ? "Search cancelled: " : "Search finished: ") + count + " hits"
+                        + (count > buffer.capacity() ? " (showing last " + buffer.capacity() + ")" : ""));
+            }
+        }));
+    }
+
+    private void cancelSearch() {
+        if (currentSearch != null) {
+            currentSearch.cancel();
         }
+    }
+
+    private void appendHits(List<LogHit> hits) {
+        buffer.addAll(hits.stream()
+                .map(hit -> "[" + instanceName(hit.instanceId()) + "] " + hit.text())
+                .toList());
+        logProvider.refreshAll();
+        status.setText("Searching... " + buffer.size() + " hits so far");
+    }
+
+    private String instanceName(Long instanceId) {
+        return instanceNames.computeIfAbsent(instanceId, id -> {
+            TomcatInstanceEntity instance = service.getById(id);
+            return instance == null ? "#" + id : instance.getName();
+        });
+    }
 
-        card.add(text);
-        return card;
+    private Instant toInstant(LocalDateTime value) {
+        return value == null ? null : value.atZone(ZoneId.systemDefault()).toInstant();
+    }
+
+    private void updateFollowMode() {
+        getUI().ifPresent(ui -> {
+            stopFollowing(ui);
+            if (followTail.getValue()) {
+                ui.setPollInterval(followIntervalMs);
+                pollRegistration = ui.addPollListener(e -> refreshLogs(false));
+            }
+        });
+    }
+
+    private void stopFollowing(UI ui) {
+        if (pollRegistration != null) {
+            pollRegistration.remove();
+            pollRegistration = null;
+            ui.setPollInterval(-1);
+        }
     }
 
-    private String now() {
-        return LocalDateTime.now().format(DateTimeFormatter.ofPattern("HH:mm:ss"));
+    private void updateStatus(TomcatInstanceEntity instance) {
+        status.setText(buffer.size() == 0
+                ? "No log lines for " + instance.getName() + " yet."
+                : "Showing last " + buffer.size() + " lines of " + instance.getName()
+                        + " (max " + buffer.capacity() + ")");
     }
 }
@@ -0,0 +1,17 @@
+-- Instances. status is the smallint code of InstanceStatus (0 Running, 1 Stopped, 2 Deploying, 3 Failed)
+create table tomcat_instance (
+    id                 bigint generated by default as identity primary key,
+    name               varchar(255),
+    name_lower         varchar(255),
+    status             smallint     not null,
+    ip_address         varchar(255),
+    last_status_change timestamp(6),
+    version            bigint
+);
+
+-- Sorting by name, status filters and counts. The keyword search is a contains match (LIKE '%x%' on
+-- name_lower), which no B-tree index can serve: it scans, bounded by the search query timeout.
+-- idx_tomcat_instance_name_lower only helps ordered reads by the lowercase name.
+create index idx_tomcat_instance_name on tomcat_instance (name);
+create index idx_tomcat_instance_name_lower on tomcat_instance (name_lower);
+create index idx_tomcat_instance_status on tomcat_instance (status);
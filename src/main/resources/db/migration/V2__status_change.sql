@@ -0,0 +1,15 @@
+-- Append-only status journal, written in batches by StatusJournal
+create table status_change (
+    id          bigint generated by default as identity primary key,
+    instance_id bigint       not null,
+    from_status smallint,
+    to_status   smallint,
+    action      varchar(32),
+    actor       varchar(64),
+    changed_at  timestamp(6) not null,
+    duration_ms bigint
+);
+
+-- History of one instance in a time range, and fleet-wide history in a time range
+create index idx_status_change_instance_time on status_change (instance_id, changed_at);
+create index idx_status_change_time on status_change (changed_at);
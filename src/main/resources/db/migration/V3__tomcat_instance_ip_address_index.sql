@@ -0,0 +1,2 @@
+-- Log ingestion attributes incoming lines to instances by sender address
+create index idx_tomcat_instance_ip_address on tomcat_instance (ip_address);
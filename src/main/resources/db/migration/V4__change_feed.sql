@@ -0,0 +1,13 @@
+-- Cross-node change feed: one row per instance change, written in the change's transaction
+create table change_feed (
+    seq         bigint generated by default as identity primary key,
+    instance_id bigint       not null,
+    kind        smallint     not null,
+    from_status smallint,
+    to_status   smallint,
+    node        varchar(64)  not null,
+    changed_at  timestamp(6) not null
+);
+
+-- Nodes poll by seq (primary key); old rows are pruned by time
+create index idx_change_feed_time on change_feed (changed_at);
@@ -0,0 +1,3 @@
+-- The stuck-deployment reconciler looks up instances in a status since before a deadline,
+-- keyset-paged on (last_status_change, id)
+create index idx_tomcat_instance_status_change on tomcat_instance (status, last_status_change, id);
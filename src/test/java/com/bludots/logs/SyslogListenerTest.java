@@ -0,0 +1,105 @@
+package com.bludots.logs;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+/**
+ * TCP framing against a listener on a loopback port: octet-counted frames up to the line
+ * limit, lines that merely start with a number, and senders whose data cannot be framed.
+ */
+class SyslogListenerTest {
+
+    // Larger than the initial connection buffer, so frames near the limit make it grow
+    private static final int MAX_LINE_BYTES = 8192;
+
+    private final LogSegmentStore store = mock(LogSegmentStore.class);
+    // Lines handed to the store, in arrival order
+    private final BlockingQueue<String> lines = new LinkedBlockingQueue<>();
+
+    private int port;
+    private SyslogListener listener;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        doAnswer(call -> {
+            lines.add(new String((byte[]) call.getArgument(3), StandardCharsets.UTF_8));
+            return null;
+        }).when(store).offer(any(), any(), any(), any());
+        try (ServerSocket free = new ServerSocket(0, 1, InetAddress.getLoopbackAddress())) {
+            port = free.getLocalPort();
+        }
+        listener = new SyslogListener(store, true, "127.0.0.1", port, 0, 1 << 20, MAX_LINE_BYTES);
+        listener.start();
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        listener.shutdown();
+    }
+
+    @Test
+    void octetCountedFrameOfMaxLineBytesArrivesWhole() throws Exception {
+        String message = "<13>" + "x".repeat(MAX_LINE_BYTES - 4);
+        try (Socket sender = connect()) {
+            send(sender, MAX_LINE_BYTES + " " + message + "7 <13>end");
+            assertThat(nextLine()).endsWith(" " + "x".repeat(MAX_LINE_BYTES - 4) + "\n");
+            assertThat(nextLine()).endsWith(" end\n");
+        }
+    }
+
+    @Test
+    void linesStartingWithANumberAreNewlineFramed() throws Exception {
+        try (Socket sender = connect()) {
+            send(sender, "404 Not Found\n1234567890 <13>ten digits\n11 <13>counted");
+            assertThat(nextLine()).endsWith(" 404 Not Found\n");
+            assertThat(nextLine()).endsWith(" 1234567890 <13>ten digits\n");
+            assertThat(nextLine()).endsWith(" counted\n");
+        }
+    }
+
+    @Test
+    void oversizedFrameClosesOnlyItsSender() throws Exception {
+        try (Socket bad = connect(); Socket good = connect()) {
+            send(bad, (MAX_LINE_BYTES + 1) + " <13>too long");
+            assertThat(bad.getInputStream().read()).isEqualTo(-1); // closed by the listener
+
+            send(good, "<13>still served\n");
+            assertThat(nextLine()).endsWith(" still served\n");
+            assertThat(lines).isEmpty();
+        }
+    }
+
+    private Socket connect() throws IOException {
+        Socket socket = new Socket(InetAddress.getLoopbackAddress(), port);
+        socket.setSoTimeout(5000);
+        return socket;
+    }
+
+    private static void send(Socket socket, String data) throws IOException {
+        OutputStream out = socket.getOutputStream();
+        out.write(data.getBytes(StandardCharsets.UTF_8));
+        out.flush();
+    }
+
+    private String nextLine() throws InterruptedException {
+        String line = lines.poll(5, TimeUnit.SECONDS);
+        assertThat(line).as("line received").isNotNull();
+        return line;
+    }
+}
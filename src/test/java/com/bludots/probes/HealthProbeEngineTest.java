@@ -0,0 +1,140 @@
+package com.bludots.probes;
+
+import com.bludots.cache.InstanceCache;
+import com.bludots.cache.InstanceSnapshot;
+import com.bludots.entities.InstanceStatus;
+import com.bludots.history.StatusChange;
+import com.bludots.metrics.MetricsStore;
+import com.bludots.repositories.TomcatInstanceRepository;
+import com.bludots.services.InstanceStatusWriter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Optional;
+
+import static com.bludots.entities.InstanceStatus.FAILED;
+import static com.bludots.entities.InstanceStatus.RUNNING;
+import static com.bludots.entities.InstanceStatus.STOPPED;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Probes against a stub server on a loopback port and against a closed port.
+ */
+class HealthProbeEngineTest {
+
+    private static final int FAILURE_THRESHOLD = 2;
+
+    private final InstanceCache cache = mock(InstanceCache.class);
+    private final InstanceStatusWriter statusWriter = mock(InstanceStatusWriter.class);
+    // Ids handed to transitionAll, per target state
+    private final List<Long> markedFailed = new ArrayList<>();
+    private final List<Long> recovered = new ArrayList<>();
+
+    private ServerSocket stub;
+    private Thread acceptor;
+    private String upAddress;
+    private String downAddress;
+    private HealthProbeEngine engine;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        InetAddress loopback = InetAddress.getLoopbackAddress();
+        stub = new ServerSocket(0, 50, loopback);
+        acceptor = Thread.ofVirtual().start(() -> {
+            while (!stub.isClosed()) {
+                try (Socket ignored = stub.accept()) {
+                    // Accepting is all a TCP probe needs
+                } catch (IOException e) {
+                    return;
+                }
+            }
+        });
+        upAddress = loopback.getHostAddress() + ":" + stub.getLocalPort();
+        try (ServerSocket closed = new ServerSocket(0, 1, loopback)) {
+            downAddress = loopback.getHostAddress() + ":" + closed.getLocalPort();
+        }
+
+        when(statusWriter.transitionAll(anyCollection(), any(), any(), anyString(), anyString())).thenAnswer(call -> {
+            Collection<Long> ids = call.getArgument(0);
+            (call.getArgument(2) == FAILED ? markedFailed : recovered).addAll(ids);
+            return List.copyOf(ids);
+        });
+        engine = new HealthProbeEngine(cache, mock(TomcatInstanceRepository.class), statusWriter,
+                mock(MetricsStore.class), false, 30_000, 1000, 0, 16, FAILURE_THRESHOLD, "tcp", 8080, "/");
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        stub.close();
+        acceptor.join(1000);
+    }
+
+    @Test
+    void probeReportsOpenAndClosedPorts() {
+        assertThat(engine.probe(1L, upAddress).up()).isTrue();
+        ProbeResult down = engine.probe(2L, downAddress);
+        assertThat(down.up()).isFalse();
+        assertThat(down.error()).isNotBlank();
+    }
+
+    @Test
+    void runningInstanceFailsAfterThresholdAndFailedOneRecovers() {
+        fleet(snapshot(1L, RUNNING, upAddress), snapshot(2L, RUNNING, downAddress), snapshot(3L, FAILED, upAddress));
+
+        ProbeRound first = engine.runRound();
+        assertThat(first.probed()).isEqualTo(3);
+        assertThat(first.down()).isEqualTo(1);
+        assertThat(markedFailed).isEmpty(); // one failure, threshold not reached
+        assertThat(recovered).containsExactly(3L);
+
+        ProbeRound second = engine.runRound();
+        assertThat(second.markedFailed()).isEqualTo(1);
+        assertThat(markedFailed).containsExactly(2L);
+        verify(statusWriter).transitionAll(eq(List.of(2L)), eq(EnumSet.of(RUNNING)), eq(FAILED),
+                eq(StatusChange.PROBE), anyString());
+    }
+
+    @Test
+    void stoppedInstancesAreNotProbedAndStartOverWithTheFullThreshold() {
+        fleet(snapshot(1L, RUNNING, downAddress));
+        engine.runRound(); // one failure
+
+        fleet(snapshot(1L, STOPPED, downAddress));
+        assertThat(engine.runRound().probed()).isZero();
+
+        // Started again: a single failed probe must not mark it Failed
+        fleet(snapshot(1L, RUNNING, downAddress));
+        engine.runRound();
+        assertThat(markedFailed).isEmpty();
+        verify(statusWriter, never()).transitionAll(anyCollection(), any(), eq(FAILED), anyString(), anyString());
+
+        engine.runRound();
+        assertThat(markedFailed).containsExactly(1L);
+    }
+
+    private void fleet(InstanceSnapshot... snapshots) {
+        when(cache.all()).thenReturn(Optional.of(List.of(snapshots)));
+    }
+
+    private static InstanceSnapshot snapshot(Long id, InstanceStatus status, String address) {
+        return new InstanceSnapshot(id, "Client " + id, status, address, LocalDateTime.now(), 0L);
+    }
+}